@@ -70,6 +70,13 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * @return the channels of this carrier, which expose the status of the buffers, such as the occupancy.
+     */
+    public Channels<T> getChannels() {
+        return channels;
+    }
+
     /**
      * produce data to buffer, using the given {@link BufferStrategy}.
      *
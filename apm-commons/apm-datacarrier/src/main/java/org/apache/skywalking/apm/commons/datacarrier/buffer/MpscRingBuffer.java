@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerWaiter;
+
+/**
+ * Multiple producers single consumer ring buffer. A producer claims a slot by increasing the producer sequence through
+ * CAS, only when the claimed slot has been released by the consumer, then publishes the data into the slot. The
+ * consumer reads the slots in the sequence order, and stops at the first slot claimed but not published yet.
+ * <p>
+ * When the buffer is full, {@link BufferStrategy#BLOCKING} makes the producer wait until the consumer releases a slot,
+ * and {@link BufferStrategy#IF_POSSIBLE} drops the data and counts it in {@link #getDroppedCount()}. The data is never
+ * overridden in both strategies.
+ * <p>
+ * Each buffer must be consumed by one thread only, which is guaranteed by the consumer drivers. The waiter of the
+ * consumer thread is woken up after the data is published.
+ */
+public class MpscRingBuffer<T> implements QueueBuffer<T> {
+    /**
+     * The times of {@link Thread#yield()} before parking, when the producer is blocked.
+     */
+    private static final int MAX_YIELD_TIMES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AtomicReferenceArray<T> slots;
+    private final int bufferSize;
+    /**
+     * The next sequence to be claimed by the producers.
+     */
+    private final AtomicLong producerSequence = new AtomicLong();
+    /**
+     * The next sequence to be read by the consumer, all slots before it are released.
+     */
+    private final AtomicLong consumerSequence = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile BufferStrategy strategy;
+    private volatile ConsumerWaiter consumerWaiter;
+
+    MpscRingBuffer(int bufferSize, BufferStrategy strategy) {
+        this.slots = new AtomicReferenceArray<T>(bufferSize);
+        this.bufferSize = bufferSize;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public boolean save(T data) {
+        int waitTimes = 0;
+        long sequence;
+        while (true) {
+            sequence = producerSequence.get();
+            if (sequence - consumerSequence.get() >= bufferSize) {
+                if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+                    droppedCount.incrementAndGet();
+                    return false;
+                }
+                if (Thread.interrupted()) {
+                    // Same as the interrupted blocking queue, give up the data.
+                    droppedCount.incrementAndGet();
+                    return false;
+                }
+                if (waitTimes++ < MAX_YIELD_TIMES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                continue;
+            }
+            if (producerSequence.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        slots.lazySet(indexOf(sequence), data);
+        final ConsumerWaiter waiter = consumerWaiter;
+        if (waiter != null) {
+            waiter.wakeUp();
+        }
+        return true;
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        long sequence = consumerSequence.get();
+        final long claimed = producerSequence.get();
+        while (sequence < claimed) {
+            final int index = indexOf(sequence);
+            final T data = slots.get(index);
+            if (data == null) {
+                // Claimed by a producer, but not published yet.
+                break;
+            }
+            slots.lazySet(index, null);
+            consumeList.add(data);
+            sequence++;
+        }
+        consumerSequence.lazySet(sequence);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of the claimed slots, including the ones being published.
+     */
+    @Override
+    public int size() {
+        final long size = producerSequence.get() - consumerSequence.get();
+        return (int) Math.max(0, Math.min(size, bufferSize));
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public void setConsumerWaiter(ConsumerWaiter waiter) {
+        this.consumerWaiter = waiter;
+    }
+
+    private int indexOf(long sequence) {
+        return (int) (sequence % bufferSize);
+    }
+}
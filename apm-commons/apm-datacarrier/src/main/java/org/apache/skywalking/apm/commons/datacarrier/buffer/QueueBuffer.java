@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
 import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerWaiter;
 
 /**
  * Queue buffer interface.
@@ -43,4 +44,19 @@ public interface QueueBuffer<T> {
     void obtain(List<T> consumeList);
 
     int getBufferSize();
+
+    /**
+     * @return the number of the data in the queue, which is the occupancy of the buffer.
+     */
+    int size();
+
+    /**
+     * @return the number of the data dropped because the queue is full.
+     */
+    long getDroppedCount();
+
+    /**
+     * Set the waiter of the consumer thread of this queue, which is woken up once the data is saved.
+     */
+    void setConsumerWaiter(ConsumerWaiter waiter);
 }
@@ -20,27 +20,27 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
 
 public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
-    private long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(consumeCycle);
     }
 
     /**
      * add whole buffer to consume
      */
     void addDataSource(QueueBuffer<T> sourceBuffer) {
+        sourceBuffer.setConsumerWaiter(waiter);
         this.dataSources.add(new DataSource(sourceBuffer));
     }
 
@@ -50,11 +50,10 @@ public class ConsumerThread<T> extends Thread {
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (consume(consumeList)) {
+                waiter.busy();
+            } else {
+                waiter.idle(this::hasData);
             }
         }
 
@@ -80,15 +79,26 @@ public class ConsumerThread<T> extends Thread {
             }
             return true;
         }
+        consumer.nothingToConsume();
+        return false;
+    }
+
+    private boolean hasData() {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource.sourceBuffer.size() > 0) {
+                return true;
+            }
+        }
         return false;
     }
 
     void shutdown() {
         running = false;
+        waiter.wakeUp();
     }
 
     /**
-     * DataSource is a refer to {@link Buffer}.
+     * DataSource is a refer to {@link QueueBuffer}.
      */
     class DataSource {
         private QueueBuffer<T> sourceBuffer;
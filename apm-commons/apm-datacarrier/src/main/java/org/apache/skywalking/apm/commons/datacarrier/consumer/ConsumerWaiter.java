@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+
+/**
+ * ConsumerWaiter decides how the consumer thread waits when there is nothing to consume. The consumer spins first, then
+ * yields, and parks at last, as the data usually arrives in bursts. The parked consumer is woken up by the producer
+ * through {@link #wakeUp()} once the data is saved into any {@link QueueBuffer} of it, rather than checking the buffers
+ * in a fixed interval.
+ * <p>
+ * The park time is bounded by the consume cycle, so {@link IConsumer#nothingToConsume()} is still triggered
+ * periodically when there is no data at all.
+ */
+public class ConsumerWaiter {
+    private static final int SPIN_TIMES = 50;
+    private static final int YIELD_TIMES = 50;
+
+    private final long consumeCycleNanos;
+    /**
+     * The parked consumer thread, null means the consumer is running and doesn't need to be woken up.
+     */
+    private volatile Thread parkedThread;
+    private int idleTimes;
+
+    public ConsumerWaiter(long consumeCycle) {
+        this.consumeCycleNanos = TimeUnit.MILLISECONDS.toNanos(consumeCycle);
+    }
+
+    /**
+     * Called by the consumer thread after a round consuming nothing.
+     *
+     * @param hasData checks whether any buffer of the consumer has data, it is called after the parked thread is
+     *                published, so the data saved at the same time will not be missed.
+     */
+    void idle(BooleanSupplier hasData) {
+        if (idleTimes < SPIN_TIMES) {
+            idleTimes++;
+            return;
+        }
+        if (idleTimes < SPIN_TIMES + YIELD_TIMES) {
+            idleTimes++;
+            Thread.yield();
+            return;
+        }
+        parkedThread = Thread.currentThread();
+        try {
+            if (!hasData.getAsBoolean()) {
+                LockSupport.parkNanos(this, consumeCycleNanos);
+                // Same as the interrupted sleep, the interruption only ends the waiting.
+                Thread.interrupted();
+            }
+        } finally {
+            parkedThread = null;
+        }
+    }
+
+    /**
+     * Called by the consumer thread after a round consuming data, the next waiting starts from spinning again.
+     */
+    void busy() {
+        idleTimes = 0;
+    }
+
+    /**
+     * Called by the producers after saving the data. Only unpark the consumer when it is parked, so it costs one
+     * volatile read when the consumer is running.
+     */
+    public void wakeUp() {
+        final Thread thread = parkedThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
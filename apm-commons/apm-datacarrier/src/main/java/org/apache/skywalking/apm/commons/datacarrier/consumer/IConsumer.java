@@ -28,4 +28,11 @@ public interface IConsumer<T> {
     void onError(List<T> data, Throwable t);
 
     void onExit();
+
+    /**
+     * Notify the implementation, if there is nothing fetched from the queue. This could be used as a timer to trigger
+     * reaction if the queue has no element.
+     */
+    default void nothingToConsume() {
+    }
 }
@@ -32,12 +32,12 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
-    private final long consumeCycle;
+    private final ConsumerWaiter waiter;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
-        this.consumeCycle = consumeCycle;
+        this.waiter = new ConsumerWaiter(consumeCycle);
     }
 
     @Override
@@ -52,11 +52,10 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consume;
             }
 
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
+            if (hasData) {
+                waiter.busy();
+            } else {
+                waiter.idle(this::hasData);
             }
         }
 
@@ -85,6 +84,18 @@ public class MultipleChannelsConsumer extends Thread {
             }
             return true;
         }
+        target.consumer.nothingToConsume();
+        return false;
+    }
+
+    private boolean hasData() {
+        for (Group target : consumeTargets) {
+            for (int i = 0; i < target.channels.getChannelSize(); i++) {
+                if (target.channels.getBuffer(i).size() > 0) {
+                    return true;
+                }
+            }
+        }
         return false;
     }
 
@@ -92,6 +103,9 @@ public class MultipleChannelsConsumer extends Thread {
      * Add a new target channels.
      */
     public void addNewTarget(Channels channels, IConsumer consumer) {
+        for (int i = 0; i < channels.getChannelSize(); i++) {
+            channels.getBuffer(i).setConsumerWaiter(waiter);
+        }
         Group group = new Group(channels, consumer);
         // Recreate the new list to avoid change list while the list is used in consuming.
         ArrayList<Group> newList = new ArrayList<Group>();
@@ -109,6 +123,7 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        waiter.wakeUp();
     }
 
     private static class Group {
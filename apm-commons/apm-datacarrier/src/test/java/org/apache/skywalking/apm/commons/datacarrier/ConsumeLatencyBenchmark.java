@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the latency from {@link DataCarrier#produce(Object)} to {@link IConsumer#consume(List)} of a sparse
+ * producer, and the CPU time taken by the consumer thread while there is no data at all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConsumeLatencyBenchmark {
+    private static final String NAME = "ConsumeLatencyBenchmark";
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final AtomicLong consumed = new AtomicLong();
+    private DataCarrier<SampleData> carrier;
+    private long consumerThreadId;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        carrier = new DataCarrier<>(NAME, 1, 1024);
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init() {
+            }
+
+            @Override
+            public void consume(final List<SampleData> data) {
+                consumed.addAndGet(data.size());
+            }
+
+            @Override
+            public void onError(final List<SampleData> data, final Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+        }, 1, 20);
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("DataCarrier." + NAME)) {
+                consumerThreadId = thread.getId();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        carrier.shutdownConsumers();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ConsumerCpu {
+        /**
+         * The CPU time of the consumer thread in microseconds, accumulated in the iteration.
+         */
+        public long consumerCpuMicros;
+    }
+
+    /**
+     * Produce one data and wait until it is consumed. The producer yields in waiting, as the consumer may share the
+     * same core.
+     */
+    @Benchmark
+    public long produceToConsume() {
+        final long target = consumed.get() + 1;
+        carrier.produce(new SampleData());
+        while (consumed.get() < target) {
+            Thread.yield();
+        }
+        return target;
+    }
+
+    /**
+     * Keep the consumer idle for 100ms, and record the CPU time it takes.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void idleConsumer(ConsumerCpu cpu) throws InterruptedException {
+        final long start = THREAD_MX_BEAN.getThreadCpuTime(consumerThreadId);
+        TimeUnit.MILLISECONDS.sleep(100);
+        cpu.consumerCpuMicros += (THREAD_MX_BEAN.getThreadCpuTime(consumerThreadId) - start) / 1000;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ConsumeLatencyBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+    /*
+        Environment:
+
+        # JMH version: 1.21
+        # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 1 CPU core
+        # Warmup: 2 iterations, 2 s each
+        # Measurement: 5 iterations, 2 s each
+        # Benchmark mode: Average time, time/op
+
+        Sleep in the fixed consume cycle(20ms), before the consumer waiter:
+
+        Benchmark                                               Mode  Cnt      Score     Error  Units
+        ConsumeLatencyBenchmark.idleConsumer                    avgt    5    100.228 ±   0.253  ms/op
+        ConsumeLatencyBenchmark.idleConsumer:consumerCpuMicros  avgt    5  31362.000                #
+        ConsumeLatencyBenchmark.produceToConsume                avgt    5  20070.219 ± 331.483  us/op
+
+        Spin, yield and park in the consume cycle, woken up by the producer:
+
+        Benchmark                                               Mode  Cnt      Score   Error  Units
+        ConsumeLatencyBenchmark.idleConsumer                    avgt    5    100.205 ± 0.256  ms/op
+        ConsumeLatencyBenchmark.idleConsumer:consumerCpuMicros  avgt    5  32134.000              #
+        ConsumeLatencyBenchmark.produceToConsume                avgt    5      2.516 ± 0.930  us/op
+     */
+}
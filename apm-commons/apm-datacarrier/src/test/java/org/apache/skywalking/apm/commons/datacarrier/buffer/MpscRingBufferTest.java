@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+    @Test
+    public void testSaveAndObtain() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4, BufferStrategy.IF_POSSIBLE);
+        List<Integer> result = new ArrayList<>();
+        // Run several rounds to wrap the ring.
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                Assert.assertTrue(buffer.save(round * 4 + i));
+            }
+            Assert.assertEquals(4, buffer.size());
+            buffer.obtain(result);
+            Assert.assertEquals(0, buffer.size());
+        }
+        for (int i = 0; i < result.size(); i++) {
+            Assert.assertEquals(i, result.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testDropIfFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(2, BufferStrategy.IF_POSSIBLE);
+        Assert.assertTrue(buffer.save(1));
+        Assert.assertTrue(buffer.save(2));
+        Assert.assertFalse(buffer.save(3));
+        Assert.assertEquals(1, buffer.getDroppedCount());
+
+        List<Integer> result = new ArrayList<>();
+        buffer.obtain(result);
+        // The existing data is never overridden.
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(1, result.get(0).intValue());
+        Assert.assertEquals(2, result.get(1).intValue());
+    }
+
+    @Test
+    public void testConcurrentBlockingSave() throws InterruptedException {
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(16, BufferStrategy.BLOCKING);
+        final int producers = 4;
+        final int times = 2000;
+        final CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * times;
+            new Thread(() -> {
+                for (int i = 0; i < times; i++) {
+                    buffer.save(base + i);
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        Set<Integer> received = new HashSet<>();
+        List<Integer> consumeList = new ArrayList<>();
+        while (latch.getCount() > 0 || buffer.size() > 0) {
+            buffer.obtain(consumeList);
+            received.addAll(consumeList);
+            consumeList.clear();
+        }
+
+        Assert.assertEquals(producers * times, received.size());
+        Assert.assertEquals(0, buffer.getDroppedCount());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConsumerWaiterTest {
+    @Test
+    public void testWakeUpParkedConsumer() throws InterruptedException {
+        // The consume cycle is much longer than the test, only the wake up could end the waiting.
+        final ConsumerWaiter waiter = new ConsumerWaiter(TimeUnit.MINUTES.toMillis(10));
+        final CountDownLatch parking = new CountDownLatch(1);
+        final CountDownLatch woken = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            while (parking.getCount() > 0) {
+                waiter.idle(() -> {
+                    parking.countDown();
+                    return false;
+                });
+            }
+            woken.countDown();
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+
+        Assert.assertTrue(parking.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(woken.await(100, TimeUnit.MILLISECONDS));
+        waiter.wakeUp();
+        Assert.assertTrue(woken.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNotParkWhenDataArrived() throws InterruptedException {
+        final ConsumerWaiter waiter = new ConsumerWaiter(TimeUnit.MINUTES.toMillis(10));
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                waiter.idle(() -> true);
+            }
+            done.countDown();
+        });
+        consumer.setDaemon(true);
+        consumer.start();
+
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -177,6 +177,29 @@ public class Config {
          * If true, skywalking agent will enable periodically resolving DNS to update receiver service addresses.
          */
         public static boolean IS_RESOLVE_DNS_PERIODICALLY = false;
+        /**
+         * If true, the trace segments are sent through a long-lived stream, which is flushed by {@link
+         * #TRACE_STREAMING_FLUSH_BYTES} or {@link #TRACE_STREAMING_FLUSH_INTERVAL}, rather than a new stream waited
+         * for the response in every batch.
+         */
+        public static boolean TRACE_STREAMING = false;
+        /**
+         * The stream of the trace segments is flushed when it has sent the bytes.
+         */
+        public static int TRACE_STREAMING_FLUSH_BYTES = 1024 * 1024;
+        /**
+         * The stream of the trace segments is flushed when it has been open for the time. Unit is millisecond.
+         */
+        public static long TRACE_STREAMING_FLUSH_INTERVAL = 1000;
+        /**
+         * The max number of the flushed streams waiting for the response of the backend, the sending is paused when
+         * it is reached.
+         */
+        public static int TRACE_STREAMING_MAX_IN_FLIGHT = 4;
+        /**
+         * The compression of the trace segments sent to the backend, `gzip` or blank for no compression.
+         */
+        public static String TRACE_COMPRESSION = "";
     }
 
     public static class Profile {
@@ -205,6 +228,13 @@ public class Config {
          * Snapshot transport to backend buffer size
          */
         public static int SNAPSHOT_TRANSPORT_BUFFER_SIZE = 500;
+
+        /**
+         * If true, all the profiling threads are dumped in one {@link java.lang.management.ThreadMXBean} call per
+         * period, rather than one dump per thread, and the code signatures of the stack elements are built once per
+         * task.
+         */
+        public static boolean BATCH_DUMP = false;
     }
 
     public static class Meter {
@@ -18,8 +18,10 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
 import lombok.AccessLevel;
@@ -71,11 +73,13 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. The array is the in-memory storage-structure,
+     * {@link #activeSpanStackDepth} is the position of the top, operated by {@link #pop()}, {@link
+     * #push(AbstractSpan)} and {@link #peek()}. The array only grows when the spans are nested deeper than ever, rather
+     * than allocating a node for every pushed span.
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+    private AbstractSpan[] activeSpanStack = new AbstractSpan[8];
+    private int activeSpanStackDepth;
     /**
      * @since 7.0.0 SkyWalking support lazy injection through {@link ExitTypeSpan#inject(ContextCarrier)}. Due to that,
      * the {@link #activeSpanStack} could be blank by then, this is a pointer forever to the first span, even the main
@@ -128,8 +132,7 @@ public class TracingContext implements AbstractTracerContext {
         if (PROFILE_TASK_EXECUTION_SERVICE == null) {
             PROFILE_TASK_EXECUTION_SERVICE = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
         }
-        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(
-            this, segment.getTraceSegmentId(), firstOPName);
+        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(this, firstOPName);
 
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
@@ -378,7 +381,7 @@ public class TracingContext implements AbstractTracerContext {
 
         finish();
 
-        return activeSpanStack.isEmpty();
+        return activeSpanStackDepth == 0;
     }
 
     @Override
@@ -419,7 +422,7 @@ public class TracingContext implements AbstractTracerContext {
             return;
         }
 
-        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, segment.getTraceSegmentId(), operationName);
+        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, operationName);
     }
 
     /**
@@ -431,7 +434,7 @@ public class TracingContext implements AbstractTracerContext {
             asyncFinishLock.lock();
         }
         try {
-            boolean isFinishedInMainThread = activeSpanStack.isEmpty() && running;
+            boolean isFinishedInMainThread = activeSpanStackDepth == 0 && running;
             if (isFinishedInMainThread) {
                 /*
                  * Notify after tracing finished in the main thread.
@@ -514,7 +517,12 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        if (activeSpanStackDepth == 0) {
+            throw new NoSuchElementException();
+        }
+        final AbstractSpan span = activeSpanStack[--activeSpanStackDepth];
+        activeSpanStack[activeSpanStackDepth] = null;
+        return span;
     }
 
     /**
@@ -526,7 +534,10 @@ public class TracingContext implements AbstractTracerContext {
         if (firstSpan == null) {
             firstSpan = span;
         }
-        activeSpanStack.addLast(span);
+        if (activeSpanStackDepth == activeSpanStack.length) {
+            activeSpanStack = Arrays.copyOf(activeSpanStack, activeSpanStackDepth << 1);
+        }
+        activeSpanStack[activeSpanStackDepth++] = span;
         this.extensionContext.handle(span);
         return span;
     }
@@ -535,10 +546,10 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack' only.
      */
     private AbstractSpan peek() {
-        if (activeSpanStack.isEmpty()) {
+        if (activeSpanStackDepth == 0) {
             return null;
         }
-        return activeSpanStack.getLast();
+        return activeSpanStack[activeSpanStackDepth - 1];
     }
 
     private AbstractSpan first() {
@@ -18,10 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context.ids;
 
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import java.util.Objects;
 
 /**
  * The <code>DistributedTraceId</code> presents a distributed call chain.
@@ -32,12 +29,29 @@ import lombok.ToString;
  * executions, are using the same <code>DistributedTraceId</code> even in different JVM.
  * <p>
  * The <code>DistributedTraceId</code> contains only one string, and can NOT be reset, creating a new instance is the
- * only option.
+ * only option. The ids are equal when the strings are equal, no matter they are new generated or propagated.
  */
-@RequiredArgsConstructor
-@ToString
-@EqualsAndHashCode
 public abstract class DistributedTraceId {
-    @Getter
-    private final String id;
+    public abstract String getId();
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DistributedTraceId)) {
+            return false;
+        }
+        return Objects.equals(getId(), ((DistributedTraceId) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "DistributedTraceId(id=" + getId() + ")";
+    }
 }
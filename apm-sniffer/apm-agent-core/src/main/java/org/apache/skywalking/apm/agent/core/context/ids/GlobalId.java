@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+/**
+ * The <code>GlobalId</code> is an id generated by {@link GlobalIdGenerator}, kept in the binary parts, the process id,
+ * the thread id and the sequence. The string format, which is propagated and reported, is rendered only when it is
+ * read at the first time, then cached. So an id which is never read, such as the new trace id replaced by the
+ * propagated one, doesn't allocate any string.
+ */
+public final class GlobalId {
+    private final String processId;
+    private final long threadId;
+    private final long sequence;
+    /**
+     * The rendered id. Rendering it twice in different threads is harmless, as the result is always the same.
+     */
+    private String id;
+
+    GlobalId(String processId, long threadId, long sequence) {
+        this.processId = processId;
+        this.threadId = threadId;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return the id in the format of `processId.threadId.sequence`.
+     */
+    @Override
+    public String toString() {
+        String rendered = id;
+        if (rendered == null) {
+            // The thread id and the sequence take 20 chars at most for each.
+            final StringBuilder builder = new StringBuilder(processId.length() + 42);
+            builder.append(processId).append('.').append(threadId).append('.').append(sequence);
+            rendered = builder.toString();
+            id = rendered;
+        }
+        return rendered;
+    }
+}
@@ -19,10 +19,18 @@
 package org.apache.skywalking.apm.agent.core.context.ids;
 
 /**
- * The <code>NewDistributedTraceId</code> is a {@link DistributedTraceId} with a new generated id.
+ * The <code>NewDistributedTraceId</code> is a {@link DistributedTraceId} with a new generated id. The string of the id
+ * is rendered at the first {@link #getId()}, it is never rendered if the trace id is replaced by the propagated one.
  */
 public class NewDistributedTraceId extends DistributedTraceId {
+    private final GlobalId id;
+
     public NewDistributedTraceId() {
-        super(GlobalIdGenerator.generate());
+        this.id = GlobalIdGenerator.generateId();
+    }
+
+    @Override
+    public String getId() {
+        return id.toString();
     }
 }
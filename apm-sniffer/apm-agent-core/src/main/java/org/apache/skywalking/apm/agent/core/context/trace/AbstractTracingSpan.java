@@ -19,7 +19,6 @@
 package org.apache.skywalking.apm.agent.core.context.trace;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -121,11 +120,12 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan tag(AbstractTag<?> tag, String value) {
         if (tags == null) {
-            tags = new ArrayList<>(8);
+            tags = new ArrayList<>(4);
         }
 
         if (tag.isCanOverwrite()) {
-            for (TagValuePair pair : tags) {
+            for (int i = 0; i < tags.size(); i++) {
+                final TagValuePair pair = tags.get(i);
                 if (pair.sameWith(tag)) {
                     pair.setValue(value);
                     return this;
@@ -164,7 +164,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(Throwable t) {
         if (logs == null) {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(2);
         }
         if (!errorOccurred && ServiceManager.INSTANCE.findService(StatusCheckService.class).isError(t)) {
             errorOccurred();
@@ -188,7 +188,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public AbstractTracingSpan log(long timestampMicroseconds, Map<String, ?> fields) {
         if (logs == null) {
-            logs = new LinkedList<>();
+            logs = new ArrayList<>(2);
         }
         LogDataEntity.Builder builder = new LogDataEntity.Builder();
         for (Map.Entry<String, ?> entry : fields.entrySet()) {
@@ -305,7 +305,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     @Override
     public void ref(TraceSegmentRef ref) {
         if (refs == null) {
-            refs = new LinkedList<>();
+            refs = new ArrayList<>(2);
         }
         /*
          * Provide the OOM protection if the entry span hosts too many references.
@@ -18,10 +18,11 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
 import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
@@ -33,9 +34,9 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
  */
 public class TraceSegment {
     /**
-     * The id of this trace segment. Every segment has its unique-global-id.
+     * The id of this trace segment. Every segment has its unique-global-id, which is rendered at the first reading.
      */
-    private String traceSegmentId;
+    private final GlobalId traceSegmentId;
 
     /**
      * The refs of parent trace segments, except the primary one. For most RPC call, {@link #ref} contains only one
@@ -69,8 +70,8 @@ public class TraceSegment {
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
-        this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<>();
+        this.traceSegmentId = GlobalIdGenerator.generateId();
+        this.spans = new ArrayList<>();
         this.relatedGlobalTraceId = new NewDistributedTraceId();
         this.createTime = System.currentTimeMillis();
     }
@@ -112,7 +113,7 @@ public class TraceSegment {
     }
 
     public String getTraceSegmentId() {
-        return traceSegmentId;
+        return traceSegmentId.toString();
     }
 
     /**
@@ -149,7 +150,7 @@ public class TraceSegment {
         /*
          * Trace Segment
          */
-        traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId);
+        traceSegmentBuilder.setTraceSegmentId(getTraceSegmentId());
         // Don't serialize TraceSegmentReference
 
         // SpanObject
@@ -23,7 +23,6 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import net.bytebuddy.description.NamedElement;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
@@ -32,9 +31,6 @@ import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
 
-import static net.bytebuddy.matcher.ElementMatchers.isInterface;
-import static net.bytebuddy.matcher.ElementMatchers.not;
-
 /**
  * The <code>PluginFinder</code> represents a finder , which assist to find the one from the given {@link
  * AbstractClassEnhancePluginDefine} list.
@@ -43,6 +39,7 @@ public class PluginFinder {
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
     private final List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    private final SignatureMatchIndex signatureMatchIndex;
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
@@ -68,6 +65,7 @@ public class PluginFinder {
                 bootstrapClassMatchDefine.add(plugin);
             }
         }
+        signatureMatchIndex = new SignatureMatchIndex(signatureMatchDefine);
     }
 
     public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
@@ -77,25 +75,27 @@ public class PluginFinder {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
-            IndirectMatch match = (IndirectMatch) pluginDefine.enhanceClass();
-            if (match.isMatch(typeDescription)) {
-                matchedPlugins.add(pluginDefine);
-            }
-        }
+        matchedPlugins.addAll(signatureMatchIndex.find(typeDescription));
 
         return matchedPlugins;
     }
 
+    /**
+     * Build the matcher of the types to enhance. The name matches and the indexed signature matches are checked in one
+     * junction through the {@link SignatureMatchIndex}, only the signature matches which can't be indexed are chained
+     * by their own junctions.
+     */
     public ElementMatcher<? super TypeDescription> buildMatch() {
-        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+        ElementMatcher.Junction judge = new AbstractJunction<TypeDescription>() {
             @Override
-            public boolean matches(NamedElement target) {
-                return nameMatchDefine.containsKey(target.getActualName());
+            public boolean matches(TypeDescription target) {
+                if (!target.isInterface() && nameMatchDefine.containsKey(target.getActualName())) {
+                    return true;
+                }
+                return signatureMatchIndex.matchesIndexed(target);
             }
         };
-        judge = judge.and(not(isInterface()));
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
+        for (AbstractClassEnhancePluginDefine define : signatureMatchIndex.getUnindexedDefines()) {
             ClassMatch match = define.enhanceClass();
             if (match instanceof IndirectMatch) {
                 judge = judge.or(((IndirectMatch) match).buildJunction());
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+
+/**
+ * SignatureMatchIndex pre-indexes the plugins matched by the {@link IndirectMatch}, so a type is only checked against
+ * the plugins which could match it, rather than all of them.
+ *
+ * <ul>
+ * <li>{@link PrefixMatch} plugins are kept in a prefix trie, a type name walks the trie once and stops at the first
+ * character that no prefix shares, so the types of the unrelated packages are rejected quickly.</li>
+ * <li>{@link MultiClassNameMatch} plugins are indexed by the class names.</li>
+ * <li>{@link HierarchyMatch} plugins are indexed by the first parent type. The super classes and interfaces of the
+ * type are resolved once, instead of once per plugin.</li>
+ * <li>{@link ClassAnnotationMatch} plugins are indexed by the first annotation.</li>
+ * <li>Other matches, such as the regex, method annotation and logical matches, can't be indexed, they are checked one
+ * by one as before.</li>
+ * </ul>
+ *
+ * The plugins are identified by their positions in the given list, so the matched plugins are always in the order of
+ * the list.
+ */
+class SignatureMatchIndex {
+    private final List<AbstractClassEnhancePluginDefine> defines;
+    private final PrefixTrie prefixIndex = new PrefixTrie();
+    private final Map<String, List<Integer>> classNameIndex = new HashMap<String, List<Integer>>();
+    private final Map<String, List<Integer>> superTypeIndex = new HashMap<String, List<Integer>>();
+    private final Map<String, List<Integer>> annotationIndex = new HashMap<String, List<Integer>>();
+    private final List<Integer> unindexed = new ArrayList<Integer>();
+
+    SignatureMatchIndex(List<AbstractClassEnhancePluginDefine> defines) {
+        this.defines = defines;
+        for (int i = 0; i < defines.size(); i++) {
+            ClassMatch match = defines.get(i).enhanceClass();
+            if (match instanceof PrefixMatch) {
+                for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                    prefixIndex.put(prefix, i);
+                }
+            } else if (match instanceof MultiClassNameMatch) {
+                for (String className : ((MultiClassNameMatch) match).getMatchClassNames()) {
+                    index(classNameIndex, className, i);
+                }
+            } else if (match instanceof HierarchyMatch) {
+                index(superTypeIndex, ((HierarchyMatch) match).getParentTypes()[0], i);
+            } else if (match instanceof ClassAnnotationMatch) {
+                index(annotationIndex, ((ClassAnnotationMatch) match).getAnnotations()[0], i);
+            } else {
+                unindexed.add(i);
+            }
+        }
+    }
+
+    /**
+     * @return the defines which could not be indexed, they should be matched one by one.
+     */
+    List<AbstractClassEnhancePluginDefine> getUnindexedDefines() {
+        List<AbstractClassEnhancePluginDefine> unindexedDefines = new ArrayList<AbstractClassEnhancePluginDefine>(
+            unindexed.size());
+        for (Integer position : unindexed) {
+            unindexedDefines.add(defines.get(position));
+        }
+        return unindexedDefines;
+    }
+
+    /**
+     * @return true if any indexed define matches the given type. The unindexed defines are not checked.
+     */
+    boolean matchesIndexed(TypeDescription typeDescription) {
+        return select(typeDescription, null);
+    }
+
+    /**
+     * @return all defines matching the given type, including the unindexed ones.
+     */
+    List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
+        BitSet selected = new BitSet(defines.size());
+        select(typeDescription, selected);
+        for (Integer position : unindexed) {
+            if (((IndirectMatch) defines.get(position).enhanceClass()).isMatch(typeDescription)) {
+                selected.set(position);
+            }
+        }
+
+        if (selected.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<AbstractClassEnhancePluginDefine> matched = new ArrayList<AbstractClassEnhancePluginDefine>(
+            selected.cardinality());
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            matched.add(defines.get(i));
+        }
+        return matched;
+    }
+
+    /**
+     * Check the indexed defines against the given type.
+     *
+     * @param selected collects the positions of all matched defines. If it is null, return at the first match.
+     * @return true if any indexed define matches.
+     */
+    private boolean select(TypeDescription typeDescription, BitSet selected) {
+        boolean matched = prefixIndex.select(typeDescription.getName(), selected);
+        if (matched && selected == null) {
+            return true;
+        }
+
+        List<Integer> candidates = classNameIndex.get(typeDescription.getTypeName());
+        if (candidates != null) {
+            if (selected == null) {
+                return true;
+            }
+            for (Integer position : candidates) {
+                selected.set(position);
+            }
+            matched = true;
+        }
+
+        // The hierarchy and annotation matches never enhance the interfaces.
+        if (typeDescription.isInterface()) {
+            return matched;
+        }
+
+        if (!annotationIndex.isEmpty()) {
+            Set<String> annotations = null;
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                candidates = annotationIndex.get(annotation.getAnnotationType().getActualName());
+                if (candidates == null) {
+                    continue;
+                }
+                if (annotations == null) {
+                    annotations = declaredAnnotationNames(typeDescription);
+                }
+                for (Integer position : candidates) {
+                    String[] required = ((ClassAnnotationMatch) defines.get(position).enhanceClass()).getAnnotations();
+                    if (containsAll(annotations, required)) {
+                        if (selected == null) {
+                            return true;
+                        }
+                        selected.set(position);
+                        matched = true;
+                    }
+                }
+            }
+        }
+
+        if (!superTypeIndex.isEmpty()) {
+            Set<String> superTypes = new HashSet<String>();
+            collectSuperTypes(typeDescription, superTypes);
+            for (String superType : superTypes) {
+                candidates = superTypeIndex.get(superType);
+                if (candidates == null) {
+                    continue;
+                }
+                for (Integer position : candidates) {
+                    String[] required = ((HierarchyMatch) defines.get(position).enhanceClass()).getParentTypes();
+                    if (containsAll(superTypes, required)) {
+                        if (selected == null) {
+                            return true;
+                        }
+                        selected.set(position);
+                        matched = true;
+                    }
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Collect the names of all super classes and interfaces of the given type, the same as {@link
+     * HierarchyMatch#isMatch(TypeDescription)} walks, but each type is only visited once.
+     */
+    private static void collectSuperTypes(TypeDefinition type, Set<String> superTypes) {
+        for (TypeDescription.Generic implInterface : type.getInterfaces()) {
+            collectSuperType(implInterface, superTypes);
+        }
+        TypeDescription.Generic superClass = type.getSuperClass();
+        if (superClass != null) {
+            collectSuperType(superClass, superTypes);
+        }
+    }
+
+    private static void collectSuperType(TypeDescription.Generic type, Set<String> superTypes) {
+        if (superTypes.add(type.asRawType().getTypeName()) && !"java.lang.Object".equals(type.getTypeName())) {
+            collectSuperTypes(type, superTypes);
+        }
+    }
+
+    private static Set<String> declaredAnnotationNames(TypeDescription typeDescription) {
+        Set<String> names = new HashSet<String>();
+        for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+            names.add(annotation.getAnnotationType().getActualName());
+        }
+        return names;
+    }
+
+    private static boolean containsAll(Set<String> names, String[] required) {
+        for (String name : required) {
+            if (!names.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void index(Map<String, List<Integer>> index, String key, int position) {
+        List<Integer> positions = index.get(key);
+        if (positions == null) {
+            positions = new ArrayList<Integer>(1);
+            index.put(key, positions);
+        }
+        positions.add(position);
+    }
+
+    /**
+     * A character trie of the prefixes, each node keeps the positions of the defines whose prefix ends at it.
+     */
+    private static class PrefixTrie {
+        private final Map<Character, PrefixTrie> children = new HashMap<Character, PrefixTrie>();
+        private List<Integer> positions;
+
+        void put(String prefix, int position) {
+            PrefixTrie node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                PrefixTrie child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    child = new PrefixTrie();
+                    node.children.put(prefix.charAt(i), child);
+                }
+                node = child;
+            }
+            if (node.positions == null) {
+                node.positions = new ArrayList<Integer>(1);
+            }
+            node.positions.add(position);
+        }
+
+        /**
+         * @param selected collects the positions of all prefixes of the name. If it is null, return at the first one.
+         * @return true if any prefix of the name is in the trie.
+         */
+        boolean select(String name, BitSet selected) {
+            boolean matched = false;
+            PrefixTrie node = this;
+            for (int i = 0; node != null; i++) {
+                if (node.positions != null) {
+                    if (selected == null) {
+                        return true;
+                    }
+                    for (Integer position : node.positions) {
+                        selected.set(position);
+                    }
+                    matched = true;
+                }
+                if (i == name.length() || node.children.isEmpty()) {
+                    break;
+                }
+                node = node.children.get(name.charAt(i));
+            }
+            return matched;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The dictionary of the code signatures dumped by a profile task. The code signature of a stack element is built only
+ * once in the task, then shared by all the snapshots including it, rather than built in every dump.
+ * <p>
+ * This dictionary is only accessed by the profile thread of the task.
+ */
+public class CodeSignatureDictionary {
+    private final Map<StackTraceElement, String> codeSignatures = new HashMap<>();
+
+    /**
+     * @return the code signature of the stack element
+     */
+    String codeSignature(StackTraceElement element) {
+        String codeSignature = codeSignatures.get(element);
+        if (codeSignature == null) {
+            codeSignature = buildStackElementCodeSignature(element);
+            codeSignatures.put(element, codeSignature);
+        }
+        return codeSignature;
+    }
+
+    /**
+     * build thread stack element code signature
+     *
+     * @return code sign: className.methodName:lineNumber
+     */
+    static String buildStackElementCodeSignature(StackTraceElement element) {
+        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
+    }
+}
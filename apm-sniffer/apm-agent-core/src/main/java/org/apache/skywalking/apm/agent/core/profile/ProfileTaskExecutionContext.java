@@ -46,6 +46,9 @@ public class ProfileTaskExecutionContext {
     // total started profiling tracing context count
     private final AtomicInteger totalStartedProfilingCount = new AtomicInteger(0);
 
+    // the code signatures of the stack elements dumped by this task, only used in batch dump
+    private final CodeSignatureDictionary codeSignatureDictionary = new CodeSignatureDictionary();
+
     public ProfileTaskExecutionContext(ProfileTask task) {
         this.task = task;
         profilingSegmentSlots = new AtomicReferenceArray<>(Config.Profile.MAX_PARALLEL);
@@ -72,9 +75,7 @@ public class ProfileTaskExecutionContext {
      *
      * @return is add profile success
      */
-    public ProfileStatusReference attemptProfiling(TracingContext tracingContext,
-                                                   String traceSegmentId,
-                                                   String firstSpanOPName) {
+    public ProfileStatusReference attemptProfiling(TracingContext tracingContext, String firstSpanOPName) {
         // check has available slot
         final int usingSlotCount = currentProfilingCount.get();
         if (usingSlotCount >= Config.Profile.MAX_PARALLEL) {
@@ -97,7 +98,7 @@ public class ProfileTaskExecutionContext {
         }
 
         final ThreadProfiler threadProfiler = new ThreadProfiler(
-            tracingContext, traceSegmentId, Thread.currentThread(), this);
+            tracingContext, tracingContext.getSegmentId(), Thread.currentThread(), this);
         int slotLength = profilingSegmentSlots.length();
         for (int slot = 0; slot < slotLength; slot++) {
             if (profilingSegmentSlots.compareAndSet(slot, null, threadProfiler)) {
@@ -110,7 +111,7 @@ public class ProfileTaskExecutionContext {
     /**
      * profiling recheck
      */
-    public void profilingRecheck(TracingContext tracingContext, String traceSegmentId, String firstSpanOPName) {
+    public void profilingRecheck(TracingContext tracingContext, String firstSpanOPName) {
         // if started, keep profiling
         if (tracingContext.profileStatus().isBeingWatched()) {
             return;
@@ -118,7 +119,7 @@ public class ProfileTaskExecutionContext {
 
         // update profiling status
         tracingContext.profileStatus()
-                      .updateStatus(attemptProfiling(tracingContext, traceSegmentId, firstSpanOPName).get());
+                      .updateStatus(attemptProfiling(tracingContext, firstSpanOPName).get());
     }
 
     /**
@@ -144,6 +145,10 @@ public class ProfileTaskExecutionContext {
         return task;
     }
 
+    public CodeSignatureDictionary codeSignatureDictionary() {
+        return codeSignatureDictionary;
+    }
+
     public AtomicReferenceArray<ThreadProfiler> threadProfilerSlots() {
         return profilingSegmentSlots;
     }
@@ -19,9 +19,13 @@
 package org.apache.skywalking.apm.agent.core.profile;
 
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
@@ -31,6 +35,8 @@ public class ProfileThread implements Runnable {
 
     private static final ILog LOGGER = LogManager.getLogger(ProfileThread.class);
 
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
     // profiling task context
     private final ProfileTaskExecutionContext taskExecutionContext;
 
@@ -75,6 +81,9 @@ public class ProfileThread implements Runnable {
             // each all slot
             AtomicReferenceArray<ThreadProfiler> profilers = executionContext.threadProfilerSlots();
             int profilerCount = profilers.length();
+            // the profilers dumped together in batch dump
+            ThreadProfiler[] batchProfilers = null;
+            int batchCount = 0;
             for (int slot = 0; slot < profilerCount; slot++) {
                 ThreadProfiler currentProfiler = profilers.get(slot);
                 if (currentProfiler == null) {
@@ -89,18 +98,22 @@ public class ProfileThread implements Runnable {
                         break;
 
                     case PROFILING:
-                        // dump stack
-                        TracingThreadSnapshot snapshot = currentProfiler.buildSnapshot();
-                        if (snapshot != null) {
-                            profileTaskChannelService.addProfilingSnapshot(snapshot);
-                        } else {
-                            // tell execution context current tracing thread dump failed, stop it
-                            executionContext.stopTracingProfile(currentProfiler.tracingContext());
+                        if (Config.Profile.BATCH_DUMP && currentProfiler.isProfilingContinuable()) {
+                            if (batchProfilers == null) {
+                                batchProfilers = new ThreadProfiler[profilerCount];
+                            }
+                            batchProfilers[batchCount++] = currentProfiler;
+                            break;
                         }
+                        // dump stack
+                        report(executionContext, currentProfiler, currentProfiler.buildSnapshot());
                         break;
 
                 }
             }
+            if (batchCount > 0) {
+                dumpInBatch(executionContext, batchProfilers, batchCount);
+            }
 
             // sleep to next period
             // if out of period, sleep one period
@@ -110,4 +123,40 @@ public class ProfileThread implements Runnable {
         }
     }
 
+    /**
+     * dump the stacks of all profiling threads in one {@link ThreadMXBean} call, rather than each of them, as every
+     * dump stops the application at a safepoint.
+     */
+    private void dumpInBatch(ProfileTaskExecutionContext executionContext, ThreadProfiler[] profilers, int count) {
+        final long[] threadIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            threadIds[i] = profilers[i].profilingThread().getId();
+        }
+
+        final long currentTime = System.currentTimeMillis();
+        ThreadInfo[] threadInfos;
+        try {
+            threadInfos = THREAD_MX_BEAN.getThreadInfo(threadIds, Config.Profile.DUMP_MAX_STACK_DEPTH);
+        } catch (Exception e) {
+            // dump error ignore and make these profilers stop
+            threadInfos = new ThreadInfo[count];
+        }
+
+        for (int i = 0; i < count; i++) {
+            // thread info is null, means thread is not alive
+            final StackTraceElement[] stackTrace = threadInfos[i] == null ? null : threadInfos[i].getStackTrace();
+            report(executionContext, profilers[i], profilers[i].buildSnapshot(currentTime, stackTrace));
+        }
+    }
+
+    private void report(ProfileTaskExecutionContext executionContext, ThreadProfiler profiler,
+                        TracingThreadSnapshot snapshot) {
+        if (snapshot != null) {
+            profileTaskChannelService.addProfilingSnapshot(snapshot);
+        } else {
+            // tell execution context current tracing thread dump failed, stop it
+            executionContext.stopTracingProfile(profiler.tracingContext());
+        }
+    }
+
 }
@@ -92,42 +92,47 @@ public class ThreadProfiler {
         StackTraceElement[] stackTrace;
         try {
             stackTrace = profilingThread.getStackTrace();
-
-            // stack depth is zero, means thread is already run finished
-            if (stackTrace.length == 0) {
-                return null;
-            }
         } catch (Exception e) {
             // dump error ignore and make this profiler stop
             return null;
         }
 
+        return buildSnapshot(currentTime, stackTrace);
+    }
+
+    /**
+     * build thread snapshot by the dumped stack, in batch dump, the code signatures are reused from the dictionary of
+     * the task.
+     *
+     * @param stackTrace the stack of the profiling thread, null means the thread is not alive.
+     * @return snapshot, if null means dump snapshot error, should stop it
+     */
+    public TracingThreadSnapshot buildSnapshot(long currentTime, StackTraceElement[] stackTrace) {
+        // stack depth is zero, means thread is already run finished
+        if (stackTrace == null || stackTrace.length == 0) {
+            return null;
+        }
+
         // if is first dump, check is can start profiling
         if (dumpSequence == 0 && (!executionContext.isStartProfileable())) {
             return null;
         }
 
         int dumpElementCount = Math.min(stackTrace.length, Config.Profile.DUMP_MAX_STACK_DEPTH);
+        final CodeSignatureDictionary dictionary = Config.Profile.BATCH_DUMP ?
+            executionContext.codeSignatureDictionary() : null;
 
         // use inverted order, because thread dump is start with bottom
         final ArrayList<String> stackList = new ArrayList<>(dumpElementCount);
         for (int i = dumpElementCount - 1; i >= 0; i--) {
-            stackList.add(buildStackElementCodeSignature(stackTrace[i]));
+            stackList.add(dictionary != null ? dictionary.codeSignature(stackTrace[i]) :
+                              CodeSignatureDictionary.buildStackElementCodeSignature(stackTrace[i]));
         }
 
         String taskId = executionContext.getTask().getTaskId();
         return new TracingThreadSnapshot(taskId, traceSegmentId, dumpSequence++, currentTime, stackList);
     }
 
-    /**
-     * build thread stack element code signature
-     *
-     * @return code sign: className.methodName:lineNumber
-     */
-    private String buildStackElementCodeSignature(StackTraceElement element) {
-        return element.getClassName() + "." + element.getMethodName() + ":" + element.getLineNumber();
-    }
-
     /**
      * matches profiling tracing context
      */
@@ -141,10 +146,14 @@ public class ThreadProfiler {
      *
      * @return if true means this thread profiling is continuable
      */
-    private boolean isProfilingContinuable() {
+    public boolean isProfilingContinuable() {
         return System.currentTimeMillis() - profilingStartTime < profilingMaxTimeMills;
     }
 
+    public Thread profilingThread() {
+        return profilingThread;
+    }
+
     public TracingContext tracingContext() {
         return tracingContext;
     }
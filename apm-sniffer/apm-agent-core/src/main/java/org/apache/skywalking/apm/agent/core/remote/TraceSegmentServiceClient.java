@@ -22,6 +22,7 @@ import io.grpc.Channel;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -32,17 +33,27 @@ import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.meter.Counter;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
 import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONNECTED;
 
+/**
+ * The <code>TraceSegmentServiceClient</code> sends the finished trace segments to the backend. By default, every
+ * batch drained from the buffer is sent through a new stream, and the consumer thread waits for the response of it.
+ * In the {@link Config.Collector#TRACE_STREAMING} mode, the segments are sent through a long-lived stream, which is
+ * only flushed by the size or the time, and the consumer thread doesn't wait for the response, unless {@link
+ * Config.Collector#TRACE_STREAMING_MAX_IN_FLIGHT} flushed streams are still waiting for it.
+ */
 @DefaultImplementor
 public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
     private static final ILog LOGGER = LogManager.getLogger(TraceSegmentServiceClient.class);
@@ -54,6 +65,20 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
 
+    private Counter sentBytesMeter;
+    private Counter abandonedByChannelMeter;
+    private Counter abandonedByBufferMeter;
+    private Counter abandonedByUpstreamMeter;
+
+    /**
+     * The stream receiving the segments in the streaming mode, only accessed by the consumer thread.
+     */
+    private SegmentStream stream;
+    /**
+     * The number of the streams not responded by the backend, including the receiving one.
+     */
+    private final AtomicInteger inFlightStreams = new AtomicInteger();
+
     @Override
     public void prepare() {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
@@ -64,10 +89,18 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         lastLogTime = System.currentTimeMillis();
         segmentUplinkedCounter = 0;
         segmentAbandonedCounter = 0;
+        sentBytesMeter = MeterFactory.counter("sw_agent_trace_segment_sent_bytes").build();
+        abandonedByChannelMeter = abandonedMeter("no_channel");
+        abandonedByBufferMeter = abandonedMeter("buffer_full");
+        abandonedByUpstreamMeter = abandonedMeter("upstream_error");
         carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
         carrier.consume(this, 1);
     }
 
+    private static Counter abandonedMeter(String reason) {
+        return MeterFactory.counter("sw_agent_trace_segment_abandoned").tag("reason", reason).build();
+    }
+
     @Override
     public void onComplete() {
         TracingContext.ListenerManager.add(this);
@@ -87,55 +120,153 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     @Override
     public void consume(List<TraceSegment> data) {
         if (CONNECTED.equals(status)) {
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
-                Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
-                @Override
-                public void onNext(Commands commands) {
-                    ServiceManager.INSTANCE.findService(CommandService.class)
-                                           .receiveCommand(commands);
-                }
+            if (Config.Collector.TRACE_STREAMING) {
+                stream(data);
+            } else {
+                send(data);
+            }
+        } else {
+            flush();
+            segmentAbandonedCounter += data.size();
+            abandonedByChannelMeter.increment(data.size());
+        }
 
-                @Override
-                public void onError(
-                    Throwable throwable) {
-                    status.finished();
-                    if (LOGGER.isErrorEnable()) {
-                        LOGGER.error(
-                            throwable,
-                            "Send UpstreamSegment to collector fail with a grpc internal exception."
-                        );
-                    }
-                    ServiceManager.INSTANCE
-                        .findService(GRPCChannelManager.class)
-                        .reportError(throwable);
-                }
+        printUplinkStatus();
+    }
+
+    /**
+     * Send the segments through a new stream, and wait for the response.
+     */
+    private void send(List<TraceSegment> data) {
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        StreamObserver<SegmentObject> upstreamSegmentStreamObserver = stub(
+            TimeUnit.SECONDS.toMillis(Config.Collector.GRPC_UPSTREAM_TIMEOUT)
+        ).collect(new StreamObserver<Commands>() {
+            @Override
+            public void onNext(Commands commands) {
+                ServiceManager.INSTANCE.findService(CommandService.class)
+                                       .receiveCommand(commands);
+            }
 
-                @Override
-                public void onCompleted() {
-                    status.finished();
+            @Override
+            public void onError(
+                Throwable throwable) {
+                status.finished();
+                abandonedByUpstreamMeter.increment(data.size());
+                if (LOGGER.isErrorEnable()) {
+                    LOGGER.error(
+                        throwable,
+                        "Send UpstreamSegment to collector fail with a grpc internal exception."
+                    );
                 }
-            });
+                ServiceManager.INSTANCE
+                    .findService(GRPCChannelManager.class)
+                    .reportError(throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                status.finished();
+            }
+        });
+
+        try {
+            for (TraceSegment segment : data) {
+                SegmentObject upstreamSegment = segment.transform();
+                upstreamSegmentStreamObserver.onNext(upstreamSegment);
+                sentBytesMeter.increment(upstreamSegment.getSerializedSize());
+            }
+        } catch (Throwable t) {
+            LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+        }
 
+        upstreamSegmentStreamObserver.onCompleted();
+
+        status.wait4Finish();
+        segmentUplinkedCounter += data.size();
+    }
+
+    /**
+     * Send the segments through the long-lived stream, which is flushed when it reaches the flush bytes.
+     */
+    private void stream(List<TraceSegment> data) {
+        for (int i = 0; i < data.size(); i++) {
+            if (stream != null && stream.failed) {
+                stream = null;
+            }
+            if (stream == null && !openStream()) {
+                final int abandoned = data.size() - i;
+                segmentAbandonedCounter += abandoned;
+                abandonedByUpstreamMeter.increment(abandoned);
+                return;
+            }
             try {
-                for (TraceSegment segment : data) {
-                    SegmentObject upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
-                }
+                stream.send(data.get(i).transform());
+                segmentUplinkedCounter++;
             } catch (Throwable t) {
                 LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
             }
+            if (stream.bytes >= Config.Collector.TRACE_STREAMING_FLUSH_BYTES) {
+                flush();
+            }
+        }
+        flushIfExpired();
+    }
 
-            upstreamSegmentStreamObserver.onCompleted();
+    /**
+     * Open a new stream, when the flushed streams waiting for the response are less than the max in-flight. Otherwise,
+     * wait for them in the upstream timeout at most.
+     *
+     * @return false if the in-flight streams are not responded in time.
+     */
+    private boolean openStream() {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+            Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+        while (inFlightStreams.get() >= Config.Collector.TRACE_STREAMING_MAX_IN_FLIGHT) {
+            if (System.currentTimeMillis() > deadline) {
+                LOGGER.warn(
+                    "Collector traceSegment service doesn't response {} streams in {} seconds.",
+                    inFlightStreams.get(), Config.Collector.GRPC_UPSTREAM_TIMEOUT
+                );
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ignored) {
+            }
+        }
+        inFlightStreams.incrementAndGet();
+        stream = new SegmentStream();
+        stream.upstream = stub(
+            Config.Collector.TRACE_STREAMING_FLUSH_INTERVAL + TimeUnit.SECONDS.toMillis(
+                Config.Collector.GRPC_UPSTREAM_TIMEOUT)
+        ).collect(stream);
+        return true;
+    }
 
-            status.wait4Finish();
-            segmentUplinkedCounter += data.size();
-        } else {
-            segmentAbandonedCounter += data.size();
+    private void flush() {
+        if (stream != null) {
+            if (!stream.failed) {
+                stream.upstream.onCompleted();
+            }
+            stream = null;
         }
+    }
 
-        printUplinkStatus();
+    private void flushIfExpired() {
+        if (stream != null
+            && System.currentTimeMillis() - stream.openTime >= Config.Collector.TRACE_STREAMING_FLUSH_INTERVAL) {
+            flush();
+        }
+    }
+
+    private TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub(long timeoutInMillis) {
+        TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
+            timeoutInMillis, TimeUnit.MILLISECONDS);
+        if (StringUtil.isNotEmpty(Config.Collector.TRACE_COMPRESSION)) {
+            stub = stub.withCompression(Config.Collector.TRACE_COMPRESSION);
+        }
+        return stub;
     }
 
     private void printUplinkStatus() {
@@ -160,8 +291,13 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     }
 
     @Override
-    public void onExit() {
+    public void nothingToConsume() {
+        flushIfExpired();
+    }
 
+    @Override
+    public void onExit() {
+        flush();
     }
 
     @Override
@@ -170,6 +306,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
             return;
         }
         if (!carrier.produce(traceSegment)) {
+            abandonedByBufferMeter.increment(1);
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("One trace segment has been abandoned, cause by buffer is full.");
             }
@@ -184,4 +321,43 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         }
         this.status = status;
     }
+
+    /**
+     * A stream of the streaming mode. The segments sent through it are abandoned if the stream fails.
+     */
+    private class SegmentStream implements StreamObserver<Commands> {
+        private final long openTime = System.currentTimeMillis();
+        private StreamObserver<SegmentObject> upstream;
+        private volatile int segments;
+        private long bytes;
+        private volatile boolean failed;
+
+        private void send(SegmentObject segment) {
+            upstream.onNext(segment);
+            segments++;
+            bytes += segment.getSerializedSize();
+            sentBytesMeter.increment(segment.getSerializedSize());
+        }
+
+        @Override
+        public void onNext(Commands commands) {
+            ServiceManager.INSTANCE.findService(CommandService.class).receiveCommand(commands);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failed = true;
+            inFlightStreams.decrementAndGet();
+            abandonedByUpstreamMeter.increment(segments);
+            if (LOGGER.isErrorEnable()) {
+                LOGGER.error(throwable, "Stream UpstreamSegment to collector fail with a grpc internal exception.");
+            }
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            inFlightStreams.decrementAndGet();
+        }
+    }
 }
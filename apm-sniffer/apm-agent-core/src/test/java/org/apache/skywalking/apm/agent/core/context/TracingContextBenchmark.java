@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatcher;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.powermock.reflect.Whitebox;
+
+/**
+ * Create, tag and stop the spans of one segment, run with {@code -prof gc} to see the allocation per operation.
+ */
+@State(Scope.Thread)
+public class TracingContextBenchmark {
+    @Param({"10"})
+    private int spans;
+
+    private SpanLimitWatcher spanLimitWatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ServiceManager.INSTANCE.boot();
+        // Only the tracing itself is measured, the segments are not reported.
+        Whitebox.setInternalState(TracingContext.ListenerManager.class, "LISTENERS", new LinkedList<>());
+        spanLimitWatcher = new SpanLimitWatcher("agent.span_limit_per_segment");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean createTagAndStopSpans() {
+        final TracingContext context = new TracingContext("/benchmark", spanLimitWatcher);
+        final AbstractSpan entrySpan = context.createEntrySpan("/benchmark");
+        Tags.URL.set(entrySpan, "http://localhost:8080/benchmark");
+        for (int i = 1; i < spans; i += 2) {
+            final AbstractSpan localSpan = context.createLocalSpan("local");
+            localSpan.tag(Tags.ofKey("index"), "value");
+            final AbstractSpan exitSpan = context.createExitSpan("exit", "localhost:3306");
+            Tags.DB_TYPE.set(exitSpan, "sql");
+            Tags.DB_STATEMENT.set(exitSpan, "select 1");
+            context.stopSpan(exitSpan);
+            context.stopSpan(localSpan);
+        }
+        return context.stopSpan(entrySpan);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    /**
+     * # JMH version: 1.21
+     * # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08
+     * # Warmup: 3 iterations, 3 s each
+     * # Measurement: 5 iterations, 3 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * One entry span, 5 local spans and 5 exit spans per operation.
+     *
+     * LinkedList based active span stack and span lists:
+     * Benchmark                                                       (spans)  Mode  Cnt     Score     Error  Units
+     * TracingContextBenchmark.createTagAndStopSpans                        10  avgt    5  2080.379 ± 300.155  ns/op
+     * TracingContextBenchmark.createTagAndStopSpans:·gc.alloc.rate.norm    10  avgt    5  3720.030 ±   0.013   B/op
+     *
+     * Array based active span stack and span lists:
+     * Benchmark                                                       (spans)  Mode  Cnt     Score     Error  Units
+     * TracingContextBenchmark.createTagAndStopSpans                        10  avgt    5  2415.816 ± 997.060  ns/op
+     * TracingContextBenchmark.createTagAndStopSpans:·gc.alloc.rate.norm    10  avgt    5  3168.035 ±   0.012   B/op
+     */
+}
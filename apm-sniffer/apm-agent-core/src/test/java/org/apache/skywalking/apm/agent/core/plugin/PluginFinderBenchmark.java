@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.Closeable;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.NamedElement;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MatchTestAnnotation;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+/**
+ * Match a synthetic classpath against a synthetic plugin set, as the agent does at the startup: every loaded type is
+ * checked by the matcher of {@link PluginFinder#buildMatch()}, and the matched ones are looked up by {@link
+ * PluginFinder#find(TypeDescription)}. The {@code linear} benchmark checks every signature match one by one, which is
+ * how the plugins were matched before the {@link SignatureMatchIndex}.
+ */
+@State(Scope.Benchmark)
+public class PluginFinderBenchmark {
+    private static final Class<?>[] SUPER_CLASSES = {Object.class, AbstractList.class, HashMap.class, Thread.class};
+    private static final Class<?>[] INTERFACES = {Runnable.class, Serializable.class, Closeable.class, Callable.class};
+
+    @Param({"5000"})
+    private int types;
+
+    @Param({"150"})
+    private int plugins;
+
+    private List<TypeDescription> classpath;
+    private PluginFinder finder;
+    private ElementMatcher<? super TypeDescription> indexedMatcher;
+    private List<AbstractClassEnhancePluginDefine> signatureMatchDefines;
+    private ElementMatcher<? super TypeDescription> linearMatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        classpath = new ArrayList<TypeDescription>(types);
+        ByteBuddy byteBuddy = new ByteBuddy();
+        for (int i = 0; i < types; i++) {
+            DynamicType.Builder<?> builder = byteBuddy.subclass(SUPER_CLASSES[i % SUPER_CLASSES.length])
+                                                      .name("com.app" + i % 40 + ".module" + i % 7 + ".Type" + i);
+            if (i % 3 == 0) {
+                builder = builder.implement(INTERFACES[i % INTERFACES.length]);
+            }
+            if (i % 10 == 0) {
+                builder = builder.annotateType(AnnotationDescription.Builder.ofType(MatchTestAnnotation.class).build());
+            }
+            classpath.add(builder.make().getTypeDescription());
+        }
+
+        List<AbstractClassEnhancePluginDefine> defines = new ArrayList<AbstractClassEnhancePluginDefine>(plugins);
+        for (int i = 0; i < plugins; i++) {
+            defines.add(new SyntheticPluginDefine(syntheticMatch(i)));
+        }
+        finder = new PluginFinder(defines);
+        indexedMatcher = finder.buildMatch();
+
+        final Set<String> names = new HashSet<String>();
+        signatureMatchDefines = new ArrayList<AbstractClassEnhancePluginDefine>();
+        for (AbstractClassEnhancePluginDefine define : defines) {
+            ClassMatch match = define.enhanceClass();
+            if (match instanceof NameMatch) {
+                names.add(((NameMatch) match).getClassName());
+            } else {
+                signatureMatchDefines.add(define);
+            }
+        }
+        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+            @Override
+            public boolean matches(NamedElement target) {
+                return names.contains(target.getActualName());
+            }
+        };
+        judge = judge.and(not(isInterface()));
+        for (AbstractClassEnhancePluginDefine define : signatureMatchDefines) {
+            judge = judge.or(((IndirectMatch) define.enhanceClass()).buildJunction());
+        }
+        linearMatcher = new ProtectiveShieldMatcher(judge);
+    }
+
+    /**
+     * Most plugins target the libraries absent in the application, only a few of them match the synthetic types.
+     */
+    private static ClassMatch syntheticMatch(int i) {
+        switch (i % 6) {
+            case 0:
+                return byName("org.library" + i + ".Client");
+            case 1:
+                return nameStartsWith("org.library" + i + ".", i % 30 == 1 ? "com.app1.module1." : "org.vendor" + i);
+            case 2:
+                return byHierarchyMatch(i % 24 == 2 ? Callable.class.getName() : "org.library" + i + ".Handler");
+            case 3:
+                return byHierarchyMatch("org.library" + i + ".Listener", Serializable.class.getName());
+            case 4:
+                return byClassAnnotationMatch(
+                    i % 12 == 4 ? MatchTestAnnotation.class.getName() : "org.library" + i + ".Component");
+            default:
+                return i % 30 == 5
+                    ? byRegexMatch("org\\.library" + i + "\\..*Service")
+                    : byMultiClassMatch("org.library" + i + ".Server", "org.library" + i + ".Connector");
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void indexed(Blackhole blackhole) {
+        for (TypeDescription type : classpath) {
+            if (indexedMatcher.matches(type)) {
+                blackhole.consume(finder.find(type));
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public void linear(Blackhole blackhole) {
+        for (TypeDescription type : classpath) {
+            if (linearMatcher.matches(type)) {
+                List<AbstractClassEnhancePluginDefine> matched = new LinkedList<AbstractClassEnhancePluginDefine>();
+                for (AbstractClassEnhancePluginDefine define : signatureMatchDefines) {
+                    if (((IndirectMatch) define.enhanceClass()).isMatch(type)) {
+                        matched.add(define);
+                    }
+                }
+                blackhole.consume(matched);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    /**
+     * # JMH version: 1.21
+     * # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08
+     * # Warmup: 3 iterations, 3 s each
+     * # Measurement: 5 iterations, 3 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * 5000 types are matched against 150 plugins per operation.
+     *
+     * Benchmark                      (plugins)  (types)  Mode  Cnt    Score    Error  Units
+     * PluginFinderBenchmark.indexed        150     5000  avgt    5   14.503 ±  1.493  ms/op
+     * PluginFinderBenchmark.linear         150     5000  avgt    5  322.839 ± 36.773  ms/op
+     */
+
+    private static class SyntheticPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private SyntheticPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+}
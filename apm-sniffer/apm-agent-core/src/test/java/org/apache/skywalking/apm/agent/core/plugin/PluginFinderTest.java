@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MatchTestAnnotation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+public class PluginFinderTest {
+    private static final String PACKAGE = PluginFinderTest.class.getName() + "$";
+
+    private TestPluginDefine byNamePlugin;
+    private TestPluginDefine prefixPlugin;
+    private TestPluginDefine shorterPrefixPlugin;
+    private TestPluginDefine multiClassPlugin;
+    private TestPluginDefine hierarchyPlugin;
+    private TestPluginDefine multiHierarchyPlugin;
+    private TestPluginDefine annotationPlugin;
+    private TestPluginDefine regexPlugin;
+    private PluginFinder finder;
+
+    @Before
+    public void setUp() {
+        byNamePlugin = new TestPluginDefine(byName(PACKAGE + "TestRepository"));
+        prefixPlugin = new TestPluginDefine(nameStartsWith(PACKAGE + "TestRepo", "org.example."));
+        shorterPrefixPlugin = new TestPluginDefine(nameStartsWith(PACKAGE + "Test"));
+        multiClassPlugin = new TestPluginDefine(byMultiClassMatch(PACKAGE + "TestDao", PACKAGE + "TestService"));
+        hierarchyPlugin = new TestPluginDefine(byHierarchyMatch(Runnable.class.getName()));
+        multiHierarchyPlugin = new TestPluginDefine(
+            byHierarchyMatch(Runnable.class.getName(), Serializable.class.getName()));
+        annotationPlugin = new TestPluginDefine(byClassAnnotationMatch(MatchTestAnnotation.class.getName()));
+        regexPlugin = new TestPluginDefine(byRegexMatch(".*Service"));
+        finder = new PluginFinder(Arrays.<AbstractClassEnhancePluginDefine>asList(
+            byNamePlugin, prefixPlugin, shorterPrefixPlugin, multiClassPlugin, hierarchyPlugin, multiHierarchyPlugin,
+            annotationPlugin, regexPlugin
+        ));
+    }
+
+    @Test
+    public void testFindIndexedPlugins() {
+        assertFound(TestRepository.class, byNamePlugin, prefixPlugin, shorterPrefixPlugin, hierarchyPlugin);
+        assertFound(TestDao.class, shorterPrefixPlugin, multiClassPlugin, hierarchyPlugin, multiHierarchyPlugin,
+                    annotationPlugin
+        );
+        assertFound(TestService.class, shorterPrefixPlugin, multiClassPlugin, regexPlugin);
+        assertFound(Unmatched.class);
+    }
+
+    @Test
+    public void testHierarchyAndAnnotationSkipInterface() {
+        assertFound(TestTask.class, shorterPrefixPlugin);
+    }
+
+    @Test
+    public void testBuildMatch() {
+        ElementMatcher<? super TypeDescription> matcher = finder.buildMatch();
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(TestRepository.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(TestDao.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(TestService.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(AnotherTask.class)));
+        Assert.assertTrue(matcher.matches(TypeDescription.ForLoadedType.of(AnotherService.class)));
+        Assert.assertFalse(matcher.matches(TypeDescription.ForLoadedType.of(Unmatched.class)));
+        Assert.assertFalse(matcher.matches(TypeDescription.ForLoadedType.of(Runnable.class)));
+    }
+
+    private void assertFound(Class<?> type, TestPluginDefine... expected) {
+        List<AbstractClassEnhancePluginDefine> found = finder.find(TypeDescription.ForLoadedType.of(type));
+        Assert.assertEquals(Arrays.<AbstractClassEnhancePluginDefine>asList(expected), found);
+    }
+
+    public static class TestRepository implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    @MatchTestAnnotation
+    public static class TestDao extends TestRepositoryBase implements Serializable {
+    }
+
+    public static class TestRepositoryBase implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class TestService {
+    }
+
+    public interface TestTask extends Runnable {
+    }
+
+    public static class AnotherTask extends Thread {
+    }
+
+    public static class AnotherService {
+    }
+
+    public static class Unmatched {
+    }
+
+    private static class TestPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private TestPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.profile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CodeSignatureDictionaryTest {
+
+    @Test
+    public void testReuseCodeSignature() {
+        final CodeSignatureDictionary dictionary = new CodeSignatureDictionary();
+        final String codeSignature = dictionary.codeSignature(
+            new StackTraceElement("org.Main", "main", "Main.java", 10));
+
+        Assert.assertEquals("org.Main.main:10", codeSignature);
+        Assert.assertSame(
+            codeSignature, dictionary.codeSignature(new StackTraceElement("org.Main", "main", "Main.java", 10)));
+        Assert.assertEquals(
+            "org.Main.main:11", dictionary.codeSignature(new StackTraceElement("org.Main", "main", "Main.java", 11)));
+    }
+}
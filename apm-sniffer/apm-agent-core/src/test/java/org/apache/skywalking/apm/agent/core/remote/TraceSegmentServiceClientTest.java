@@ -23,12 +23,14 @@ import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ContextManager;
 import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.SpanLayer;
+import org.apache.skywalking.apm.agent.core.meter.Counter;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
 import org.apache.skywalking.apm.agent.core.test.tools.SegmentStoragePoint;
@@ -39,6 +41,7 @@ import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
 import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -103,6 +106,7 @@ public class TraceSegmentServiceClientTest {
     public void setUp() throws Throwable {
         Whitebox.setInternalState(ServiceManager.INSTANCE.findService(GRPCChannelManager.class), "reconnect", false);
         spy(serviceClient);
+        serviceClient.boot();
 
         Whitebox.setInternalState(
             serviceClient, "serviceStub", TraceSegmentReportServiceGrpc.newStub(grpcServerRule.getChannel()));
@@ -111,6 +115,11 @@ public class TraceSegmentServiceClientTest {
         upstreamSegments = new ArrayList<>();
     }
 
+    @After
+    public void tearDown() {
+        serviceClient.shutdown();
+    }
+
     @Test
     public void testSendTraceSegmentWithoutException() throws InvalidProtocolBufferException {
         grpcServerRule.getServiceRegistry().addService(serviceImplBase);
@@ -146,13 +155,41 @@ public class TraceSegmentServiceClientTest {
         SpanLayer.asHttp(firstEntrySpan);
         ContextManager.stopSpan();
         grpcServerRule.getServer().shutdownNow();
+        Counter abandonedByUpstreamMeter = Whitebox.getInternalState(serviceClient, "abandonedByUpstreamMeter");
+        double abandoned = abandonedByUpstreamMeter.get();
         serviceClient.consume(storage.getTraceSegments());
 
         assertThat(upstreamSegments.size(), is(0));
+        assertThat(abandonedByUpstreamMeter.get() - abandoned, is(1.0));
 
         boolean reconnect = Whitebox.getInternalState(
             ServiceManager.INSTANCE.findService(GRPCChannelManager.class), "reconnect");
         assertThat(reconnect, is(true));
 
     }
+
+    @Test
+    public void testStreamTraceSegments() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.TRACE_STREAMING = true;
+        try {
+            for (int i = 0; i < 2; i++) {
+                AbstractSpan entrySpan = ContextManager.createEntrySpan("/testStreamEntry" + i, null);
+                SpanLayer.asHttp(entrySpan);
+                ContextManager.stopSpan();
+            }
+
+            serviceClient.consume(storage.getTraceSegments());
+            AtomicInteger inFlightStreams = Whitebox.getInternalState(serviceClient, "inFlightStreams");
+            assertThat(upstreamSegments.size(), is(2));
+            assertThat(inFlightStreams.get(), is(1));
+
+            Config.Collector.TRACE_STREAMING_FLUSH_INTERVAL = 0;
+            serviceClient.nothingToConsume();
+            assertThat(inFlightStreams.get(), is(0));
+        } finally {
+            Config.Collector.TRACE_STREAMING = false;
+            Config.Collector.TRACE_STREAMING_FLUSH_INTERVAL = 1000;
+        }
+    }
 }
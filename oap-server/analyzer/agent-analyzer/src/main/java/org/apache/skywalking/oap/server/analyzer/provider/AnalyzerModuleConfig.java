@@ -104,6 +104,53 @@ public class AnalyzerModuleConfig extends ModuleConfig {
     @Setter
     private String meterAnalyzerActiveFiles = Const.EMPTY_STRING;
 
+    /**
+     * The counter window of the MAL increase and rate functions evicts the series not reported longer than it, in
+     * minutes.
+     */
+    @Setter
+    @Getter
+    private int meterCounterWindowTTL = 30;
+
+    /**
+     * The max number of series in the counter window, the new series beyond it are not tracked until some series are
+     * evicted.
+     */
+    @Setter
+    @Getter
+    private int meterCounterWindowMaxSeries = 1_000_000;
+
+    /**
+     * Reuse the analysis listeners of the trace segments in the same thread, rather than creating them for every
+     * segment.
+     */
+    @Setter
+    @Getter
+    private boolean reuseTraceAnalysisListeners = true;
+
+    /**
+     * The number of workers analyzing the trace segments asynchronously. The segments are analyzed in the receiver
+     * threads when it is 0.
+     */
+    @Setter
+    @Getter
+    private int segmentAnalysisWorkers = 0;
+
+    /**
+     * The max number of segments in the queue of every analysis worker.
+     */
+    @Setter
+    @Getter
+    private int segmentAnalysisQueueSize = 10000;
+
+    /**
+     * What to do when the analysis queue is full. BLOCKING blocks the receiver until the queue has room, and DROP drops
+     * the segment.
+     */
+    @Setter
+    @Getter
+    private String segmentAnalysisQueueFullStrategy = "BLOCKING";
+
     /**
      * Sample the trace segment if the segment has span(s) tagged as error status, and ignore the sampleRate
      * configuration.
@@ -19,7 +19,9 @@
 package org.apache.skywalking.oap.server.analyzer.provider;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
+import org.apache.skywalking.oap.meter.analyzer.dsl.counter.CounterWindow;
 import org.apache.skywalking.oap.server.analyzer.module.AnalyzerModule;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.meter.config.MeterConfigs;
@@ -46,6 +48,7 @@ import org.apache.skywalking.oap.server.library.module.ModuleProvider;
 import org.apache.skywalking.oap.server.library.module.ModuleStartException;
 import org.apache.skywalking.oap.server.library.module.ServiceNotProvidedException;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 
 public class AnalyzerModuleProvider extends ModuleProvider {
     @Getter
@@ -125,6 +128,14 @@ public class AnalyzerModuleProvider extends ModuleProvider {
 
         segmentParserService.setListenerManager(listenerManager());
 
+        final MetricsCreator metricsCreator = getManager().find(TelemetryModule.NAME)
+                                                          .provider()
+                                                          .getService(MetricsCreator.class);
+        segmentParserService.start(metricsCreator);
+        CounterWindow.INSTANCE.configure(
+            TimeUnit.MINUTES.toMillis(moduleConfig.getMeterCounterWindowTTL()),
+            moduleConfig.getMeterCounterWindowMaxSeries(), metricsCreator
+        );
         processService.start(meterConfigs);
     }
 
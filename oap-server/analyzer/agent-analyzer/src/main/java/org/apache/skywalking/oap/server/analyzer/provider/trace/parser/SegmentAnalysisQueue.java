@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.worker.ChannelsDroppedCounter;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+
+/**
+ * SegmentAnalysisQueue moves the segment analysis out of the receiver threads. The segments are partitioned by the
+ * service into one queue per worker, so the segments of the same service are analyzed in the received order.
+ *
+ * When a queue is full, the receiver thread is blocked until the queue has room with the {@code BLOCKING} strategy,
+ * which pushes back to the agents, or the segment is dropped with the {@code DROP} strategy.
+ */
+@Slf4j
+class SegmentAnalysisQueue {
+    static final String BLOCKING = "BLOCKING";
+    static final String DROP = "DROP";
+
+    private final DataCarrier<SegmentObject> dataCarrier;
+    private final Consumer<SegmentObject> analyzer;
+    private final GaugeMetrics[] queueUsageGauges;
+    private final ChannelsDroppedCounter<SegmentObject> droppedCounter;
+
+    SegmentAnalysisQueue(AnalyzerModuleConfig config, Consumer<SegmentObject> analyzer,
+                         MetricsCreator metricsCreator) {
+        this.analyzer = analyzer;
+        final int workers = config.getSegmentAnalysisWorkers();
+        this.dataCarrier = new DataCarrier<>(
+            "SegmentAnalysisQueue", "SEGMENT_ANALYSIS", workers, config.getSegmentAnalysisQueueSize(),
+            bufferStrategy(config.getSegmentAnalysisQueueFullStrategy())
+        );
+        this.dataCarrier.setPartitioner(new ServicePartitioner());
+
+        this.queueUsageGauges = new GaugeMetrics[dataCarrier.getChannels().getChannelSize()];
+        for (int i = 0; i < queueUsageGauges.length; i++) {
+            queueUsageGauges[i] = metricsCreator.createGauge(
+                "segment_analysis_queue_used_percentage", "The percentage of the segment analysis queue used",
+                new MetricsTag.Keys("channel"), new MetricsTag.Values(String.valueOf(i))
+            );
+        }
+        this.droppedCounter = new ChannelsDroppedCounter<>(
+            dataCarrier.getChannels(),
+            channel -> metricsCreator.createCounter(
+                "segment_analysis_queue_dropped", "The number of segments dropped as the analysis queue is full",
+                new MetricsTag.Keys("channel"), new MetricsTag.Values(String.valueOf(channel))
+            )
+        );
+
+        this.dataCarrier.consume(new AnalysisConsumer(), workers);
+    }
+
+    void produce(SegmentObject segment) {
+        if (!dataCarrier.produce(segment)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Segment {} is dropped as the analysis queue is full", segment.getTraceSegmentId());
+            }
+        }
+    }
+
+    private static BufferStrategy bufferStrategy(String strategy) {
+        if (BLOCKING.equalsIgnoreCase(strategy)) {
+            return BufferStrategy.BLOCKING;
+        }
+        if (DROP.equalsIgnoreCase(strategy)) {
+            return BufferStrategy.IF_POSSIBLE;
+        }
+        throw new IllegalArgumentException(
+            "Unknown segment analysis queue full strategy: " + strategy + ", should be " + BLOCKING + " or " + DROP);
+    }
+
+    /**
+     * Report the occupancy and the dropped segments of every queue, measured after the consuming, so it shows the
+     * segments accumulated while the worker was busy.
+     */
+    private void reportQueueUsage() {
+        final Channels<SegmentObject> channels = dataCarrier.getChannels();
+        for (int i = 0; i < queueUsageGauges.length; i++) {
+            final QueueBuffer<SegmentObject> buffer = channels.getBuffer(i);
+            queueUsageGauges[i].setValue(100.0 * buffer.size() / buffer.getBufferSize());
+        }
+        droppedCounter.report();
+    }
+
+    /**
+     * The segments of the same service always go to the same queue. No retry in other queues when it is full, as that
+     * breaks the order.
+     */
+    private static class ServicePartitioner implements IDataPartitioner<SegmentObject> {
+        @Override
+        public int partition(final int total, final SegmentObject segment) {
+            return (segment.getService().hashCode() & Integer.MAX_VALUE) % total;
+        }
+
+        @Override
+        public int maxRetryCount() {
+            return 1;
+        }
+    }
+
+    private class AnalysisConsumer implements IConsumer<SegmentObject> {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public void consume(final List<SegmentObject> data) {
+            for (final SegmentObject segment : data) {
+                try {
+                    analyzer.accept(segment);
+                } catch (Throwable t) {
+                    log.error("Failed to analyze segment {}", segment.getTraceSegmentId(), t);
+                }
+            }
+            reportQueueUsage();
+        }
+
+        @Override
+        public void nothingToConsume() {
+            droppedCounter.report();
+        }
+
+        @Override
+        public void onError(final List<SegmentObject> data, final Throwable t) {
+            log.error(t.getMessage(), t);
+        }
+
+        @Override
+        public void onExit() {
+        }
+    }
+}
@@ -22,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
 
 /**
@@ -33,10 +34,41 @@ public class SegmentParserServiceImpl implements ISegmentParserService {
     private final AnalyzerModuleConfig config;
     @Setter
     private SegmentParserListenerManager listenerManager;
+    /**
+     * The analyzers reusing their listeners, one for each thread, see {@link
+     * AnalyzerModuleConfig#isReuseTraceAnalysisListeners()}.
+     */
+    private final ThreadLocal<TraceAnalyzer> traceAnalyzers = ThreadLocal.withInitial(this::newTraceAnalyzer);
+    private SegmentAnalysisQueue analysisQueue;
+
+    /**
+     * Start the workers analyzing the segments asynchronously, if {@link
+     * AnalyzerModuleConfig#getSegmentAnalysisWorkers()} is positive. Otherwise, the segments are analyzed in the threads
+     * sending them.
+     */
+    public void start(MetricsCreator metricsCreator) {
+        if (config.getSegmentAnalysisWorkers() > 0) {
+            analysisQueue = new SegmentAnalysisQueue(config, this::analyze, metricsCreator);
+        }
+    }
 
     @Override
     public void send(SegmentObject segment) {
-        final TraceAnalyzer traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
+        if (analysisQueue != null) {
+            analysisQueue.produce(segment);
+        } else {
+            analyze(segment);
+        }
+    }
+
+    private void analyze(SegmentObject segment) {
+        final TraceAnalyzer traceAnalyzer = config.isReuseTraceAnalysisListeners()
+            ? traceAnalyzers.get()
+            : newTraceAnalyzer();
         traceAnalyzer.doAnalysis(segment);
     }
+
+    private TraceAnalyzer newTraceAnalyzer() {
+        return new TraceAnalyzer(moduleManager, listenerManager, config);
+    }
 }
@@ -18,15 +18,15 @@
 
 package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
-import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
 import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListenerFactory;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.EntryAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.ExitAnalysisListener;
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.FirstAnalysisListener;
@@ -34,91 +34,133 @@ import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.
 import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentListener;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
+/**
+ * TraceAnalyzer notifies the listeners created by the factories of the {@link SegmentParserListenerManager} through the
+ * spans of the segment. The listeners containing each {@link AnalysisListener.Point} are resolved once into an index
+ * array, so the spans are only dispatched to the matched listeners.
+ *
+ * When {@link AnalyzerModuleConfig#isReuseTraceAnalysisListeners()} is true, one analyzer is supposed to analyze all
+ * segments of a thread, the listeners are reset after every segment, and are only recreated when they don't support
+ * {@link AnalysisListener#reset()}. Otherwise, a new analyzer is required for every segment.
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class TraceAnalyzer {
     private final ModuleManager moduleManager;
     private final SegmentParserListenerManager listenerManager;
     private final AnalyzerModuleConfig config;
-    private List<AnalysisListener> analysisListeners = new ArrayList<>();
+    private AnalysisListenerFactory[] factories;
+    private AnalysisListener[] listeners;
+    /**
+     * The indexes of the {@link #listeners} containing the point, in the order of {@link AnalysisListener.Point}.
+     */
+    private int[][] pointListeners;
 
     public void doAnalysis(SegmentObject segmentObject) {
         if (segmentObject.getSpansList().size() == 0) {
             return;
         }
 
-        createSpanListeners();
-
-        notifySegmentListener(segmentObject);
+        if (listeners == null) {
+            createSpanListeners();
+        }
 
-        segmentObject.getSpansList().forEach(spanObject -> {
-            if (spanObject.getSpanId() == 0) {
-                notifyFirstListener(spanObject, segmentObject);
+        try {
+            notifySegmentListener(segmentObject);
+
+            final List<SpanObject> spans = segmentObject.getSpansList();
+            for (int i = 0; i < spans.size(); i++) {
+                final SpanObject spanObject = spans.get(i);
+                if (spanObject.getSpanId() == 0) {
+                    notifyFirstListener(spanObject, segmentObject);
+                }
+
+                switch (spanObject.getSpanType()) {
+                    case Exit:
+                        notifyExitListener(spanObject, segmentObject);
+                        break;
+                    case Entry:
+                        notifyEntryListener(spanObject, segmentObject);
+                        break;
+                    case Local:
+                        notifyLocalListener(spanObject, segmentObject);
+                        break;
+                    default:
+                        log.error("span type value was unexpected, span type name: {}", spanObject.getSpanType()
+                                                                                                  .name());
+                }
             }
 
-            if (SpanType.Exit.equals(spanObject.getSpanType())) {
-                notifyExitListener(spanObject, segmentObject);
-            } else if (SpanType.Entry.equals(spanObject.getSpanType())) {
-                notifyEntryListener(spanObject, segmentObject);
-            } else if (SpanType.Local.equals(spanObject.getSpanType())) {
-                notifyLocalListener(spanObject, segmentObject);
-            } else {
-                log.error("span type value was unexpected, span type name: {}", spanObject.getSpanType()
-                                                                                          .name());
+            notifyListenerToBuild();
+        } finally {
+            if (config.isReuseTraceAnalysisListeners()) {
+                resetSpanListeners();
             }
-        });
-
-        notifyListenerToBuild();
+        }
     }
 
     private void notifyListenerToBuild() {
-        analysisListeners.forEach(AnalysisListener::build);
+        for (final AnalysisListener listener : listeners) {
+            listener.build();
+        }
     }
 
     private void notifyExitListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Exit)) {
-                ((ExitAnalysisListener) listener).parseExit(span, segmentObject);
-            }
-        });
+        for (final int i : pointListeners[AnalysisListener.Point.Exit.ordinal()]) {
+            ((ExitAnalysisListener) listeners[i]).parseExit(span, segmentObject);
+        }
     }
 
     private void notifyEntryListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Entry)) {
-                ((EntryAnalysisListener) listener).parseEntry(span, segmentObject);
-            }
-        });
+        for (final int i : pointListeners[AnalysisListener.Point.Entry.ordinal()]) {
+            ((EntryAnalysisListener) listeners[i]).parseEntry(span, segmentObject);
+        }
     }
 
     private void notifyLocalListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Local)) {
-                ((LocalAnalysisListener) listener).parseLocal(span, segmentObject);
-            }
-        });
+        for (final int i : pointListeners[AnalysisListener.Point.Local.ordinal()]) {
+            ((LocalAnalysisListener) listeners[i]).parseLocal(span, segmentObject);
+        }
     }
 
     private void notifyFirstListener(SpanObject span, SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.First)) {
-                ((FirstAnalysisListener) listener).parseFirst(span, segmentObject);
-            }
-        });
+        for (final int i : pointListeners[AnalysisListener.Point.First.ordinal()]) {
+            ((FirstAnalysisListener) listeners[i]).parseFirst(span, segmentObject);
+        }
     }
 
     private void notifySegmentListener(SegmentObject segmentObject) {
-        analysisListeners.forEach(listener -> {
-            if (listener.containsPoint(AnalysisListener.Point.Segment)) {
-                ((SegmentListener) listener).parseSegment(segmentObject);
-            }
-        });
+        for (final int i : pointListeners[AnalysisListener.Point.Segment.ordinal()]) {
+            ((SegmentListener) listeners[i]).parseSegment(segmentObject);
+        }
     }
 
     private void createSpanListeners() {
-        listenerManager.getSpanListenerFactories()
-                       .forEach(
-                           spanListenerFactory -> analysisListeners.add(
-                               spanListenerFactory.create(moduleManager, config)));
+        factories = listenerManager.getSpanListenerFactories().toArray(new AnalysisListenerFactory[0]);
+        listeners = new AnalysisListener[factories.length];
+        for (int i = 0; i < factories.length; i++) {
+            listeners[i] = factories[i].create(moduleManager, config);
+        }
+
+        final AnalysisListener.Point[] points = AnalysisListener.Point.values();
+        pointListeners = new int[points.length][];
+        for (final AnalysisListener.Point point : points) {
+            int count = 0;
+            final int[] indexes = new int[listeners.length];
+            for (int i = 0; i < listeners.length; i++) {
+                if (listeners[i].containsPoint(point)) {
+                    indexes[count++] = i;
+                }
+            }
+            pointListeners[point.ordinal()] = count == indexes.length ? indexes : Arrays.copyOf(indexes, count);
+        }
+    }
+
+    private void resetSpanListeners() {
+        for (int i = 0; i < listeners.length; i++) {
+            if (!listeners[i].reset()) {
+                listeners[i] = factories[i].create(moduleManager, config);
+            }
+        }
     }
 }
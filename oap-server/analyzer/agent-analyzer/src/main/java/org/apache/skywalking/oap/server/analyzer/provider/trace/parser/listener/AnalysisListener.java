@@ -29,10 +29,20 @@ public interface AnalysisListener {
     void build();
 
     /**
-     * @return true, if the given point matches the implementation.
+     * @return true, if the given point matches the implementation. The result should be the same for all instances
+     * created by the same factory, as the points are resolved once when the listeners are reused.
      */
     boolean containsPoint(Point point);
 
+    /**
+     * Clear the state of the analyzed segment, then this instance could analyze the next segment in the same thread.
+     *
+     * @return false if the implementation doesn't support to be reused, a new instance is created for the next segment.
+     */
+    default boolean reset() {
+        return false;
+    }
+
     /**
      * Analysis point when the analysis core traverses the segment
      */
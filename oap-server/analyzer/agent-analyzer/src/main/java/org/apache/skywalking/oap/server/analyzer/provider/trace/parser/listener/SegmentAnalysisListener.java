@@ -57,7 +57,7 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
     private final SegmentStatusAnalyzer segmentStatusAnalyzer;
     private final TraceLatencyThresholdsAndWatcher traceLatencyThresholdsAndWatcher;
 
-    private final Segment segment = new Segment();
+    private Segment segment = new Segment();
     private SAMPLE_STATUS sampleStatus = SAMPLE_STATUS.UNKNOWN;
     private String serviceName = Const.EMPTY_STRING;
     private String serviceId = Const.EMPTY_STRING;
@@ -184,6 +184,24 @@ public class SegmentAnalysisListener implements FirstAnalysisListener, EntryAnal
         sourceReceiver.receive(segment);
     }
 
+    /**
+     * The segment source is not reused, as its tags are kept by the record built from it.
+     */
+    @Override
+    public boolean reset() {
+        segment = new Segment();
+        sampleStatus = SAMPLE_STATUS.UNKNOWN;
+        serviceName = Const.EMPTY_STRING;
+        serviceId = Const.EMPTY_STRING;
+        endpointId = Const.EMPTY_STRING;
+        endpointName = Const.EMPTY_STRING;
+        startTimestamp = 0;
+        endTimestamp = 0;
+        duration = 0;
+        isError = false;
+        return true;
+    }
+
     private enum SAMPLE_STATUS {
         UNKNOWN, SAMPLED, IGNORE
     }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleProvider;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.DBLatencyThresholdsAndWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceLatencyThresholdsAndWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.TraceSampleRateWatcher;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.UninstrumentedGatewaysConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.MultiScopesAnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.NetworkAddressAliasMappingListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentAnalysisListener;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.cache.NetworkAddressAliasCache;
+import org.apache.skywalking.oap.server.core.config.ConfigService;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.apache.skywalking.oap.server.library.util.ProtoBufJsonUtils;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The segments recorded in the {@code segments.json}, and the environment to analyze them with the default listeners.
+ */
+final class RecordedSegments {
+    private RecordedSegments() {
+    }
+
+    static List<SegmentObject> load() throws IOException {
+        final List<SegmentObject> segments = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(
+            RecordedSegments.class.getClassLoader().getResourceAsStream("segments.json"), StandardCharsets.UTF_8)) {
+            final JsonArray array = new JsonParser().parse(reader).getAsJsonArray();
+            for (final JsonElement element : array) {
+                final SegmentObject.Builder builder = SegmentObject.newBuilder();
+                ProtoBufJsonUtils.fromJSON(element.toString(), builder);
+                segments.add(builder.build());
+            }
+        }
+        return segments;
+    }
+
+    static ModuleManager moduleManager(SourceReceiver sourceReceiver) {
+        final CoreModuleConfig coreConfig = new CoreModuleConfig();
+        final ModuleManager moduleManager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(moduleManager.find(CoreModule.NAME).provider().getService(SourceReceiver.class))
+            .thenReturn(sourceReceiver);
+        when(moduleManager.find(CoreModule.NAME).provider().getService(ConfigService.class))
+            .thenReturn(new ConfigService(coreConfig));
+        when(moduleManager.find(CoreModule.NAME).provider().getService(NamingControl.class))
+            .thenReturn(new NamingControl(70, 100, 150, new EndpointNameGrouping()));
+        when(moduleManager.find(CoreModule.NAME).provider().getService(NetworkAddressAliasCache.class))
+            .thenReturn(new NetworkAddressAliasCache(coreConfig));
+        return moduleManager;
+    }
+
+    static AnalyzerModuleConfig config(boolean reuseListeners) {
+        final AnalyzerModuleProvider provider = new AnalyzerModuleProvider();
+        final AnalyzerModuleConfig config = new AnalyzerModuleConfig();
+        config.setDbLatencyThresholdsAndWatcher(
+            new DBLatencyThresholdsAndWatcher(config.getSlowDBAccessThreshold(), provider));
+        config.setUninstrumentedGatewaysConfig(new UninstrumentedGatewaysConfig(provider));
+        config.setTraceSampleRateWatcher(new TraceSampleRateWatcher(provider));
+        config.setTraceLatencyThresholdsAndWatcher(new TraceLatencyThresholdsAndWatcher(provider));
+        config.setReuseTraceAnalysisListeners(reuseListeners);
+        return config;
+    }
+
+    static SegmentParserListenerManager listenerManager(ModuleManager moduleManager, AnalyzerModuleConfig config) {
+        final SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
+        listenerManager.add(new MultiScopesAnalysisListener.Factory(moduleManager));
+        listenerManager.add(new NetworkAddressAliasMappingListener.Factory(moduleManager));
+        listenerManager.add(new SegmentAnalysisListener.Factory(moduleManager, config));
+        return listenerManager;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SegmentAnalysisQueueTest {
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final MetricsCreator metricsCreator = new MetricsCreatorNoop() {
+        @Override
+        public CounterMetrics createCounter(final String name, final String tips, final MetricsTag.Keys tagKeys,
+                                            final MetricsTag.Values tagValues) {
+            return new CounterMetrics() {
+                @Override
+                public void inc() {
+                    dropped.incrementAndGet();
+                }
+
+                @Override
+                public void inc(final double value) {
+                    dropped.addAndGet((int) value);
+                }
+            };
+        }
+    };
+
+    @Test(timeout = 20000)
+    public void testKeepOrderOfService() throws InterruptedException {
+        final AnalyzerModuleConfig config = new AnalyzerModuleConfig();
+        config.setSegmentAnalysisWorkers(2);
+        final Queue<SegmentObject> analyzed = new ConcurrentLinkedQueue<>();
+        final SegmentAnalysisQueue queue = new SegmentAnalysisQueue(config, analyzed::add, metricsCreator);
+
+        final int count = 300;
+        for (int i = 0; i < count; i++) {
+            queue.produce(segment("service-" + i % 5, i));
+        }
+        while (analyzed.size() < count) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        final Map<String, List<Integer>> orders = new HashMap<>();
+        for (final SegmentObject segment : analyzed) {
+            orders.computeIfAbsent(segment.getService(), service -> new ArrayList<>())
+                  .add(Integer.parseInt(segment.getTraceSegmentId()));
+        }
+        Assert.assertEquals(5, orders.size());
+        orders.values().forEach(ids -> {
+            for (int i = 1; i < ids.size(); i++) {
+                Assert.assertTrue(ids.get(i - 1) < ids.get(i));
+            }
+        });
+        Assert.assertEquals(0, dropped.get());
+    }
+
+    @Test(timeout = 20000)
+    public void testDropWhenFull() throws InterruptedException {
+        final AnalyzerModuleConfig config = new AnalyzerModuleConfig();
+        config.setSegmentAnalysisWorkers(1);
+        config.setSegmentAnalysisQueueSize(4);
+        config.setSegmentAnalysisQueueFullStrategy("DROP");
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final AtomicInteger analyzed = new AtomicInteger();
+        final SegmentAnalysisQueue queue = new SegmentAnalysisQueue(config, segment -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            analyzed.incrementAndGet();
+        }, metricsCreator);
+
+        final int count = 50;
+        for (int i = 0; i < count; i++) {
+            queue.produce(segment("service", i));
+        }
+        blocked.countDown();
+        while (analyzed.get() + dropped.get() < count) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        Assert.assertTrue(dropped.get() > 0);
+        Assert.assertEquals(count, analyzed.get() + dropped.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStrategy() {
+        final AnalyzerModuleConfig config = new AnalyzerModuleConfig();
+        config.setSegmentAnalysisWorkers(1);
+        config.setSegmentAnalysisQueueFullStrategy("DISCARD");
+        new SegmentAnalysisQueue(config, segment -> {
+        }, metricsCreator);
+    }
+
+    private static SegmentObject segment(String service, int id) {
+        return SegmentObject.newBuilder().setService(service).setTraceSegmentId(String.valueOf(id)).build();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Replay the segments recorded in the {@code segments.json} through the {@link SegmentParserServiceImpl} with the
+ * default listeners, and compare the throughput, segments per second in a single thread, of creating the listeners for
+ * every segment with reusing them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TraceAnalyzerBenchmark {
+    private static final int SEGMENTS = 3;
+
+    private List<SegmentObject> segments;
+    private SegmentParserServiceImpl createListeners;
+    private SegmentParserServiceImpl reuseListeners;
+
+    @Setup
+    public void setup(final Blackhole blackhole) throws Exception {
+        segments = RecordedSegments.load();
+        if (segments.size() != SEGMENTS) {
+            throw new IllegalStateException("The recorded segments don't match @OperationsPerInvocation");
+        }
+        final ModuleManager moduleManager = RecordedSegments.moduleManager(new SourceReceiver() {
+            @Override
+            public void receive(final Source source) {
+                blackhole.consume(source);
+            }
+
+            @Override
+            public DispatcherDetectorListener getDispatcherDetectorListener() {
+                return null;
+            }
+        });
+        createListeners = segmentParserService(moduleManager, false);
+        reuseListeners = segmentParserService(moduleManager, true);
+    }
+
+    private static SegmentParserServiceImpl segmentParserService(ModuleManager moduleManager, boolean reuseListeners) {
+        final AnalyzerModuleConfig config = RecordedSegments.config(reuseListeners);
+        final SegmentParserServiceImpl segmentParserService = new SegmentParserServiceImpl(moduleManager, config);
+        segmentParserService.setListenerManager(RecordedSegments.listenerManager(moduleManager, config));
+        return segmentParserService;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void createListeners() {
+        for (int i = 0; i < segments.size(); i++) {
+            createListeners.send(segments.get(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SEGMENTS)
+    public void reuseListeners() {
+        for (int i = 0; i < segments.size(); i++) {
+            reuseListeners.send(segments.get(i));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(TraceAnalyzerBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+    /*
+        Environment:
+
+        # JMH version: 1.21
+        # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08, 1 CPU core
+        # Warmup: 3 iterations, 2 s each
+        # Measurement: 5 iterations, 2 s each
+        # Threads: 1 thread, will synchronize iterations
+        # Benchmark mode: Throughput, ops/time
+
+        Benchmark                                Mode  Cnt       Score       Error  Units
+        TraceAnalyzerBenchmark.createListeners  thrpt    5   94285.524 ± 20261.233  ops/s
+        TraceAnalyzerBenchmark.reuseListeners   thrpt    5  104428.516 ± 10137.296  ops/s
+
+        Most of the time is spent on building the sources of the spans and serializing the segment, which are the same
+        in both modes.
+     */
+}
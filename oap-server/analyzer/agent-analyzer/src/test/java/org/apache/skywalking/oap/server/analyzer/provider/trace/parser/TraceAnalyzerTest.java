@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.analyzer.provider.trace.parser;
+
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.oap.server.analyzer.provider.AnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListener;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.AnalysisListenerFactory;
+import org.apache.skywalking.oap.server.analyzer.provider.trace.parser.listener.SegmentListener;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.source.Segment;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TraceAnalyzerTest {
+    private final Gson gson = new Gson();
+    private List<SegmentObject> segments;
+
+    @Before
+    public void setup() throws Exception {
+        segments = RecordedSegments.load();
+    }
+
+    @Test
+    public void testReuseListeners() {
+        final List<String> expected = analyze(false);
+        final List<String> actual = analyze(true);
+
+        final long segmentSources = actual.stream()
+                                          .filter(source -> source.startsWith(Segment.class.getSimpleName()))
+                                          .count();
+        Assert.assertEquals(segments.size() * 2, segmentSources);
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testRecreateNonReusableListener() {
+        final ModuleManager moduleManager = RecordedSegments.moduleManager(new NoopSourceReceiver());
+        final AnalyzerModuleConfig config = RecordedSegments.config(true);
+        final CountingFactory reusable = new CountingFactory(true);
+        final CountingFactory nonReusable = new CountingFactory(false);
+        final SegmentParserListenerManager listenerManager = new SegmentParserListenerManager();
+        listenerManager.add(reusable);
+        listenerManager.add(nonReusable);
+
+        final TraceAnalyzer traceAnalyzer = new TraceAnalyzer(moduleManager, listenerManager, config);
+        segments.forEach(traceAnalyzer::doAnalysis);
+
+        Assert.assertEquals(1, reusable.created.get());
+        Assert.assertEquals(segments.size(), reusable.parsed.get());
+        Assert.assertEquals(segments.size() + 1, nonReusable.created.get());
+        Assert.assertEquals(segments.size(), nonReusable.parsed.get());
+    }
+
+    /**
+     * @return the sources generated by analyzing the recorded segments twice.
+     */
+    private List<String> analyze(boolean reuseListeners) {
+        final List<String> sources = new ArrayList<>();
+        final ModuleManager moduleManager = RecordedSegments.moduleManager(new NoopSourceReceiver() {
+            @Override
+            public void receive(final Source source) {
+                sources.add(source.getClass().getSimpleName() + gson.toJson(source));
+            }
+        });
+        final AnalyzerModuleConfig config = RecordedSegments.config(reuseListeners);
+        final SegmentParserServiceImpl segmentParserService = new SegmentParserServiceImpl(moduleManager, config);
+        segmentParserService.setListenerManager(RecordedSegments.listenerManager(moduleManager, config));
+
+        for (int i = 0; i < 2; i++) {
+            segments.forEach(segmentParserService::send);
+        }
+        return sources;
+    }
+
+    private static class NoopSourceReceiver implements SourceReceiver {
+        @Override
+        public void receive(final Source source) {
+        }
+
+        @Override
+        public DispatcherDetectorListener getDispatcherDetectorListener() {
+            return null;
+        }
+    }
+
+    private static class CountingFactory implements AnalysisListenerFactory {
+        private final boolean reusable;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger parsed = new AtomicInteger();
+
+        private CountingFactory(final boolean reusable) {
+            this.reusable = reusable;
+        }
+
+        @Override
+        public AnalysisListener create(final ModuleManager moduleManager, final AnalyzerModuleConfig config) {
+            created.incrementAndGet();
+            return new SegmentListener() {
+                @Override
+                public void parseSegment(final SegmentObject segmentObject) {
+                    parsed.incrementAndGet();
+                }
+
+                @Override
+                public void build() {
+                }
+
+                @Override
+                public boolean containsPoint(final Point point) {
+                    return Point.Segment.equals(point);
+                }
+
+                @Override
+                public boolean reset() {
+                    return reusable;
+                }
+            };
+        }
+    }
+}
@@ -24,8 +24,12 @@ import lombok.Getter;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
 
 /**
- * The binding bridge between OAP and the DSL, which provides some convenient methods to ease the use of the raw {@link groovy.lang.Binding#setProperty(java.lang.String, java.lang.Object)} and {@link
- * groovy.lang.Binding#getProperty(java.lang.String)}.
+ * The binding bridge between OAP and the DSL, which provides some convenient methods to ease the use of the raw {@link groovy.lang.Binding#setVariable(java.lang.String, java.lang.Object)} and {@link
+ * groovy.lang.Binding#getVariable(java.lang.String)}.
+ *
+ * The variables are accessed directly, {@link groovy.lang.Binding#getProperty(java.lang.String)} looks up the meta
+ * property and throws {@link groovy.lang.MissingPropertyException} before falling back to the variables, which costs
+ * more than analyzing the log.
  */
 public class Binding extends groovy.lang.Binding {
     public static final String KEY_LOG = "log";
@@ -37,13 +41,13 @@ public class Binding extends groovy.lang.Binding {
     public static final String KEY_ABORT = "abort";
 
     public Binding() {
-        setProperty(KEY_PARSED, new Parsed());
+        setVariable(KEY_PARSED, new Parsed());
     }
 
     public Binding log(final LogData.Builder log) {
-        setProperty(KEY_LOG, log);
-        setProperty(KEY_SAVE, true);
-        setProperty(KEY_ABORT, false);
+        setVariable(KEY_LOG, log);
+        setVariable(KEY_SAVE, true);
+        setVariable(KEY_ABORT, false);
         return this;
     }
 
@@ -52,7 +56,7 @@ public class Binding extends groovy.lang.Binding {
     }
 
     public LogData.Builder log() {
-        return (LogData.Builder) getProperty(KEY_LOG);
+        return (LogData.Builder) getVariable(KEY_LOG);
     }
 
     public Binding parsed(final Matcher parsed) {
@@ -66,30 +70,30 @@ public class Binding extends groovy.lang.Binding {
     }
 
     public Parsed parsed() {
-        return (Parsed) getProperty(KEY_PARSED);
+        return (Parsed) getVariable(KEY_PARSED);
     }
 
     public Binding save() {
-        setProperty(KEY_SAVE, true);
+        setVariable(KEY_SAVE, true);
         return this;
     }
 
     public Binding drop() {
-        setProperty(KEY_SAVE, false);
+        setVariable(KEY_SAVE, false);
         return this;
     }
 
     public boolean shouldSave() {
-        return (boolean) getProperty(KEY_SAVE);
+        return (boolean) getVariable(KEY_SAVE);
     }
 
     public Binding abort() {
-        setProperty(KEY_ABORT, true);
+        setVariable(KEY_ABORT, true);
         return this;
     }
 
     public boolean shouldAbort() {
-        return (boolean) getProperty(KEY_ABORT);
+        return (boolean) getVariable(KEY_ABORT);
     }
 
     public static class Parsed {
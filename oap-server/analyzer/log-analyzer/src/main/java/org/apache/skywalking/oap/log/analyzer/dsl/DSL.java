@@ -30,13 +30,33 @@ import org.codehaus.groovy.control.CompilerConfiguration;
 
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class DSL {
+    /**
+     * The system property to switch the execution mode of the scripts. The scripts are compiled into Java pipelines by
+     * {@link ScriptCompiler} by default, set it to false to run all of them as Groovy scripts.
+     */
+    public static final String COMPILE_PROPERTY = "lal.compile";
+
+    private static final boolean COMPILE = Boolean.parseBoolean(System.getProperty(COMPILE_PROPERTY, "true"));
+
     private final DelegatingScript script;
 
     private final FilterSpec filterSpec;
 
+    /**
+     * The compiled pipeline, or null if the script runs as a Groovy script.
+     */
+    private final ScriptCompiler.Stage<FilterSpec> pipeline;
+
     public static DSL of(final ModuleManager moduleManager,
                          final LogAnalyzerModuleConfig config,
                          final String dsl) throws ModuleStartException {
+        return of(moduleManager, config, dsl, COMPILE);
+    }
+
+    static DSL of(final ModuleManager moduleManager,
+                  final LogAnalyzerModuleConfig config,
+                  final String dsl,
+                  final boolean compile) throws ModuleStartException {
         final CompilerConfiguration cc = new CompilerConfiguration();
         cc.setScriptBaseClass(DelegatingScript.class.getName());
 
@@ -45,7 +65,10 @@ public class DSL {
         final FilterSpec filterSpec = new FilterSpec(moduleManager, config);
         script.setDelegate(filterSpec);
 
-        return new DSL(script, filterSpec);
+        final ScriptCompiler.Stage<FilterSpec> pipeline =
+            compile ? ScriptCompiler.compile(dsl, filterSpec).orElse(null) : null;
+
+        return new DSL(script, filterSpec, pipeline);
     }
 
     public void bind(final Binding binding) {
@@ -53,6 +76,14 @@ public class DSL {
     }
 
     public void evaluate() {
-        script.run();
+        if (pipeline != null) {
+            pipeline.run(filterSpec.binding(), filterSpec);
+        } else {
+            script.run();
+        }
+    }
+
+    boolean isCompiled() {
+        return pipeline != null;
     }
 }
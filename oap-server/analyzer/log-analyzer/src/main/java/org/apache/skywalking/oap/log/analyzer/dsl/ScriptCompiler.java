@@ -0,0 +1,955 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.dsl;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Primitives;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.extractor.ExtractorSpec;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.filter.FilterSpec;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.parser.AbstractParserSpec;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.parser.TextParserSpec;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.sink.SamplerSpec;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.sink.SinkSpec;
+import org.apache.skywalking.oap.log.analyzer.dsl.spec.sink.sampler.RateLimitingSampler;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.AttributeExpression;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.BooleanExpression;
+import org.codehaus.groovy.ast.expr.CastExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.ElvisOperatorExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.GStringExpression;
+import org.codehaus.groovy.ast.expr.ListExpression;
+import org.codehaus.groovy.ast.expr.MapEntryExpression;
+import org.codehaus.groovy.ast.expr.MapExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.NotExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.TernaryExpression;
+import org.codehaus.groovy.ast.expr.TupleExpression;
+import org.codehaus.groovy.ast.expr.UnaryMinusExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.ast.stmt.EmptyStatement;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.IfStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.runtime.DefaultGroovyMethods;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.ScriptBytecodeAdapter;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+import org.codehaus.groovy.runtime.typehandling.NumberMath;
+import org.codehaus.groovy.syntax.Types;
+
+/**
+ * ScriptCompiler compiles the LAL script into a pipeline of {@link Stage}s, which call the specs directly with the
+ * binding of the log, rather than dispatching the closures through the Groovy meta classes for every log. The script is
+ * parsed by the Groovy parser, so the syntax and the results are the same as running it as a Groovy script.
+ *
+ * The {@code filter}, parser, {@code extractor} and {@code sink} blocks are lowered into the stages of their specs, the
+ * constant regular expressions are compiled once, and the properties of {@code log} are read by the getters resolved in
+ * the compilation. The conditions follow the Groovy truth and comparisons. The properties and methods of the parsed
+ * values are still resolved in runtime, as their types are unknown until the logs are parsed. A command is resolved
+ * from the innermost block to the outer ones, e.g. {@code timestamp} in the {@code metrics} block is the one of the
+ * sample. The compilation gives up on any other construct, such as the variable declarations, then the script should
+ * run as a Groovy script.
+ */
+@Slf4j
+final class ScriptCompiler {
+    private static final ImmutableMap<String, Class<?>> TYPES;
+
+    static {
+        final ImmutableMap.Builder<String, Class<?>> types = ImmutableMap.builder();
+        for (final Class<?> type : new Class<?>[] {
+            int.class, long.class, double.class, float.class, short.class, byte.class, char.class, boolean.class
+        }) {
+            types.put(type.getName(), type);
+        }
+        for (final Class<?> type : new Class<?>[] {
+            Integer.class, Long.class, Double.class, Float.class, Short.class, Byte.class, Character.class,
+            Boolean.class, Number.class, String.class, Object.class, BigDecimal.class, BigInteger.class, List.class,
+            Map.class, Set.class, Collection.class
+        }) {
+            types.put(type.getSimpleName(), type);
+            types.put(type.getName(), type);
+        }
+        TYPES = types.build();
+    }
+
+    private final String dsl;
+
+    private final FilterSpec filterSpec;
+
+    private final Commands<FilterSpec> filterCommands;
+
+    private final Commands<ExtractorSpec> extractorCommands;
+
+    private final Commands<SinkSpec> sinkCommands;
+
+    private final Commands<SamplerSpec> samplerCommands;
+
+    /**
+     * Stage runs a statement of the compiled script.
+     *
+     * @param <T> the type of the delegate, which is the spec of the block including the statement.
+     */
+    @FunctionalInterface
+    interface Stage<T> {
+        void run(Binding binding, T delegate);
+    }
+
+    /**
+     * Value evaluates an expression of the compiled script.
+     */
+    @FunctionalInterface
+    private interface Value {
+        Object get(Binding binding);
+    }
+
+    /**
+     * Commands compiles the commands of a block, such as {@code service} in the {@code extractor} block.
+     */
+    @FunctionalInterface
+    private interface Commands<T> {
+        /**
+         * @return the stage of the command, or null if the command doesn't belong to the block.
+         */
+        Stage<T> compile(String name, List<Expression> arguments);
+    }
+
+    @FunctionalInterface
+    private interface Command<T, A> {
+        void run(T delegate, Binding binding, A argument);
+    }
+
+    private ScriptCompiler(final String dsl, final FilterSpec filterSpec) {
+        this.dsl = dsl;
+        this.filterSpec = filterSpec;
+        this.filterCommands = this::filterCommand;
+        this.extractorCommands = nested(this::extractorCommand, filterCommands, filterSpec);
+        this.sinkCommands = nested(this::sinkCommand, filterCommands, filterSpec);
+        this.samplerCommands = nested(this::samplerCommand, sinkCommands, filterSpec.sink());
+    }
+
+    /**
+     * Compile the LAL script.
+     *
+     * @param dsl        the script.
+     * @param filterSpec the spec the script delegates to.
+     * @return the pipeline running with the {@code filterSpec}, or empty if the script includes the constructs not
+     * supported by the compiler.
+     */
+    static Optional<Stage<FilterSpec>> compile(final String dsl, final FilterSpec filterSpec) {
+        try {
+            return Optional.of(new ScriptCompiler(dsl, filterSpec).compile());
+        } catch (UnsupportedScriptException | CompilationFailedException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("LAL script isn't compiled, fallback to groovy script: {}\n{}", e.getMessage(), dsl);
+            }
+            return Optional.empty();
+        }
+    }
+
+    private Stage<FilterSpec> compile() {
+        final CompilationUnit unit = new CompilationUnit(new CompilerConfiguration());
+        unit.addSource("LogAnalysisScript.groovy", dsl);
+        unit.compile(Phases.CONVERSION);
+        final ModuleNode module = unit.getAST().getModules().get(0);
+        if (!module.getMethods().isEmpty() || !module.getClasses().stream().allMatch(ClassNode::isScript)) {
+            throw new UnsupportedScriptException("only the statements are supported");
+        }
+        return block(module.getStatementBlock(), filterCommands);
+    }
+
+    private <T> Stage<T> block(final Statement statement, final Commands<T> commands) {
+        if (statement instanceof BlockStatement) {
+            final List<Stage<T>> stages = new ArrayList<>();
+            for (final Statement s : ((BlockStatement) statement).getStatements()) {
+                stages.add(block(s, commands));
+            }
+            if (stages.size() == 1) {
+                return stages.get(0);
+            }
+            return (binding, delegate) -> {
+                for (int i = 0; i < stages.size(); i++) {
+                    stages.get(i).run(binding, delegate);
+                }
+            };
+        }
+        if (statement instanceof EmptyStatement) {
+            return (binding, delegate) -> {
+            };
+        }
+        if (statement instanceof IfStatement) {
+            final IfStatement ifStatement = (IfStatement) statement;
+            final Value condition = compile(ifStatement.getBooleanExpression()).value;
+            final Stage<T> ifBlock = block(ifStatement.getIfBlock(), commands);
+            final Stage<T> elseBlock = block(ifStatement.getElseBlock(), commands);
+            return (binding, delegate) -> {
+                if ((Boolean) condition.get(binding)) {
+                    ifBlock.run(binding, delegate);
+                } else {
+                    elseBlock.run(binding, delegate);
+                }
+            };
+        }
+        if (statement instanceof ExpressionStatement
+            && ((ExpressionStatement) statement).getExpression() instanceof MethodCallExpression) {
+            final MethodCallExpression call = (MethodCallExpression) ((ExpressionStatement) statement).getExpression();
+            if (call.isImplicitThis() && call.getMethodAsString() != null) {
+                final Stage<T> stage = commands.compile(call.getMethodAsString(), arguments(call));
+                if (stage != null) {
+                    return stage;
+                }
+            }
+        }
+        throw new UnsupportedScriptException(statement.getText());
+    }
+
+    /**
+     * The commands of the script and the {@code filter} block, which are also available in the inner blocks.
+     */
+    private Stage<FilterSpec> filterCommand(final String name, final List<Expression> arguments) {
+        switch (name) {
+            case "filter":
+                return block(closure(name, arguments), filterCommands);
+            case "text":
+                return parser(name, arguments, nested(this::textCommand, filterCommands, filterSpec),
+                              filterSpec.textParser(), null);
+            case "json":
+                return parser(name, arguments, nested(this::parserCommand, filterCommands, filterSpec),
+                              filterSpec.jsonParser(), (binding, filter) -> filter.json(binding));
+            case "yaml":
+                return parser(name, arguments, nested(this::parserCommand, filterCommands, filterSpec),
+                              filterSpec.yamlParser(), (binding, filter) -> filter.yaml(binding));
+            case "extractor": {
+                final Stage<ExtractorSpec> body = block(closure(name, arguments), extractorCommands);
+                final ExtractorSpec extractor = filterSpec.extractor();
+                return (binding, filter) -> {
+                    if (binding.shouldAbort()) {
+                        return;
+                    }
+                    body.run(binding, extractor);
+                };
+            }
+            case "sink": {
+                final Stage<SinkSpec> body = block(closure(name, arguments), sinkCommands);
+                final SinkSpec sink = filterSpec.sink();
+                return (binding, filter) -> {
+                    if (binding.shouldAbort()) {
+                        return;
+                    }
+                    body.run(binding, sink);
+                    filter.sink(binding);
+                };
+            }
+            case "abort":
+                closure(name, arguments);
+                return (binding, filter) -> binding.abort();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param parse parses the log after the block runs, or null if the commands of the block parse the log.
+     */
+    private <T extends AbstractParserSpec> Stage<FilterSpec> parser(final String name,
+                                                                   final List<Expression> arguments,
+                                                                   final Commands<T> commands,
+                                                                   final T parser,
+                                                                   final Stage<FilterSpec> parse) {
+        final Stage<T> body = block(closure(name, arguments), commands);
+        return (binding, filter) -> {
+            if (binding.shouldAbort()) {
+                return;
+            }
+            body.run(binding, parser);
+            if (parse != null) {
+                parse.run(binding, filter);
+            }
+        };
+    }
+
+    private <T extends AbstractParserSpec> Stage<T> parserCommand(final String name,
+                                                                 final List<Expression> arguments) {
+        if ("abortOnFailure".equals(name)) {
+            final Value value = argument(name, arguments);
+            return (binding, parser) -> parser.abortOnFailure(bool(name, value.get(binding)));
+        }
+        return null;
+    }
+
+    private Stage<TextParserSpec> textCommand(final String name, final List<Expression> arguments) {
+        if (!"regexp".equals(name)) {
+            return parserCommand(name, arguments);
+        }
+        if (arguments.size() == 1 && arguments.get(0) instanceof ConstantExpression
+            && ((ConstantExpression) arguments.get(0)).getValue() instanceof String) {
+            final Pattern pattern = Pattern.compile((String) ((ConstantExpression) arguments.get(0)).getValue());
+            return (binding, text) -> text.regexp(binding, pattern);
+        }
+        final Value value = argument(name, arguments);
+        return (binding, text) -> {
+            final Object regexp = value.get(binding);
+            text.regexp(binding, regexp instanceof Pattern ? (Pattern) regexp : Pattern.compile(string(name, regexp)));
+        };
+    }
+
+    private Stage<ExtractorSpec> extractorCommand(final String name, final List<Expression> arguments) {
+        switch (name) {
+            case "service":
+                return stringCommand(name, arguments, ExtractorSpec::service);
+            case "instance":
+                return stringCommand(name, arguments, ExtractorSpec::instance);
+            case "endpoint":
+                return stringCommand(name, arguments, ExtractorSpec::endpoint);
+            case "traceId":
+                return stringCommand(name, arguments, ExtractorSpec::traceId);
+            case "segmentId":
+                return stringCommand(name, arguments, ExtractorSpec::segmentId);
+            case "spanId":
+                return stringCommand(name, arguments, ExtractorSpec::spanId);
+            case "timestamp":
+                return stringCommand(name, arguments, ExtractorSpec::timestamp);
+            case "tag": {
+                final Value value = argument(name, arguments);
+                return (binding, extractor) -> extractor.tag(binding, map(name, value.get(binding)));
+            }
+            case "metrics": {
+                final Stage<ExtractorSpec.SampleBuilder> body = block(
+                    closure(name, arguments),
+                    nested(this::sampleCommand, extractorCommands, filterSpec.extractor())
+                );
+                return (binding, extractor) -> {
+                    if (binding.shouldAbort()) {
+                        return;
+                    }
+                    final ExtractorSpec.SampleBuilder builder = new ExtractorSpec.SampleBuilder();
+                    body.run(binding, builder);
+                    extractor.metrics(builder.build());
+                };
+            }
+            default:
+                return null;
+        }
+    }
+
+    private Stage<ExtractorSpec.SampleBuilder> sampleCommand(final String name, final List<Expression> arguments) {
+        if (!"name".equals(name) && !"value".equals(name) && !"timestamp".equals(name) && !"labels".equals(name)) {
+            return null;
+        }
+        final Value value = argument(name, arguments);
+        switch (name) {
+            case "name":
+                return (binding, sample) -> sample.name(string(name, value.get(binding)));
+            case "value":
+                return (binding, sample) -> sample.value(number(name, value.get(binding)).doubleValue());
+            case "timestamp":
+                return (binding, sample) -> sample.timestamp(number(name, value.get(binding)).longValue());
+            default:
+                return (binding, sample) -> sample.labels(map(name, value.get(binding)));
+        }
+    }
+
+    private Stage<SinkSpec> sinkCommand(final String name, final List<Expression> arguments) {
+        switch (name) {
+            case "sampler": {
+                final Stage<SamplerSpec> body = block(closure(name, arguments), samplerCommands);
+                final SamplerSpec sampler = filterSpec.sink().sampler();
+                return (binding, sink) -> {
+                    if (binding.shouldAbort()) {
+                        return;
+                    }
+                    body.run(binding, sampler);
+                };
+            }
+            case "enforcer":
+                closure(name, arguments);
+                return (binding, sink) -> sink.enforcer(binding);
+            case "dropper":
+                closure(name, arguments);
+                return (binding, sink) -> sink.dropper(binding);
+            default:
+                return null;
+        }
+    }
+
+    private Stage<SamplerSpec> samplerCommand(final String name, final List<Expression> arguments) {
+        if (!"rateLimit".equals(name)) {
+            return null;
+        }
+        if (arguments.size() != 2) {
+            throw new UnsupportedScriptException(name + " requires an id and a block");
+        }
+        final Value id = compile(arguments.get(0)).value;
+        final Stage<RateLimitingSampler> body = block(
+            closure(name, arguments.subList(1, 2)),
+            nested(this::rateLimitCommand, samplerCommands, filterSpec.sink().sampler())
+        );
+        return (binding, sampler) -> {
+            if (binding.shouldAbort()) {
+                return;
+            }
+            final RateLimitingSampler rateLimitingSampler = sampler.rateLimitingSampler(string(name, id.get(binding)));
+            body.run(binding, rateLimitingSampler);
+            sampler.sampleWith(binding, rateLimitingSampler);
+        };
+    }
+
+    private Stage<RateLimitingSampler> rateLimitCommand(final String name, final List<Expression> arguments) {
+        if (!"qps".equals(name)) {
+            return null;
+        }
+        final Value value = argument(name, arguments);
+        return (binding, sampler) -> sampler.qps(number(name, value.get(binding)).intValue());
+    }
+
+    private <T> Stage<T> stringCommand(final String name,
+                                       final List<Expression> arguments,
+                                       final Command<T, String> command) {
+        final Value value = argument(name, arguments);
+        return (binding, delegate) -> command.run(delegate, binding, string(name, value.get(binding)));
+    }
+
+    /**
+     * Fall back to the commands of the outer block, which runs with the delegate of the outer block.
+     */
+    private static <T, O> Commands<T> nested(final Commands<T> commands, final Commands<O> outer, final O delegate) {
+        return (name, arguments) -> {
+            final Stage<T> stage = commands.compile(name, arguments);
+            if (stage != null) {
+                return stage;
+            }
+            final Stage<O> outerStage = outer.compile(name, arguments);
+            if (outerStage == null) {
+                return null;
+            }
+            return (binding, ignored) -> outerStage.run(binding, delegate);
+        };
+    }
+
+    private Term compile(final Expression expression) {
+        if (expression instanceof ConstantExpression) {
+            final Object value = ((ConstantExpression) expression).getValue();
+            return new Term(value == null ? Object.class : value.getClass(), binding -> value);
+        }
+        if (expression instanceof GStringExpression) {
+            return gString((GStringExpression) expression);
+        }
+        if (expression instanceof VariableExpression) {
+            return variable((VariableExpression) expression);
+        }
+        if (expression instanceof PropertyExpression && !(expression instanceof AttributeExpression)) {
+            return property((PropertyExpression) expression);
+        }
+        if (expression instanceof MethodCallExpression) {
+            return methodCall((MethodCallExpression) expression);
+        }
+        if (expression instanceof BinaryExpression) {
+            return binary((BinaryExpression) expression);
+        }
+        if (expression instanceof NotExpression) {
+            final Value value = compile(((NotExpression) expression).getExpression()).value;
+            return new Term(Boolean.class, binding -> !truth(value.get(binding)));
+        }
+        if (expression instanceof BooleanExpression) {
+            final Value value = compile(((BooleanExpression) expression).getExpression()).value;
+            return new Term(Boolean.class, binding -> truth(value.get(binding)));
+        }
+        if (expression instanceof ElvisOperatorExpression) {
+            final ElvisOperatorExpression elvis = (ElvisOperatorExpression) expression;
+            final Value value = compile(elvis.getTrueExpression()).value;
+            final Value otherwise = compile(elvis.getFalseExpression()).value;
+            return new Term(Object.class, binding -> {
+                final Object v = value.get(binding);
+                return truth(v) ? v : otherwise.get(binding);
+            });
+        }
+        if (expression instanceof TernaryExpression) {
+            final TernaryExpression ternary = (TernaryExpression) expression;
+            final Value condition = compile(ternary.getBooleanExpression()).value;
+            final Value ifTrue = compile(ternary.getTrueExpression()).value;
+            final Value ifFalse = compile(ternary.getFalseExpression()).value;
+            return new Term(
+                Object.class, binding -> (Boolean) condition.get(binding) ? ifTrue.get(binding) : ifFalse.get(binding));
+        }
+        if (expression instanceof CastExpression) {
+            return cast((CastExpression) expression);
+        }
+        if (expression instanceof MapExpression) {
+            return map((MapExpression) expression);
+        }
+        if (expression instanceof ListExpression) {
+            final List<Value> elements = new ArrayList<>();
+            for (final Expression element : ((ListExpression) expression).getExpressions()) {
+                elements.add(compile(element).value);
+            }
+            return new Term(List.class, binding -> {
+                final List<Object> list = new ArrayList<>(elements.size());
+                for (final Value element : elements) {
+                    list.add(element.get(binding));
+                }
+                return list;
+            });
+        }
+        if (expression instanceof UnaryMinusExpression) {
+            final Value value = compile(((UnaryMinusExpression) expression).getExpression()).value;
+            return new Term(Object.class, binding -> InvokerHelper.unaryMinus(value.get(binding)));
+        }
+        throw new UnsupportedScriptException(expression.getText());
+    }
+
+    private Term gString(final GStringExpression expression) {
+        final List<ConstantExpression> strings = expression.getStrings();
+        final List<Value> values = new ArrayList<>();
+        for (final Expression value : expression.getValues()) {
+            values.add(compile(value).value);
+        }
+        return new Term(String.class, binding -> {
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < strings.size() || i < values.size(); i++) {
+                if (i < strings.size()) {
+                    builder.append(strings.get(i).getValue());
+                }
+                if (i < values.size()) {
+                    builder.append(InvokerHelper.toString(values.get(i).get(binding)));
+                }
+            }
+            return builder.toString();
+        });
+    }
+
+    private Term variable(final VariableExpression expression) {
+        final String name = expression.getName();
+        if (Binding.KEY_LOG.equals(name)) {
+            return new Term(LogData.Builder.class, Binding::log);
+        }
+        if (Binding.KEY_PARSED.equals(name)) {
+            return new Term(Binding.Parsed.class, Binding::parsed);
+        }
+        // Capitalized names could be classes, which are only resolved by the Groovy compiler.
+        if (expression.isThisExpression() || expression.isSuperExpression() || "it".equals(name)
+            || Character.isUpperCase(name.charAt(0))) {
+            throw new UnsupportedScriptException(name);
+        }
+        return new Term(Object.class, binding -> binding.getVariable(name));
+    }
+
+    private Term property(final PropertyExpression expression) {
+        final String name = expression.getPropertyAsString();
+        if (name == null || expression.isSpreadSafe()) {
+            throw new UnsupportedScriptException(expression.getText());
+        }
+        final Term receiver = compile(expression.getObjectExpression());
+        final boolean safe = expression.isSafe();
+        final Method getter = getter(receiver.type, name);
+        if (getter != null) {
+            return new Term(getter.getReturnType(), binding -> {
+                final Object target = receiver.value.get(binding);
+                if (target == null) {
+                    return nullProperty(safe, name);
+                }
+                return invoke(getter, target);
+            });
+        }
+        if (receiver.type == Binding.Parsed.class) {
+            return new Term(Object.class, binding -> ((Binding.Parsed) receiver.value.get(binding)).getAt(name));
+        }
+        return new Term(Object.class, binding -> {
+            final Object target = receiver.value.get(binding);
+            if (target == null) {
+                return nullProperty(safe, name);
+            }
+            return property(target, name);
+        });
+    }
+
+    private Term methodCall(final MethodCallExpression expression) {
+        final String name = expression.getMethodAsString();
+        if (name == null || expression.isImplicitThis() || expression.isSpreadSafe()) {
+            throw new UnsupportedScriptException(expression.getText());
+        }
+        final Term receiver = compile(expression.getObjectExpression());
+        final List<Term> args = new ArrayList<>();
+        for (final Expression argument : arguments(expression)) {
+            args.add(compile(argument));
+        }
+        final boolean safe = expression.isSafe();
+        final Method method = method(receiver.type, name, args);
+        final Value[] values = args.stream().map(it -> it.value).toArray(Value[]::new);
+        return new Term(method != null ? method.getReturnType() : Object.class, binding -> {
+            final Object target = receiver.value.get(binding);
+            if (target == null) {
+                if (safe) {
+                    return null;
+                }
+                throw new NullPointerException("Cannot invoke method " + name + "() on null object");
+            }
+            final Object[] parameters = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                parameters[i] = values[i].get(binding);
+            }
+            if (method != null) {
+                return invoke(method, target, parameters);
+            }
+            return InvokerHelper.invokeMethod(target, name, parameters);
+        });
+    }
+
+    private Term binary(final BinaryExpression expression) {
+        final int operation = expression.getOperation().getType();
+        final Value left = compile(expression.getLeftExpression()).value;
+        if ((operation == Types.FIND_REGEX || operation == Types.MATCH_REGEX)
+            && expression.getRightExpression() instanceof ConstantExpression
+            && ((ConstantExpression) expression.getRightExpression()).getValue() instanceof String) {
+            final Pattern pattern = Pattern.compile(
+                (String) ((ConstantExpression) expression.getRightExpression()).getValue());
+            if (operation == Types.FIND_REGEX) {
+                return new Term(Object.class, binding -> findRegex(left.get(binding), pattern));
+            }
+            return new Term(Boolean.class, binding -> ScriptBytecodeAdapter.matchRegex(left.get(binding), pattern));
+        }
+        final Value right = compile(expression.getRightExpression()).value;
+        switch (operation) {
+            case Types.LOGICAL_AND:
+                return new Term(Boolean.class, binding -> truth(left.get(binding)) && truth(right.get(binding)));
+            case Types.LOGICAL_OR:
+                return new Term(Boolean.class, binding -> truth(left.get(binding)) || truth(right.get(binding)));
+            case Types.COMPARE_EQUAL:
+                return comparison(left, right, ScriptBytecodeAdapter::compareEqual);
+            case Types.COMPARE_NOT_EQUAL:
+                return comparison(left, right, ScriptBytecodeAdapter::compareNotEqual);
+            case Types.COMPARE_LESS_THAN:
+                return comparison(left, right, ScriptBytecodeAdapter::compareLessThan);
+            case Types.COMPARE_LESS_THAN_EQUAL:
+                return comparison(left, right, ScriptBytecodeAdapter::compareLessThanEqual);
+            case Types.COMPARE_GREATER_THAN:
+                return comparison(left, right, ScriptBytecodeAdapter::compareGreaterThan);
+            case Types.COMPARE_GREATER_THAN_EQUAL:
+                return comparison(left, right, ScriptBytecodeAdapter::compareGreaterThanEqual);
+            case Types.FIND_REGEX:
+                return new Term(Object.class, binding -> findRegex(left.get(binding), right.get(binding)));
+            case Types.MATCH_REGEX:
+                return comparison(left, right, ScriptBytecodeAdapter::matchRegex);
+            case Types.LEFT_SQUARE_BRACKET:
+                return new Term(Object.class, binding -> subscript(left.get(binding), right.get(binding)));
+            case Types.PLUS:
+                return new Term(Object.class, binding -> plus(left.get(binding), right.get(binding)));
+            case Types.MINUS:
+                return arithmetic(left, right, NumberMath::subtract, "minus");
+            case Types.MULTIPLY:
+                return arithmetic(left, right, NumberMath::multiply, "multiply");
+            case Types.DIVIDE:
+                return arithmetic(left, right, NumberMath::divide, "div");
+            default:
+                throw new UnsupportedScriptException(expression.getText());
+        }
+    }
+
+    private static Term comparison(final Value left, final Value right, final BiPredicate<Object, Object> predicate) {
+        return new Term(Boolean.class, binding -> predicate.test(left.get(binding), right.get(binding)));
+    }
+
+    private static Term arithmetic(final Value left,
+                                   final Value right,
+                                   final BinaryOperator<Number> numbers,
+                                   final String method) {
+        return new Term(Object.class, binding -> {
+            final Object l = left.get(binding);
+            final Object r = right.get(binding);
+            if (l instanceof Number && r instanceof Number) {
+                return numbers.apply((Number) l, (Number) r);
+            }
+            return InvokerHelper.invokeMethod(l, method, r);
+        });
+    }
+
+    private Term cast(final CastExpression expression) {
+        final Class<?> type = TYPES.get(expression.getType().getName());
+        if (type == null) {
+            throw new UnsupportedScriptException(expression.getText());
+        }
+        final Value value = compile(expression.getExpression()).value;
+        final boolean coerce = expression.isCoerce();
+        return new Term(Primitives.wrap(type), binding -> {
+            try {
+                return coerce
+                    ? ScriptBytecodeAdapter.asType(value.get(binding), type)
+                    : ScriptBytecodeAdapter.castToType(value.get(binding), type);
+            } catch (Throwable t) {
+                Throwables.throwIfUnchecked(t);
+                throw new IllegalStateException(t);
+            }
+        });
+    }
+
+    private Term map(final MapExpression expression) {
+        final List<Value> keys = new ArrayList<>();
+        final List<Value> values = new ArrayList<>();
+        for (final MapEntryExpression entry : expression.getMapEntryExpressions()) {
+            keys.add(compile(entry.getKeyExpression()).value);
+            values.add(compile(entry.getValueExpression()).value);
+        }
+        return new Term(Map.class, binding -> {
+            final Map<Object, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                map.put(keys.get(i).get(binding), values.get(i).get(binding));
+            }
+            return map;
+        });
+    }
+
+    private static List<Expression> arguments(final MethodCallExpression call) {
+        if (!(call.getArguments() instanceof TupleExpression)) {
+            throw new UnsupportedScriptException(call.getText());
+        }
+        return ((TupleExpression) call.getArguments()).getExpressions();
+    }
+
+    private Value argument(final String name, final List<Expression> arguments) {
+        if (arguments.size() != 1) {
+            throw new UnsupportedScriptException(name + " requires one argument");
+        }
+        return compile(arguments.get(0)).value;
+    }
+
+    private static Statement closure(final String name, final List<Expression> arguments) {
+        if (arguments.size() != 1 || !(arguments.get(0) instanceof ClosureExpression)
+            || ((ClosureExpression) arguments.get(0)).isParameterSpecified()) {
+            throw new UnsupportedScriptException(name + " requires a block");
+        }
+        return ((ClosureExpression) arguments.get(0)).getCode();
+    }
+
+    /**
+     * @return the getter of the property of the given static type, or null if the property should be resolved in
+     * runtime.
+     */
+    private static Method getter(final Class<?> type, final String name) {
+        if (type == Object.class || Map.class.isAssignableFrom(type) || !Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        final String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (final String prefix : new String[] {"get", "is"}) {
+            try {
+                final Method method = type.getMethod(prefix + suffix);
+                if (!Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class
+                    && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // Try the next prefix, or resolve the property in runtime.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the only public method of the given static type matching the arguments, or null if the method should be
+     * resolved in runtime.
+     */
+    private static Method method(final Class<?> type, final String name, final List<Term> args) {
+        if (type == Object.class || !Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        Method found = null;
+        for (final Method method : type.getMethods()) {
+            if (!method.getName().equals(name) || method.getParameterCount() != args.size()) {
+                continue;
+            }
+            if (found != null) {
+                return null;
+            }
+            found = method;
+        }
+        if (found == null || Modifier.isStatic(found.getModifiers()) || found.isVarArgs()
+            || !Modifier.isPublic(found.getDeclaringClass().getModifiers())) {
+            return null;
+        }
+        final Class<?>[] parameterTypes = found.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i].isPrimitive() || !parameterTypes[i].isAssignableFrom(args.get(i).type)) {
+                return null;
+            }
+        }
+        return found;
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object nullProperty(final boolean safe, final String name) {
+        if (safe) {
+            return null;
+        }
+        throw new NullPointerException("Cannot get property '" + name + "' on null object");
+    }
+
+    private static Object property(final Object target, final String name) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+        if (target instanceof Binding.Parsed) {
+            return ((Binding.Parsed) target).getAt(name);
+        }
+        return InvokerHelper.getProperty(target, name);
+    }
+
+    private static Object subscript(final Object target, final Object key) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(key);
+        }
+        if (target instanceof Binding.Parsed && key instanceof String) {
+            return ((Binding.Parsed) target).getAt((String) key);
+        }
+        if (target instanceof List && key instanceof Integer) {
+            return DefaultGroovyMethods.getAt((List<?>) target, (int) key);
+        }
+        return InvokerHelper.invokeMethod(target, "getAt", key);
+    }
+
+    private static Object plus(final Object left, final Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return NumberMath.add((Number) left, (Number) right);
+        }
+        if (left instanceof String) {
+            return left + InvokerHelper.toString(right);
+        }
+        return InvokerHelper.invokeMethod(left, "plus", right);
+    }
+
+    private static Object findRegex(final Object left, final Object right) {
+        try {
+            return ScriptBytecodeAdapter.findRegex(left, right);
+        } catch (Throwable t) {
+            Throwables.throwIfUnchecked(t);
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * The Groovy truth, the common types are checked before the {@code asBoolean} method is dispatched.
+     */
+    private static boolean truth(final Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() > 0;
+        }
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return !((Map<?, ?>) value).isEmpty();
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        }
+        return DefaultTypeTransformation.castToBoolean(value);
+    }
+
+    private static String string(final String command, final Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof CharSequence) {
+            return value.toString();
+        }
+        throw new IllegalArgumentException(command + " requires a string, but got " + value.getClass().getName());
+    }
+
+    private static Number number(final String command, final Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        throw new IllegalArgumentException(command + " requires a number, but got " + value);
+    }
+
+    private static boolean bool(final String command, final Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        throw new IllegalArgumentException(command + " requires a boolean, but got " + value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> map(final String command, final Object value) {
+        if (value == null || value instanceof Map) {
+            return (Map<K, V>) value;
+        }
+        throw new IllegalArgumentException(command + " requires a map, but got " + value.getClass().getName());
+    }
+
+    /**
+     * Term is a compiled expression with its static type.
+     */
+    private static class Term {
+        private final Class<?> type;
+        private final Value value;
+
+        private Term(final Class<?> type, final Value value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private static class UnsupportedScriptException extends RuntimeException {
+        private UnsupportedScriptException(final String message) {
+            super(message);
+        }
+    }
+}
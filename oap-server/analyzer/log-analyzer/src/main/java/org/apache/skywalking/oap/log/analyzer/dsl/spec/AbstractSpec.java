@@ -40,6 +40,13 @@ public abstract class AbstractSpec {
         BINDING.set(b);
     }
 
+    /**
+     * @return the binding of the log being analyzed in the current thread.
+     */
+    public Binding binding() {
+        return BINDING.get();
+    }
+
     @SuppressWarnings("unused")
     public void abort(final Closure<Void> cl) {
         BINDING.get().abort();
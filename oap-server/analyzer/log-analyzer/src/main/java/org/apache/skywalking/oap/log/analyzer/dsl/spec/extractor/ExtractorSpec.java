@@ -31,6 +31,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
 import org.apache.skywalking.apm.network.logging.v3.TraceContext;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
 import org.apache.skywalking.oap.log.analyzer.dsl.spec.AbstractSpec;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.meter.analyzer.MetricConvert;
@@ -64,43 +65,59 @@ public class ExtractorSpec extends AbstractSpec {
 
     @SuppressWarnings("unused")
     public void service(final String service) {
-        if (BINDING.get().shouldAbort()) {
+        service(BINDING.get(), service);
+    }
+
+    public void service(final Binding b, final String service) {
+        if (b.shouldAbort()) {
             return;
         }
         if (nonNull(service)) {
-            BINDING.get().log().setService(service);
+            b.log().setService(service);
         }
     }
 
     @SuppressWarnings("unused")
     public void instance(final String instance) {
-        if (BINDING.get().shouldAbort()) {
+        instance(BINDING.get(), instance);
+    }
+
+    public void instance(final Binding b, final String instance) {
+        if (b.shouldAbort()) {
             return;
         }
         if (nonNull(instance)) {
-            BINDING.get().log().setServiceInstance(instance);
+            b.log().setServiceInstance(instance);
         }
     }
 
     @SuppressWarnings("unused")
     public void endpoint(final String endpoint) {
-        if (BINDING.get().shouldAbort()) {
+        endpoint(BINDING.get(), endpoint);
+    }
+
+    public void endpoint(final Binding b, final String endpoint) {
+        if (b.shouldAbort()) {
             return;
         }
         if (nonNull(endpoint)) {
-            BINDING.get().log().setEndpoint(endpoint);
+            b.log().setEndpoint(endpoint);
         }
     }
 
     @SuppressWarnings("unused")
     public void tag(final Map<String, Object> kv) {
-        if (BINDING.get().shouldAbort()) {
+        tag(BINDING.get(), kv);
+    }
+
+    public void tag(final Binding b, final Map<String, Object> kv) {
+        if (b.shouldAbort()) {
             return;
         }
         if (CollectionUtils.isEmpty(kv)) {
             return;
         }
-        final LogData.Builder logData = BINDING.get().log();
+        final LogData.Builder logData = b.log();
         logData.setTags(
             logData.getTags()
                    .toBuilder()
@@ -123,16 +140,20 @@ public class ExtractorSpec extends AbstractSpec {
                          .collect(Collectors.toList())
                    )
         );
-        BINDING.get().log(logData);
+        b.log(logData);
     }
 
     @SuppressWarnings("unused")
     public void traceId(final String traceId) {
-        if (BINDING.get().shouldAbort()) {
+        traceId(BINDING.get(), traceId);
+    }
+
+    public void traceId(final Binding b, final String traceId) {
+        if (b.shouldAbort()) {
             return;
         }
         if (nonNull(traceId)) {
-            final LogData.Builder logData = BINDING.get().log();
+            final LogData.Builder logData = b.log();
             final TraceContext.Builder traceContext = logData.getTraceContext().toBuilder();
             traceContext.setTraceId(traceId);
             logData.setTraceContext(traceContext);
@@ -141,11 +162,15 @@ public class ExtractorSpec extends AbstractSpec {
 
     @SuppressWarnings("unused")
     public void segmentId(final String segmentId) {
-        if (BINDING.get().shouldAbort()) {
+        segmentId(BINDING.get(), segmentId);
+    }
+
+    public void segmentId(final Binding b, final String segmentId) {
+        if (b.shouldAbort()) {
             return;
         }
         if (nonNull(segmentId)) {
-            final LogData.Builder logData = BINDING.get().log();
+            final LogData.Builder logData = b.log();
             final TraceContext.Builder traceContext = logData.getTraceContext().toBuilder();
             traceContext.setTraceSegmentId(segmentId);
             logData.setTraceContext(traceContext);
@@ -154,11 +179,15 @@ public class ExtractorSpec extends AbstractSpec {
 
     @SuppressWarnings("unused")
     public void spanId(final String spanId) {
-        if (BINDING.get().shouldAbort()) {
+        spanId(BINDING.get(), spanId);
+    }
+
+    public void spanId(final Binding b, final String spanId) {
+        if (b.shouldAbort()) {
             return;
         }
         if (nonNull(spanId)) {
-            final LogData.Builder logData = BINDING.get().log();
+            final LogData.Builder logData = b.log();
             final TraceContext.Builder traceContext = logData.getTraceContext().toBuilder();
             traceContext.setSpanId(Integer.parseInt(spanId));
             logData.setTraceContext(traceContext);
@@ -167,11 +196,15 @@ public class ExtractorSpec extends AbstractSpec {
 
     @SuppressWarnings("unused")
     public void timestamp(final String timestamp) {
-        if (BINDING.get().shouldAbort()) {
+        timestamp(BINDING.get(), timestamp);
+    }
+
+    public void timestamp(final Binding b, final String timestamp) {
+        if (b.shouldAbort()) {
             return;
         }
         if (nonNull(timestamp) && StringUtils.isNumeric(timestamp)) {
-            BINDING.get().log().setTimestamp(Long.parseLong(timestamp));
+            b.log().setTimestamp(Long.parseLong(timestamp));
         }
     }
 
@@ -184,8 +217,13 @@ public class ExtractorSpec extends AbstractSpec {
         cl.setDelegate(builder);
         cl.call();
 
-        final Sample sample = builder.build();
+        metrics(builder.build());
+    }
 
+    /**
+     * Convert the sample extracted from the log to meters.
+     */
+    public void metrics(final Sample sample) {
         metricConverts.forEach(it -> it.toMeter(
             ImmutableMap.<String, SampleFamily>builder()
                 .put(sample.getName(), SampleFamilyBuilder.newBuilder(sample).build())
@@ -97,21 +97,28 @@ public class FilterSpec extends AbstractSpec {
         cl.setDelegate(jsonParser);
         cl.call();
 
-        final LogData.Builder logData = BINDING.get().log();
+        json(BINDING.get());
+    }
+
+    /**
+     * Parse the json body of the log with the options configured in the {@code json} block.
+     */
+    public void json(final Binding b) {
+        final LogData.Builder logData = b.log();
         try {
             final Map<String, Object> parsed = jsonParser.create().fromJson(
                 logData.getBody().getJson().getJson(), parsedType
             );
 
-            BINDING.get().parsed(parsed);
+            b.parsed(parsed);
         } catch (final Exception e) {
             if (jsonParser.abortOnFailure()) {
-                BINDING.get().abort();
+                b.abort();
             }
         }
     }
 
-    @SuppressWarnings({"unused", "unchecked"})
+    @SuppressWarnings("unused")
     public void yaml(final Closure<Void> cl) {
         if (BINDING.get().shouldAbort()) {
             return;
@@ -119,16 +126,24 @@ public class FilterSpec extends AbstractSpec {
         cl.setDelegate(yamlParser);
         cl.call();
 
-        final LogData.Builder logData = BINDING.get().log();
+        yaml(BINDING.get());
+    }
+
+    /**
+     * Parse the yaml body of the log with the options configured in the {@code yaml} block.
+     */
+    @SuppressWarnings("unchecked")
+    public void yaml(final Binding b) {
+        final LogData.Builder logData = b.log();
         try {
             final Map<String, Object> parsed = (Map<String, Object>) yamlParser.create().load(
                 logData.getBody().getYaml().getYaml()
             );
 
-            BINDING.get().parsed(parsed);
+            b.parsed(parsed);
         } catch (final Exception e) {
             if (yamlParser.abortOnFailure()) {
-                BINDING.get().abort();
+                b.abort();
             }
         }
     }
@@ -150,7 +165,13 @@ public class FilterSpec extends AbstractSpec {
         cl.setDelegate(sink);
         cl.call();
 
-        final Binding b = BINDING.get();
+        sink(BINDING.get());
+    }
+
+    /**
+     * Send the log to the analysis listeners, unless it is dropped in the {@code sink} block.
+     */
+    public void sink(final Binding b) {
         final LogData.Builder logData = b.log();
 
         if (!b.shouldSave()) {
@@ -169,4 +190,24 @@ public class FilterSpec extends AbstractSpec {
     public void filter(final Closure<Void> cl) {
         cl.call();
     }
+
+    public TextParserSpec textParser() {
+        return textParser;
+    }
+
+    public JsonParserSpec jsonParser() {
+        return jsonParser;
+    }
+
+    public YamlParserSpec yamlParser() {
+        return yamlParser;
+    }
+
+    public ExtractorSpec extractor() {
+        return extractor;
+    }
+
+    public SinkSpec sink() {
+        return sink;
+    }
 }
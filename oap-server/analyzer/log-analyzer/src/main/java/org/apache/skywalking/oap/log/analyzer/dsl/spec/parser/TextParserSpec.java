@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.log.analyzer.dsl.spec.parser;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 
@@ -36,16 +37,20 @@ public class TextParserSpec extends AbstractParserSpec {
     }
 
     public boolean regexp(final Pattern pattern) {
-        if (BINDING.get().shouldAbort()) {
+        return regexp(BINDING.get(), pattern);
+    }
+
+    public boolean regexp(final Binding b, final Pattern pattern) {
+        if (b.shouldAbort()) {
             return false;
         }
-        final LogData.Builder log = BINDING.get().log();
+        final LogData.Builder log = b.log();
         final Matcher matcher = pattern.matcher(log.getBody().getText().getText());
         final boolean matched = matcher.find();
         if (matched) {
-            BINDING.get().parsed(matcher);
+            b.parsed(matcher);
         } else if (abortOnFailure()) {
-            BINDING.get().abort();
+            b.abort();
         }
         return matched;
     }
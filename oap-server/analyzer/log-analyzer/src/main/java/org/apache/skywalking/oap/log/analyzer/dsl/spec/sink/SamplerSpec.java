@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.log.analyzer.dsl.spec.sink;
 import groovy.lang.Closure;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
 import org.apache.skywalking.oap.log.analyzer.dsl.spec.AbstractSpec;
 import org.apache.skywalking.oap.log.analyzer.dsl.spec.sink.sampler.RateLimitingSampler;
 import org.apache.skywalking.oap.log.analyzer.dsl.spec.sink.sampler.Sampler;
@@ -45,22 +46,29 @@ public class SamplerSpec extends AbstractSpec {
             return;
         }
 
-        final Sampler sampler = samplers.computeIfAbsent(id, $ -> new RateLimitingSampler(rlsResetHandler).start());
+        final Sampler sampler = rateLimitingSampler(id);
 
         cl.setDelegate(sampler);
         cl.call();
 
-        sampleWith(sampler);
+        sampleWith(BINDING.get(), sampler);
     }
 
-    private void sampleWith(final Sampler sampler) {
-        if (BINDING.get().shouldAbort()) {
+    /**
+     * @return the rate limiting sampler of the given id, which is created at the first time.
+     */
+    public RateLimitingSampler rateLimitingSampler(final String id) {
+        return (RateLimitingSampler) samplers.computeIfAbsent(id, $ -> new RateLimitingSampler(rlsResetHandler).start());
+    }
+
+    public void sampleWith(final Binding b, final Sampler sampler) {
+        if (b.shouldAbort()) {
             return;
         }
         if (sampler.sample()) {
-            BINDING.get().save();
+            b.save();
         } else {
-            BINDING.get().drop();
+            b.drop();
         }
     }
 
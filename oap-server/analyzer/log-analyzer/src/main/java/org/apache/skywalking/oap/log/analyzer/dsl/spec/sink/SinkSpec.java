@@ -19,6 +19,7 @@
 package org.apache.skywalking.oap.log.analyzer.dsl.spec.sink;
 
 import groovy.lang.Closure;
+import org.apache.skywalking.oap.log.analyzer.dsl.Binding;
 import org.apache.skywalking.oap.log.analyzer.dsl.spec.AbstractSpec;
 import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
@@ -45,17 +46,29 @@ public class SinkSpec extends AbstractSpec {
 
     @SuppressWarnings("unused")
     public void enforcer(final Closure<Void> cl) {
-        if (BINDING.get().shouldAbort()) {
+        enforcer(BINDING.get());
+    }
+
+    public void enforcer(final Binding b) {
+        if (b.shouldAbort()) {
             return;
         }
-        BINDING.get().save();
+        b.save();
     }
 
     @SuppressWarnings("unused")
     public void dropper(final Closure<Void> cl) {
-        if (BINDING.get().shouldAbort()) {
+        dropper(BINDING.get());
+    }
+
+    public void dropper(final Binding b) {
+        if (b.shouldAbort()) {
             return;
         }
-        BINDING.get().drop();
+        b.drop();
+    }
+
+    public SamplerSpec sampler() {
+        return sampler;
     }
 }
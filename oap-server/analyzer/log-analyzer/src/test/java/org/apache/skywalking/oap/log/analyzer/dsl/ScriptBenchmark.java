@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.dsl;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.network.logging.v3.JSONLog;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogDataBody;
+import org.apache.skywalking.apm.network.logging.v3.TextLog;
+import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.CoreModuleConfig;
+import org.apache.skywalking.oap.server.core.analysis.DispatcherDetectorListener;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
+import org.apache.skywalking.oap.server.core.config.ConfigService;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.config.group.EndpointNameGrouping;
+import org.apache.skywalking.oap.server.core.source.Source;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.powermock.reflect.Whitebox;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compare the throughput, logs per second in a single thread, of running the LAL scripts as Groovy scripts with running
+ * the pipelines compiled by {@link ScriptCompiler}. Every log goes through the parser, extractor and sink, and reaches
+ * the analysis listeners.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScriptBenchmark {
+    private static final String JSON = "filter {\n"
+        + "  json {\n"
+        + "  }\n"
+        + "  if (parsed?.response?.responseCode < 400 && !parsed?.commonProperties?.responseFlags) {\n"
+        + "    abort {}\n"
+        + "  }\n"
+        + "  extractor {\n"
+        + "    tag 'status.code': parsed?.response?.responseCode as int\n"
+        + "    tag 'response.flag': parsed?.commonProperties?.responseFlags?.keySet()\n"
+        + "  }\n"
+        + "  sink {\n"
+        + "    sampler {\n"
+        + "      rateLimit(\"${log.service}:${parsed?.response?.responseCode}\") {\n"
+        + "        qps 100000000\n"
+        + "      }\n"
+        + "    }\n"
+        + "  }\n"
+        + "}";
+
+    private static final String TEXT = "filter {\n"
+        + "  text {\n"
+        + "    regexp $/(?<timestamp>\\d{8,}) \\[(?<thread>[^]]+)] (?<level>\\w+) (?<logger>\\S+) - (?<msg>.+)/$\n"
+        + "  }\n"
+        + "  extractor {\n"
+        + "    timestamp parsed.timestamp\n"
+        + "    tag level: parsed.level, thread: parsed.thread, logger: parsed.logger\n"
+        + "  }\n"
+        + "  sink {\n"
+        + "  }\n"
+        + "}";
+
+    private final LogData jsonLog = LogData.newBuilder().setService("checkout").setBody(
+        LogDataBody.newBuilder().setJson(JSONLog.newBuilder().setJson(
+            "{\"response\":{\"responseCode\":503,\"bodyBytes\":91},\"request\":{\"requestMethod\":\"GET\","
+                + "\"path\":\"/checkout\"},\"commonProperties\":{\"upstreamCluster\":\"outbound|80||catalog\"}}"
+        ))).build();
+
+    private final LogData textLog = LogData.newBuilder().setService("checkout").setBody(
+        LogDataBody.newBuilder().setText(TextLog.newBuilder().setText(
+            "1609459200000 [http-nio-8080-exec-1] ERROR org.apache.skywalking.Checkout - failed to checkout the cart"
+        ))).build();
+
+    private DSL groovyJson;
+    private DSL compiledJson;
+    private DSL groovyText;
+    private DSL compiledText;
+
+    @Setup
+    public void setup() throws Exception {
+        final CoreModuleConfig coreConfig = new CoreModuleConfig();
+        coreConfig.setSearchableLogsTags("level");
+        final SourceReceiver sourceReceiver = new SourceReceiver() {
+            @Override
+            public void receive(final Source source) {
+            }
+
+            @Override
+            public DispatcherDetectorListener getDispatcherDetectorListener() {
+                return null;
+            }
+        };
+        final ModuleManager manager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        when(manager.find(CoreModule.NAME).provider().getService(ConfigService.class))
+            .thenReturn(new ConfigService(coreConfig));
+        when(manager.find(CoreModule.NAME).provider().getService(NamingControl.class))
+            .thenReturn(new NamingControl(70, 100, 150, new EndpointNameGrouping()));
+        when(manager.find(CoreModule.NAME).provider().getService(SourceReceiver.class)).thenReturn(sourceReceiver);
+        when(manager.find(CoreModule.NAME).provider().getService(MeterSystem.class))
+            .thenReturn(mock(MeterSystem.class));
+
+        final LogAnalyzerModuleConfig config = new LogAnalyzerModuleConfig();
+        Whitebox.setInternalState(config, "meterConfigs", Collections.emptyList());
+
+        groovyJson = DSL.of(manager, config, JSON, false);
+        compiledJson = DSL.of(manager, config, JSON, true);
+        groovyText = DSL.of(manager, config, TEXT, false);
+        compiledText = DSL.of(manager, config, TEXT, true);
+    }
+
+    @Benchmark
+    public Binding groovyJson() {
+        return evaluate(groovyJson, jsonLog);
+    }
+
+    @Benchmark
+    public Binding compiledJson() {
+        return evaluate(compiledJson, jsonLog);
+    }
+
+    @Benchmark
+    public Binding groovyText() {
+        return evaluate(groovyText, textLog);
+    }
+
+    @Benchmark
+    public Binding compiledText() {
+        return evaluate(compiledText, textLog);
+    }
+
+    private static Binding evaluate(final DSL dsl, final LogData log) {
+        final Binding binding = new Binding().log(log);
+        dsl.bind(binding);
+        dsl.evaluate();
+        return binding;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ScriptBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+    /*
+        Environment:
+
+        # JMH version: 1.21
+        # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08, 1 CPU core
+        # Warmup: 3 iterations, 2 s each
+        # Measurement: 5 iterations, 2 s each
+        # Threads: 1 thread, will synchronize iterations
+        # Benchmark mode: Throughput, ops/time
+
+        Benchmark                      Mode  Cnt       Score        Error  Units
+        ScriptBenchmark.compiledJson  thrpt    5  163752.976 ±  12530.139  ops/s
+        ScriptBenchmark.compiledText  thrpt    5  154009.898 ± 106334.132  ops/s
+        ScriptBenchmark.groovyJson    thrpt    5   50593.536 ±  31336.215  ops/s
+        ScriptBenchmark.groovyText    thrpt    5   48148.184 ±   1793.058  ops/s
+     */
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.log.analyzer.dsl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.skywalking.apm.network.logging.v3.JSONLog;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.apache.skywalking.apm.network.logging.v3.LogDataBody;
+import org.apache.skywalking.apm.network.logging.v3.TextLog;
+import org.apache.skywalking.apm.network.logging.v3.YAMLLog;
+import org.apache.skywalking.oap.log.analyzer.provider.LogAnalyzerModuleConfig;
+import org.apache.skywalking.oap.server.core.CoreModule;
+import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
+import org.apache.skywalking.oap.server.core.config.ConfigService;
+import org.apache.skywalking.oap.server.core.config.NamingControl;
+import org.apache.skywalking.oap.server.core.source.SourceReceiver;
+import org.apache.skywalking.oap.server.library.module.ModuleManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.AdditionalAnswers.returnsLastArg;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScriptCompilerTest {
+    private ModuleManager manager;
+
+    private LogAnalyzerModuleConfig config;
+
+    @Before
+    public void setUp() {
+        manager = mock(ModuleManager.class, RETURNS_DEEP_STUBS);
+        final ConfigService configService = mock(ConfigService.class);
+        when(configService.getSearchableLogsTags()).thenReturn("level");
+        final NamingControl namingControl = mock(NamingControl.class);
+        when(namingControl.formatServiceName(anyString())).then(returnsFirstArg());
+        when(namingControl.formatInstanceName(anyString())).then(returnsFirstArg());
+        when(namingControl.formatEndpointName(anyString(), anyString())).then(returnsLastArg());
+        when(manager.find(CoreModule.NAME).provider().getService(ConfigService.class)).thenReturn(configService);
+        when(manager.find(CoreModule.NAME).provider().getService(NamingControl.class)).thenReturn(namingControl);
+        when(manager.find(CoreModule.NAME).provider().getService(SourceReceiver.class))
+            .thenReturn(mock(SourceReceiver.class));
+        when(manager.find(CoreModule.NAME).provider().getService(MeterSystem.class))
+            .thenReturn(mock(MeterSystem.class));
+
+        config = new LogAnalyzerModuleConfig();
+        Whitebox.setInternalState(config, "meterConfigs", Collections.emptyList());
+    }
+
+    @Test
+    public void testDefault() throws Exception {
+        assertSameResults(
+            "filter {\n  sink {\n  }\n}",
+            Collections.singletonList(LogData.newBuilder().setService("svc").build())
+        );
+    }
+
+    @Test
+    public void testText() throws Exception {
+        final String dsl = "filter {\n"
+            + "  text {\n"
+            + "    abortOnFailure false\n"
+            + "    regexp $/(?<timestamp>\\d{8,}) (?<level>\\w+) (?<svc>\\S+) (?<msg>.+)/$\n"
+            + "  }\n"
+            + "  if (parsed.level == 'DEBUG') {\n"
+            + "    abort {}\n"
+            + "  }\n"
+            + "  extractor {\n"
+            + "    service parsed.svc\n"
+            + "    instance \"${parsed.svc}-instance\"\n"
+            + "    endpoint log.endpoint ?: 'unknown'\n"
+            + "    timestamp parsed.timestamp\n"
+            + "    tag level: parsed.level, 'msg.length': parsed.msg?.length()\n"
+            + "    metrics {\n"
+            + "      timestamp log.timestamp\n"
+            + "      labels level: parsed.level, service: log.service\n"
+            + "      name 'log_count'\n"
+            + "      value 1\n"
+            + "    }\n"
+            + "  }\n"
+            + "  sink {\n"
+            + "    if (parsed.level == 'TRACE') {\n"
+            + "      dropper {}\n"
+            + "    } else {\n"
+            + "      sampler {\n"
+            + "        rateLimit(\"${log.service}:${parsed.level}\") {\n"
+            + "          qps 100\n"
+            + "        }\n"
+            + "      }\n"
+            + "    }\n"
+            + "  }\n"
+            + "}";
+        assertSameResults(dsl, Arrays.asList(
+            text("svc", "1609459200000 ERROR product failed to checkout"),
+            text("svc", "1609459200001 DEBUG product checkout"),
+            text("svc", "1609459200002 TRACE catalog listed"),
+            text("svc", "not matched")
+        ));
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        final String dsl = "filter {\n"
+            + "  json {\n"
+            + "  }\n"
+            + "  if (parsed?.response?.responseCode < 400 && !parsed?.commonProperties?.responseFlags) {\n"
+            + "    abort {}\n"
+            + "  }\n"
+            + "  extractor {\n"
+            + "    tag 'status.code': parsed?.response?.responseCode as int\n"
+            + "    tag 'response.flag': parsed?.commonProperties?.responseFlags?.keySet()\n"
+            + "    traceId parsed.traceId\n"
+            + "    spanId parsed.spanId as String\n"
+            + "  }\n"
+            + "  sink {\n"
+            + "    sampler {\n"
+            + "      if (parsed?.commonProperties?.responseFlags) {\n"
+            + "        rateLimit(\"${log.service}:${parsed?.commonProperties?.responseFlags?.keySet()}\") {\n"
+            + "          qps 100\n"
+            + "        }\n"
+            + "      } else {\n"
+            + "        rateLimit(\"${log.service}:${parsed?.response?.responseCode}\") {\n"
+            + "          qps 100\n"
+            + "        }\n"
+            + "      }\n"
+            + "    }\n"
+            + "  }\n"
+            + "}";
+        assertSameResults(dsl, Arrays.asList(
+            json("svc", "{\"response\":{\"responseCode\":200}}"),
+            json("svc", "{\"response\":{\"responseCode\":500},\"traceId\":\"t1\",\"spanId\":\"1\"}"),
+            json("svc", "{\"response\":{\"responseCode\":200},\"commonProperties\":{\"responseFlags\":{\"a\":true}}}"),
+            json("svc", "not json")
+        ));
+    }
+
+    @Test
+    public void testYaml() throws Exception {
+        final String dsl = "filter {\n"
+            + "  yaml {\n"
+            + "    abortOnFailure false\n"
+            + "  }\n"
+            + "  extractor {\n"
+            + "    service parsed.service as String\n"
+            + "    endpoint parsed['endpoint'] ?: log.endpoint\n"
+            + "    tag 'code': parsed.code != null ? parsed.code + 1 : -1\n"
+            + "  }\n"
+            + "  sink {\n"
+            + "    enforcer {}\n"
+            + "  }\n"
+            + "}";
+        assertSameResults(dsl, Arrays.asList(
+            yaml("svc", "service: product\nendpoint: /checkout\ncode: 1"),
+            yaml("svc", "service: catalog"),
+            yaml("svc", "[")
+        ));
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        final String dsl = "filter {\n"
+            + "  def service = log.service\n"
+            + "  extractor {\n"
+            + "    service service.toUpperCase()\n"
+            + "  }\n"
+            + "}";
+        assertThat(DSL.of(manager, config, dsl, true).isCompiled(), is(false));
+    }
+
+    private void assertSameResults(final String dsl, final List<LogData> logs) throws Exception {
+        final DSL compiled = DSL.of(manager, config, dsl, true);
+        final DSL script = DSL.of(manager, config, dsl, false);
+        assertThat(compiled.isCompiled(), is(true));
+        assertThat(script.isCompiled(), is(false));
+
+        for (final LogData log : logs) {
+            final Binding expected = new Binding().log(log);
+            script.bind(expected);
+            script.evaluate();
+
+            final Binding actual = new Binding().log(log);
+            compiled.bind(actual);
+            compiled.evaluate();
+
+            assertThat(actual.log().build(), is(expected.log().build()));
+            assertThat(actual.shouldAbort(), is(expected.shouldAbort()));
+            assertThat(actual.shouldSave(), is(expected.shouldSave()));
+        }
+    }
+
+    private static LogData text(final String service, final String text) {
+        return LogData.newBuilder().setService(service).setTimestamp(1)
+                      .setBody(LogDataBody.newBuilder().setText(TextLog.newBuilder().setText(text)))
+                      .build();
+    }
+
+    private static LogData json(final String service, final String json) {
+        return LogData.newBuilder().setService(service)
+                      .setBody(LogDataBody.newBuilder().setJson(JSONLog.newBuilder().setJson(json)))
+                      .build();
+    }
+
+    private static LogData yaml(final String service, final String yaml) {
+        return LogData.newBuilder().setService(service).setEndpoint("/default")
+                      .setBody(LogDataBody.newBuilder().setYaml(YAMLLog.newBuilder().setYaml(yaml)))
+                      .build();
+    }
+}
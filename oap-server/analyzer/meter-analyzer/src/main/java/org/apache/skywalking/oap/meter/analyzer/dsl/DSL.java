@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.meter.analyzer.dsl;
 import groovy.lang.Binding;
 import groovy.lang.GroovyShell;
 import groovy.util.DelegatingScript;
+import java.util.Optional;
 import org.apache.skywalking.oap.meter.analyzer.dsl.tagOpt.K8sRetagType;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
@@ -29,19 +30,37 @@ import org.codehaus.groovy.control.customizers.ImportCustomizer;
  * DSL combines methods to parse groovy based DSL expression.
  */
 public final class DSL {
+    /**
+     * The system property to switch the execution mode of the expressions. The expressions are compiled into Java
+     * operators by default, set it to false to run them as Groovy scripts.
+     */
+    public static final String COMPILE_PROPERTY = "mal.compile";
+
+    private static final boolean COMPILE = Boolean.parseBoolean(System.getProperty(COMPILE_PROPERTY, "true"));
 
     /**
-     * Parse string literal to Expression object, which can be reused.
+     * Parse string literal to Expression object, which can be reused. The expression is compiled by {@link
+     * ExpressionCompiler} if possible, otherwise, it runs as a Groovy script.
      *
      * @param expression string literal represents the DSL expression.
      * @return Expression object could be executed.
      */
     public static Expression parse(final String expression) {
+        return parse(expression, COMPILE);
+    }
+
+    static Expression parse(final String expression, final boolean compile) {
         CompilerConfiguration cc = new CompilerConfiguration();
         cc.setScriptBaseClass(DelegatingScript.class.getName());
         ImportCustomizer icz = new ImportCustomizer();
         icz.addImport("K8sRetagType", K8sRetagType.class.getName());
         cc.addCompilationCustomizers(icz);
+        if (compile) {
+            Optional<ExpressionCompiler.Operator> operator = ExpressionCompiler.compile(expression, cc);
+            if (operator.isPresent()) {
+                return new Expression(expression, operator.get());
+            }
+        }
         GroovyShell sh = new GroovyShell(new Binding(), cc);
         DelegatingScript script = (DelegatingScript) sh.parse(expression);
         return new Expression(expression, script);
@@ -38,14 +38,33 @@ public class Expression {
 
     private final DelegatingScript expression;
 
+    private final ExpressionCompiler.Operator operator;
+
     private final ThreadLocal<ImmutableMap<String, SampleFamily>> propertyRepository = new ThreadLocal<>();
 
     public Expression(final String literal, final DelegatingScript expression) {
         this.literal = literal;
         this.expression = expression;
+        this.operator = null;
         this.empower();
     }
 
+    /**
+     * Create an expression running the operators compiled by {@link ExpressionCompiler} rather than a Groovy script.
+     */
+    Expression(final String literal, final ExpressionCompiler.Operator operator) {
+        this.literal = literal;
+        this.expression = null;
+        this.operator = operator;
+    }
+
+    /**
+     * @return true if the expression runs the compiled operators, false if it runs as a Groovy script.
+     */
+    boolean isCompiled() {
+        return operator != null;
+    }
+
     /**
      * Parse the expression statically.
      *
@@ -72,9 +91,8 @@ public class Expression {
      * @return The result of execution.
      */
     public Result run(final ImmutableMap<String, SampleFamily> sampleFamilies) {
-        propertyRepository.set(sampleFamilies);
         try {
-            SampleFamily sf = (SampleFamily) expression.run();
+            SampleFamily sf = evaluate(sampleFamilies);
             if (sf == SampleFamily.EMPTY) {
                 if (!ExpressionParsingContext.get().isPresent()) {
                     if (log.isDebugEnabled()) {
@@ -87,11 +105,46 @@ public class Expression {
         } catch (Throwable t) {
             log.error("failed to run \"{}\"", literal, t);
             return Result.fail(t);
+        }
+    }
+
+    private SampleFamily evaluate(final ImmutableMap<String, SampleFamily> sampleFamilies) {
+        if (operator != null) {
+            return (SampleFamily) operator.apply(sampleFamilies);
+        }
+        propertyRepository.set(sampleFamilies);
+        try {
+            return (SampleFamily) expression.run();
         } finally {
             propertyRepository.remove();
         }
     }
 
+    /**
+     * Find the sample family referred by the expression, the name is recorded when parsing.
+     *
+     * @return the sample family, or {@link SampleFamily#EMPTY} if it doesn't exist.
+     */
+    static SampleFamily sampleFamily(final String literal,
+                                     final String metricName,
+                                     final ImmutableMap<String, SampleFamily> sampleFamilies) {
+        ExpressionParsingContext.get().ifPresent(ctx -> {
+            if (!ctx.samples.contains(metricName)) {
+                ctx.samples.add(metricName);
+            }
+        });
+        if (sampleFamilies == null) {
+            return SampleFamily.EMPTY;
+        }
+        if (sampleFamilies.containsKey(metricName)) {
+            return sampleFamilies.get(metricName);
+        }
+        if (!ExpressionParsingContext.get().isPresent()) {
+            log.warn("{} referred by \"{}\" doesn't exist in {}", metricName, literal, sampleFamilies.keySet());
+        }
+        return SampleFamily.EMPTY;
+    }
+
     private void empower() {
         expression.setDelegate(new ExpressionDelegate(literal, propertyRepository));
         extendNumber(Number.class);
@@ -117,22 +170,7 @@ public class Expression {
         private final ThreadLocal<ImmutableMap<String, SampleFamily>> propertyRepository;
 
         public SampleFamily propertyMissing(String metricName) {
-            ExpressionParsingContext.get().ifPresent(ctx -> {
-                if (!ctx.samples.contains(metricName)) {
-                    ctx.samples.add(metricName);
-                }
-            });
-            ImmutableMap<String, SampleFamily> sampleFamilies = propertyRepository.get();
-            if (sampleFamilies == null) {
-                return SampleFamily.EMPTY;
-            }
-            if (sampleFamilies.containsKey(metricName)) {
-                return sampleFamilies.get(metricName);
-            }
-            if (!ExpressionParsingContext.get().isPresent()) {
-                log.warn("{} referred by \"{}\" doesn't exist in {}", metricName, literal, sampleFamilies.keySet());
-            }
-            return SampleFamily.EMPTY;
+            return sampleFamily(literal, metricName, propertyRepository.get());
         }
 
         public Number time() {
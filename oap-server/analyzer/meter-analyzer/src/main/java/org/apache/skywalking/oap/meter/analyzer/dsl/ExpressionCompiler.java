@@ -0,0 +1,546 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Primitives;
+import groovy.lang.Binding;
+import groovy.lang.Closure;
+import groovy.lang.GroovyShell;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.meter.analyzer.dsl.tagOpt.K8sRetagType;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.ListExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.UnaryMinusExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.typehandling.NumberMath;
+import org.codehaus.groovy.syntax.Types;
+
+import static org.apache.skywalking.oap.meter.analyzer.dsl.Expression.sampleFamily;
+
+/**
+ * ExpressionCompiler compiles the MAL expression into a tree of {@link Operator}s, which call the methods of {@link
+ * SampleFamily} directly rather than dispatching them through the Groovy meta classes in every run. The expression is
+ * parsed by the Groovy parser, so the syntax and the results are the same as running it as a Groovy script.
+ *
+ * Only the constructs of MAL are supported: sample family references, number and string literals, lists, the
+ * arithmetic operators, the methods of {@link SampleFamily}, {@code time()} and the constants of {@link
+ * DownsamplingType} and {@link K8sRetagType}. The closures, such as the argument of {@link SampleFamily#tag(Closure)},
+ * are still compiled by Groovy. The compilation gives up on any other construct, then the expression should run as a
+ * Groovy script.
+ */
+@Slf4j
+@RequiredArgsConstructor
+final class ExpressionCompiler {
+    private static final ImmutableMap<String, Object> CONSTANTS = ImmutableMap.of(
+        "AVG", DownsamplingType.AVG,
+        "SUM", DownsamplingType.SUM,
+        "LATEST", DownsamplingType.LATEST
+    );
+
+    private final String literal;
+
+    private final CompilerConfiguration configuration;
+
+    /**
+     * Operator evaluates a node of the compiled expression.
+     */
+    @FunctionalInterface
+    interface Operator {
+        Object apply(ImmutableMap<String, SampleFamily> sampleFamilies);
+    }
+
+    /**
+     * Compile the expression literal.
+     *
+     * @param literal       string literal represents the DSL expression.
+     * @param configuration the configuration of the Groovy compiler, which is used to parse the expression and compile
+     *                      the closures.
+     * @return the root operator, or empty if the expression includes the constructs not supported by the compiler.
+     */
+    static Optional<Operator> compile(final String literal, final CompilerConfiguration configuration) {
+        try {
+            return Optional.of(new ExpressionCompiler(literal, configuration).compile());
+        } catch (UnsupportedExpressionException | CompilationFailedException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("\"{}\" isn't compiled, fallback to groovy script: {}", literal, e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+
+    private Operator compile() {
+        CompilationUnit unit = new CompilationUnit(configuration);
+        unit.addSource("MeterExpression.groovy", literal);
+        unit.compile(Phases.CONVERSION);
+        ModuleNode module = unit.getAST().getModules().get(0);
+        List<Statement> statements = module.getStatementBlock().getStatements();
+        if (!module.getMethods().isEmpty() || !module.getClasses().stream().allMatch(ClassNode::isScript)
+            || statements.size() != 1 || !(statements.get(0) instanceof ExpressionStatement)) {
+            throw new UnsupportedExpressionException("only a single expression is supported");
+        }
+        Term root = compile(((ExpressionStatement) statements.get(0)).getExpression());
+        if (!isSampleFamily(root)) {
+            throw new UnsupportedExpressionException("the result isn't a sample family");
+        }
+        return root.operator;
+    }
+
+    private Term compile(final Expression expression) {
+        if (expression instanceof ConstantExpression) {
+            return constant(((ConstantExpression) expression).getValue());
+        }
+        if (expression instanceof ListExpression) {
+            List<Object> list = new ArrayList<>();
+            for (final Expression element : ((ListExpression) expression).getExpressions()) {
+                Term term = compile(element);
+                if (!term.constant) {
+                    throw new UnsupportedExpressionException("list element should be a constant: " + element.getText());
+                }
+                list.add(term.value);
+            }
+            return constant(Collections.unmodifiableList(list));
+        }
+        if (expression instanceof VariableExpression) {
+            return variable((VariableExpression) expression);
+        }
+        if (expression instanceof PropertyExpression) {
+            return property((PropertyExpression) expression);
+        }
+        if (expression instanceof BinaryExpression) {
+            return binary((BinaryExpression) expression);
+        }
+        if (expression instanceof UnaryMinusExpression) {
+            return negative(compile(((UnaryMinusExpression) expression).getExpression()));
+        }
+        if (expression instanceof MethodCallExpression) {
+            return methodCall((MethodCallExpression) expression);
+        }
+        if (expression instanceof ClosureExpression) {
+            return constant(closure((ClosureExpression) expression));
+        }
+        throw new UnsupportedExpressionException(expression.getText());
+    }
+
+    private Term variable(final VariableExpression expression) {
+        final String name = expression.getName();
+        if (CONSTANTS.containsKey(name)) {
+            return constant(CONSTANTS.get(name));
+        }
+        if (expression.isThisExpression() || expression.isSuperExpression()) {
+            throw new UnsupportedExpressionException(name);
+        }
+        return new Term(SampleFamily.class, sampleFamilies -> sampleFamily(literal, name, sampleFamilies));
+    }
+
+    private Term property(final PropertyExpression expression) {
+        if (expression.isSafe() || expression.isSpreadSafe()
+            || !(expression.getObjectExpression() instanceof VariableExpression)
+            || !K8sRetagType.class.getSimpleName().equals(expression.getObjectExpression().getText())) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        return Arrays.stream(K8sRetagType.values())
+                     .filter(type -> type.name().equals(expression.getPropertyAsString()))
+                     .findFirst()
+                     .map(this::constant)
+                     .orElseThrow(() -> new UnsupportedExpressionException(expression.getText()));
+    }
+
+    private Term binary(final BinaryExpression expression) {
+        if (expression.getOperation().getType() == Types.ASSIGN
+            && expression.getLeftExpression() instanceof VariableExpression) {
+            // Named argument in the style of Groovy, such as sum(by = ['service']), its value is the right side.
+            return compile(expression.getRightExpression());
+        }
+        final Term left = compile(expression.getLeftExpression());
+        final Term right = compile(expression.getRightExpression());
+        final BinaryOperator<Object> fn;
+        final Class<?> type;
+        if (isSampleFamily(left) && isSampleFamily(right)) {
+            fn = familyAndFamily(expression);
+            type = SampleFamily.class;
+        } else if (isSampleFamily(left) && isNumber(right)) {
+            fn = familyAndNumber(expression);
+            type = SampleFamily.class;
+        } else if (isNumber(left) && isSampleFamily(right)) {
+            fn = numberAndFamily(expression);
+            type = SampleFamily.class;
+        } else if (isNumber(left) && isNumber(right)) {
+            fn = numberAndNumber(expression);
+            type = Number.class;
+        } else {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        if (left.constant && right.constant) {
+            return constant(fn.apply(left.value, right.value));
+        }
+        final Operator l = left.operator;
+        final Operator r = right.operator;
+        return new Term(type, sampleFamilies -> fn.apply(l.apply(sampleFamilies), r.apply(sampleFamilies)));
+    }
+
+    private BinaryOperator<Object> familyAndFamily(final BinaryExpression expression) {
+        switch (expression.getOperation().getType()) {
+            case Types.PLUS:
+                return (l, r) -> ((SampleFamily) l).plus((SampleFamily) r);
+            case Types.MINUS:
+                return (l, r) -> ((SampleFamily) l).minus((SampleFamily) r);
+            case Types.MULTIPLY:
+                return (l, r) -> ((SampleFamily) l).multiply((SampleFamily) r);
+            case Types.DIVIDE:
+                return (l, r) -> ((SampleFamily) l).div((SampleFamily) r);
+            default:
+                throw new UnsupportedExpressionException(expression.getText());
+        }
+    }
+
+    private BinaryOperator<Object> familyAndNumber(final BinaryExpression expression) {
+        switch (expression.getOperation().getType()) {
+            case Types.PLUS:
+                return (l, r) -> ((SampleFamily) l).plus((Number) r);
+            case Types.MINUS:
+                return (l, r) -> ((SampleFamily) l).minus((Number) r);
+            case Types.MULTIPLY:
+                return (l, r) -> ((SampleFamily) l).multiply((Number) r);
+            case Types.DIVIDE:
+                return (l, r) -> ((SampleFamily) l).div((Number) r);
+            default:
+                throw new UnsupportedExpressionException(expression.getText());
+        }
+    }
+
+    /**
+     * The same as the extensions of {@link Number} registered for the Groovy script.
+     */
+    private BinaryOperator<Object> numberAndFamily(final BinaryExpression expression) {
+        switch (expression.getOperation().getType()) {
+            case Types.PLUS:
+                return (l, r) -> ((SampleFamily) r).plus((Number) l);
+            case Types.MINUS:
+                return (l, r) -> ((SampleFamily) r).minus((Number) l).negative();
+            case Types.MULTIPLY:
+                return (l, r) -> ((SampleFamily) r).multiply((Number) l);
+            case Types.DIVIDE:
+                return (l, r) -> ((SampleFamily) r).newValue(v -> ((Number) l).doubleValue() / v);
+            default:
+                throw new UnsupportedExpressionException(expression.getText());
+        }
+    }
+
+    private BinaryOperator<Object> numberAndNumber(final BinaryExpression expression) {
+        switch (expression.getOperation().getType()) {
+            case Types.PLUS:
+                return (l, r) -> NumberMath.add((Number) l, (Number) r);
+            case Types.MINUS:
+                return (l, r) -> NumberMath.subtract((Number) l, (Number) r);
+            case Types.MULTIPLY:
+                return (l, r) -> NumberMath.multiply((Number) l, (Number) r);
+            case Types.DIVIDE:
+                return (l, r) -> NumberMath.divide((Number) l, (Number) r);
+            default:
+                throw new UnsupportedExpressionException(expression.getText());
+        }
+    }
+
+    private Term negative(final Term term) {
+        if (isSampleFamily(term)) {
+            final Operator operator = term.operator;
+            return new Term(SampleFamily.class, sampleFamilies -> ((SampleFamily) operator.apply(sampleFamilies)).negative());
+        }
+        if (!isNumber(term)) {
+            throw new UnsupportedExpressionException("negative of " + term.type.getName());
+        }
+        if (term.constant) {
+            return constant(InvokerHelper.unaryMinus(term.value));
+        }
+        final Operator operator = term.operator;
+        return new Term(Number.class, sampleFamilies -> InvokerHelper.unaryMinus(operator.apply(sampleFamilies)));
+    }
+
+    private Term methodCall(final MethodCallExpression expression) {
+        final String name = expression.getMethodAsString();
+        if (name == null || expression.isSafe() || expression.isSpreadSafe()
+            || !(expression.getArguments() instanceof ArgumentListExpression)) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        final List<Expression> arguments = ((ArgumentListExpression) expression.getArguments()).getExpressions();
+        if (expression.isImplicitThis()) {
+            if ("time".equals(name) && arguments.isEmpty()) {
+                return new Term(Long.class, sampleFamilies -> Instant.now().getEpochSecond());
+            }
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        final Term receiver = compile(expression.getObjectExpression());
+        if (!isSampleFamily(receiver)) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        final List<Term> args = new ArrayList<>(arguments.size());
+        for (final Expression argument : arguments) {
+            args.add(compile(argument));
+        }
+
+        Method method = null;
+        Operator[] parameters = null;
+        int priority = Integer.MAX_VALUE;
+        boolean ambiguous = false;
+        for (final Method candidate : SampleFamily.class.getMethods()) {
+            if (candidate.getDeclaringClass() != SampleFamily.class || Modifier.isStatic(candidate.getModifiers())
+                || !candidate.getName().equals(name)) {
+                continue;
+            }
+            for (int p = 0; p <= Math.min(priority, 2); p++) {
+                final Operator[] adapted = parameters(candidate.getParameterTypes(), args, p);
+                if (adapted == null) {
+                    continue;
+                }
+                ambiguous = p == priority;
+                if (p < priority) {
+                    method = candidate;
+                    parameters = adapted;
+                    priority = p;
+                }
+                break;
+            }
+        }
+        if (method == null || ambiguous) {
+            throw new UnsupportedExpressionException("no unique method matches " + expression.getText());
+        }
+        return invocation(receiver.operator, method, parameters);
+    }
+
+    /**
+     * Adapt the arguments to the parameters of the method as Groovy does.
+     *
+     * @param priority 0, the arguments match the parameters one by one. 1, the tailing arguments match the array
+     *                 parameter. 2, no argument is given to the single parameter, which receives null.
+     * @return the operators evaluating the parameters, or null if the arguments don't match.
+     */
+    private Operator[] parameters(final Class<?>[] types, final List<Term> args, final int priority) {
+        final int count = types.length;
+        switch (priority) {
+            case 0:
+                if (args.size() != count) {
+                    return null;
+                }
+                final Operator[] parameters = new Operator[count];
+                for (int i = 0; i < count; i++) {
+                    if ((parameters[i] = parameter(types[i], args.get(i))) == null) {
+                        return null;
+                    }
+                }
+                return parameters;
+            case 1:
+                if (count == 0 || !types[count - 1].isArray() || args.size() < count - 1) {
+                    return null;
+                }
+                final Operator[] fixed = parameters(
+                    Arrays.copyOf(types, count - 1), args.subList(0, count - 1), 0);
+                final Operator array = array(types[count - 1].getComponentType(), args.subList(count - 1, args.size()));
+                if (fixed == null || array == null) {
+                    return null;
+                }
+                final Operator[] varargs = Arrays.copyOf(fixed, count);
+                varargs[count - 1] = array;
+                return varargs;
+            case 2:
+                if (!args.isEmpty() || count != 1 || types[0].isPrimitive()) {
+                    return null;
+                }
+                return new Operator[] {sampleFamilies -> null};
+            default:
+                return null;
+        }
+    }
+
+    private Operator array(final Class<?> componentType, final List<Term> elements) {
+        final Operator[] operators = new Operator[elements.size()];
+        boolean constant = true;
+        for (int i = 0; i < operators.length; i++) {
+            if ((operators[i] = parameter(componentType, elements.get(i))) == null) {
+                return null;
+            }
+            constant &= elements.get(i).constant;
+        }
+        final Operator array = sampleFamilies -> {
+            Object values = Array.newInstance(componentType, operators.length);
+            for (int i = 0; i < operators.length; i++) {
+                Array.set(values, i, operators[i].apply(sampleFamilies));
+            }
+            return values;
+        };
+        if (constant) {
+            final Object values = array.apply(ImmutableMap.of());
+            return sampleFamilies -> values;
+        }
+        return array;
+    }
+
+    private Operator parameter(final Class<?> type, final Term arg) {
+        final Operator operator;
+        if (arg.constant && arg.value == null) {
+            operator = type.isPrimitive() ? null : arg.operator;
+        } else if (type.isPrimitive() && isNumber(arg)) {
+            final Function<Number, Object> cast = numberCast(type);
+            final Operator value = arg.operator;
+            operator = cast == null ? null : sampleFamilies -> cast.apply((Number) value.apply(sampleFamilies));
+        } else {
+            operator = Primitives.wrap(type).isAssignableFrom(arg.type) ? arg.operator : null;
+        }
+        if (operator == null || !arg.constant) {
+            return operator;
+        }
+        final Object value = operator.apply(ImmutableMap.of());
+        return sampleFamilies -> value;
+    }
+
+    private static Function<Number, Object> numberCast(final Class<?> type) {
+        if (type == double.class) {
+            return Number::doubleValue;
+        }
+        if (type == long.class) {
+            return Number::longValue;
+        }
+        if (type == int.class) {
+            return Number::intValue;
+        }
+        if (type == float.class) {
+            return Number::floatValue;
+        }
+        return null;
+    }
+
+    private static Term invocation(final Operator receiver, final Method method, final Operator[] parameters) {
+        return new Term(method.getReturnType(), sampleFamilies -> {
+            final Object target = receiver.apply(sampleFamilies);
+            final Object[] args = new Object[parameters.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = parameters[i].apply(sampleFamilies);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new IllegalStateException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private Closure<?> closure(final ClosureExpression expression) {
+        final Object closure = new GroovyShell(new Binding(), configuration).evaluate("return " + source(expression));
+        if (!(closure instanceof Closure)) {
+            throw new UnsupportedExpressionException(expression.getText());
+        }
+        return (Closure<?>) closure;
+    }
+
+    /**
+     * @return the source code of the node in the literal.
+     */
+    private String source(final ASTNode node) {
+        if (node.getLineNumber() < 1 || node.getLastLineNumber() < node.getLineNumber()) {
+            throw new UnsupportedExpressionException("unknown position of " + node.getText());
+        }
+        return literal.substring(
+            offset(node.getLineNumber(), node.getColumnNumber()),
+            offset(node.getLastLineNumber(), node.getLastColumnNumber())
+        );
+    }
+
+    private int offset(final int line, final int column) {
+        int offset = 0;
+        for (int l = 1; l < line; l++) {
+            offset = literal.indexOf('\n', offset) + 1;
+        }
+        return offset + column - 1;
+    }
+
+    private Term constant(final Object value) {
+        return new Term(value == null ? Object.class : value.getClass(), value);
+    }
+
+    private static boolean isSampleFamily(final Term term) {
+        return SampleFamily.class.isAssignableFrom(term.type);
+    }
+
+    private static boolean isNumber(final Term term) {
+        return Number.class.isAssignableFrom(term.type);
+    }
+
+    /**
+     * Term is a compiled node with its static type.
+     */
+    private static class Term {
+        private final Class<?> type;
+        private final Operator operator;
+        private final boolean constant;
+        private final Object value;
+
+        private Term(final Class<?> type, final Operator operator) {
+            this.type = type;
+            this.operator = operator;
+            this.constant = false;
+            this.value = null;
+        }
+
+        private Term(final Class<?> type, final Object value) {
+            this.type = type;
+            this.operator = sampleFamilies -> value;
+            this.constant = true;
+            this.value = value;
+        }
+    }
+
+    private static class UnsupportedExpressionException extends RuntimeException {
+        private UnsupportedExpressionException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -22,7 +22,7 @@ import com.google.common.collect.ImmutableMap;
 import io.vavr.Function2;
 import io.vavr.Tuple2;
 import java.time.Duration;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -42,8 +42,8 @@ public class Sample {
     final double value;
     final long timestamp;
 
-    Sample newValue(Function<Double, Double> transform) {
-        return toBuilder().value(transform.apply(value)).build();
+    Sample newValue(DoubleUnaryOperator transform) {
+        return new Sample(name, labels, transform.applyAsDouble(value), timestamp);
     }
 
     Sample increase(String range, Function2<Double, Long, Double> transform) {
@@ -23,10 +23,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.google.common.util.concurrent.AtomicDouble;
 import groovy.lang.Closure;
-import io.vavr.Function2;
-import io.vavr.Function3;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -43,6 +40,7 @@ import org.apache.skywalking.oap.server.core.UnexpectedException;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterEntity;
 import org.apache.skywalking.oap.server.core.analysis.meter.ScopeType;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -51,17 +49,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
 import java.util.function.DoubleBinaryOperator;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
-import static java.util.function.UnaryOperator.identity;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.mapping;
-import static java.util.stream.Collectors.toList;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Predicate;
 
 /**
  * SampleFamily represents a collection of {@link Sample}.
@@ -105,44 +96,48 @@ public class SampleFamily {
 
     /* value filter operations*/
     public SampleFamily valueEqual(double compValue) {
-        return valueMatch(CompType.EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.EQUAL, compValue);
     }
 
     public SampleFamily valueNotEqual(double compValue) {
-        return valueMatch(CompType.NOT_EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.NOT_EQUAL, compValue);
     }
 
     public SampleFamily valueGreater(double compValue) {
-        return valueMatch(CompType.GREATER, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.GREATER, compValue);
     }
 
     public SampleFamily valueGreaterEqual(double compValue) {
-        return valueMatch(CompType.GREATER_EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.GREATER_EQUAL, compValue);
     }
 
     public SampleFamily valueLess(double compValue) {
-        return valueMatch(CompType.LESS, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.LESS, compValue);
     }
 
     public SampleFamily valueLessEqual(double compValue) {
-        return valueMatch(CompType.LESS_EQUAL, compValue, InternalOps::doubleComp);
+        return valueMatch(CompType.LESS_EQUAL, compValue);
     }
 
     /* Binary operator overloading*/
     public SampleFamily plus(Number number) {
-        return newValue(v -> v + number.doubleValue());
+        final double n = number.doubleValue();
+        return newValue(v -> v + n);
     }
 
     public SampleFamily minus(Number number) {
-        return newValue(v -> v - number.doubleValue());
+        final double n = number.doubleValue();
+        return newValue(v -> v - n);
     }
 
     public SampleFamily multiply(Number number) {
-        return newValue(v -> v * number.doubleValue());
+        final double n = number.doubleValue();
+        return newValue(v -> v * n);
     }
 
     public SampleFamily div(Number number) {
-        return newValue(v -> v / number.doubleValue());
+        final double n = number.doubleValue();
+        return newValue(v -> v / n);
     }
 
     public SampleFamily negative() {
@@ -210,24 +205,7 @@ public class SampleFamily {
         if (this == EMPTY) {
             return EMPTY;
         }
-        if (by == null) {
-            double result = Arrays.stream(samples).mapToDouble(Sample::getValue).average().orElse(0.0D);
-            return SampleFamily.build(this.context, InternalOps.newSample(samples[0].name, ImmutableMap.of(), samples[0].timestamp, result));
-        }
-
-        return SampleFamily.build(
-            this.context,
-            Arrays.stream(samples)
-                  .collect(groupingBy(it -> InternalOps.getLabels(by, it), mapping(identity(), toList())))
-                  .entrySet().stream()
-                  .map(entry -> InternalOps.newSample(
-                      entry.getValue().get(0).getName(),
-                      entry.getKey(),
-                      entry.getValue().get(0).getTimestamp(),
-                      entry.getValue().stream().mapToDouble(Sample::getValue).average().orElse(0.0D)
-                  ))
-                  .toArray(Sample[]::new)
-        );
+        return reduce(by, Double::sum, true);
     }
 
     protected SampleFamily aggregate(List<String> by, DoubleBinaryOperator aggregator) {
@@ -235,23 +213,47 @@ public class SampleFamily {
         if (this == EMPTY) {
             return EMPTY;
         }
+        return reduce(by, aggregator, false);
+    }
+
+    /**
+     * Reduce the values of the samples in each group of the given labels, the labels of the result are the grouping
+     * ones. The samples are grouped in one pass, without building the label maps of the samples.
+     */
+    private SampleFamily reduce(List<String> by, DoubleBinaryOperator aggregator, boolean average) {
         if (by == null) {
-            double result = Arrays.stream(samples).mapToDouble(s -> s.value).reduce(aggregator).orElse(0.0D);
-            return SampleFamily.build(this.context, InternalOps.newSample(samples[0].name, ImmutableMap.of(), samples[0].timestamp, result));
+            double result = samples[0].value;
+            for (int i = 1; i < samples.length; i++) {
+                result = aggregator.applyAsDouble(result, samples[i].value);
+            }
+            return SampleFamily.build(this.context, InternalOps.newSample(
+                samples[0].name, ImmutableMap.of(), samples[0].timestamp, average ? result / samples.length : result));
+        }
+
+        final String[] keys = by.toArray(new String[0]);
+        final Map<LabelValues, Reduction> groups = new HashMap<>();
+        for (final Sample sample : samples) {
+            final LabelValues group = new LabelValues(keys, sample.labels);
+            final Reduction reduction = groups.get(group);
+            if (reduction == null) {
+                groups.put(group, new Reduction(sample));
+            } else {
+                reduction.value = aggregator.applyAsDouble(reduction.value, sample.value);
+                reduction.count++;
+            }
         }
-        return SampleFamily.build(
-            this.context,
-            Arrays.stream(samples)
-                  .collect(groupingBy(it -> InternalOps.getLabels(by, it), mapping(identity(), toList())))
-                  .entrySet().stream()
-                  .map(entry -> InternalOps.newSample(
-                      entry.getValue().get(0).getName(),
-                      entry.getKey(),
-                      entry.getValue().get(0).getTimestamp(),
-                      entry.getValue().stream().mapToDouble(Sample::getValue).reduce(aggregator).orElse(0.0D)
-                  ))
-                  .toArray(Sample[]::new)
-        );
+        final Sample[] ss = new Sample[groups.size()];
+        int i = 0;
+        for (final Map.Entry<LabelValues, Reduction> group : groups.entrySet()) {
+            final Reduction reduction = group.getValue();
+            ss[i++] = InternalOps.newSample(
+                reduction.first.name,
+                group.getKey().toLabels(),
+                reduction.first.timestamp,
+                average ? reduction.value / reduction.count : reduction.value
+            );
+        }
+        return SampleFamily.build(this.context, ss);
     }
 
     /* Function */
@@ -341,26 +343,32 @@ public class SampleFamily {
         if (this == EMPTY) {
             return EMPTY;
         }
-        AtomicDouble pre = new AtomicDouble();
-        AtomicReference<String> preLe = new AtomicReference<>("0");
-        return SampleFamily.build(
-            this.context,
-            Stream.concat(
-                Arrays.stream(samples).filter(s -> !s.labels.containsKey(le)),
-                Arrays.stream(samples)
-                      .filter(s -> s.labels.containsKey(le))
-                      .sorted(Comparator.comparingDouble(s -> Double.parseDouble(s.labels.get(le))))
-                      .map(s -> {
-                          double r = this.context.histogramType == HistogramType.ORDINARY ? s.value : s.value - pre.get();
-                          pre.set(s.value);
-                          ImmutableMap<String, String> ll = ImmutableMap.<String, String>builder()
-                              .putAll(Maps.filterKeys(s.labels, key -> !Objects.equals(key, le)))
-                              .put("le", String.valueOf((long) ((Double.parseDouble(this.context.histogramType == HistogramType.ORDINARY ? s.labels.get(le) : preLe.get())) * scale))).build();
-                          preLe.set(s.labels.get(le));
-                          return InternalOps.newSample(s.name, ll, s.timestamp, r);
-                      })
-            ).toArray(Sample[]::new)
-        );
+        final boolean ordinary = this.context.histogramType == HistogramType.ORDINARY;
+        final Sample[] ss = new Sample[samples.length];
+        int size = 0;
+        final List<Bucket> buckets = new ArrayList<>(samples.length);
+        for (final Sample sample : samples) {
+            final String bound = sample.labels.get(le);
+            if (bound == null) {
+                ss[size++] = sample;
+            } else {
+                buckets.add(new Bucket(Double.parseDouble(bound), sample));
+            }
+        }
+        buckets.sort(Comparator.comparingDouble(bucket -> bucket.le));
+        double pre = 0;
+        double preLe = 0;
+        for (final Bucket bucket : buckets) {
+            final Sample s = bucket.sample;
+            double r = ordinary ? s.value : s.value - pre;
+            pre = s.value;
+            ImmutableMap<String, String> ll = ImmutableMap.<String, String>builder()
+                .putAll(Maps.filterKeys(s.labels, key -> !Objects.equals(key, le)))
+                .put("le", String.valueOf((long) ((ordinary ? bucket.le : preLe) * scale))).build();
+            preLe = bucket.le;
+            ss[size++] = InternalOps.newSample(s.name, ll, s.timestamp, r);
+        }
+        return SampleFamily.build(this.context, ss);
     }
 
     public SampleFamily histogram_percentile(List<Integer> percentiles) {
@@ -416,42 +424,62 @@ public class SampleFamily {
     }
 
     private SampleFamily createMeterSamples(EntityDescription entityDescription) {
+        final String[] keys = entityDescription.getLabelKeys().toArray(new String[0]);
+        final Map<LabelValues, List<Sample>> groups = new HashMap<>();
+        for (final Sample sample : samples) {
+            groups.computeIfAbsent(new LabelValues(keys, sample.labels), ignored -> new ArrayList<>()).add(sample);
+        }
         Map<MeterEntity, Sample[]> meterSamples = new HashMap<>();
-        Arrays.stream(samples)
-              .collect(groupingBy(it -> InternalOps.getLabels(entityDescription.getLabelKeys(), it), mapping(identity(), toList())))
-              .forEach((labels, samples) -> {
-                  MeterEntity meterEntity = InternalOps.buildMeterEntity(samples, entityDescription);
-                  meterSamples.put(meterEntity, InternalOps.left(samples, entityDescription.getLabelKeys()));
-              });
+        groups.values().forEach(samples -> {
+            MeterEntity meterEntity = InternalOps.buildMeterEntity(samples, entityDescription);
+            meterSamples.put(meterEntity, InternalOps.left(samples, entityDescription.getLabelKeys()));
+        });
 
         this.context.setMeterSamples(meterSamples);
         //This samples is original, The grouped samples is in context which mapping with MeterEntity
         return SampleFamily.build(this.context, samples);
     }
 
-    private SampleFamily match(String[] labels, Function2<String, String, Boolean> op) {
+    private SampleFamily match(String[] labels, BiPredicate<String, String> op) {
         Preconditions.checkArgument(labels.length % 2 == 0);
         Map<String, String> ll = new HashMap<>(labels.length / 2);
         for (int i = 0; i < labels.length; i += 2) {
             ll.put(labels[i], labels[i + 1]);
         }
-        Sample[] ss = Arrays.stream(samples)
-                            .filter(sample -> ll.entrySet()
-                                                .stream()
-                                                .allMatch(entry -> op.apply(sample.labels.getOrDefault(entry.getKey(), ""), entry.getValue())))
-                            .toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+        final String[] keys = ll.keySet().toArray(new String[0]);
+        final String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = ll.get(keys[i]);
+        }
+        return filter(sample -> {
+            for (int i = 0; i < keys.length; i++) {
+                if (!op.test(sample.labels.getOrDefault(keys[i], ""), values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        });
     }
 
-    private SampleFamily valueMatch(CompType compType,
-                                    double compValue,
-                                    Function3<CompType, Double, Double, Boolean> op) {
-        Sample[] ss = Arrays.stream(samples)
-                            .filter(sample -> op.apply(compType, sample.value, compValue)).toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+    private SampleFamily valueMatch(CompType compType, double compValue) {
+        return filter(sample -> InternalOps.doubleComp(compType, sample.value, compValue));
     }
 
-    SampleFamily newValue(Function<Double, Double> transform) {
+    private SampleFamily filter(Predicate<Sample> predicate) {
+        Sample[] ss = new Sample[samples.length];
+        int size = 0;
+        for (final Sample sample : samples) {
+            if (predicate.test(sample)) {
+                ss[size++] = sample;
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return SampleFamily.build(this.context, size == ss.length ? ss : Arrays.copyOf(ss, size));
+    }
+
+    SampleFamily newValue(DoubleUnaryOperator transform) {
         if (this == EMPTY) {
             return EMPTY;
         }
@@ -462,15 +490,27 @@ public class SampleFamily {
         return SampleFamily.build(this.context, ss);
     }
 
-    private SampleFamily newValue(SampleFamily another, Function2<Double, Double, Double> transform) {
-        Sample[] ss = Arrays.stream(samples)
-                            .flatMap(cs -> io.vavr.collection.Stream.of(another.samples)
-                                                                    .find(as -> cs.labels.equals(as.labels))
-                                                                    .map(as -> cs.toBuilder().value(transform.apply(cs.value, as.value)))
-                                                                    .map(Sample.SampleBuilder::build)
-                                                                    .toJavaStream())
-                            .toArray(Sample[]::new);
-        return ss.length > 0 ? SampleFamily.build(this.context, ss) : EMPTY;
+    /**
+     * Calculate the values of the samples with the ones having the same labels in another family, the samples without
+     * the counterpart are dropped.
+     */
+    private SampleFamily newValue(SampleFamily another, DoubleBinaryOperator transform) {
+        Map<ImmutableMap<String, String>, Sample> index = Maps.newHashMapWithExpectedSize(another.samples.length);
+        for (final Sample sample : another.samples) {
+            index.putIfAbsent(sample.labels, sample);
+        }
+        Sample[] ss = new Sample[samples.length];
+        int size = 0;
+        for (final Sample cs : samples) {
+            final Sample as = index.get(cs.labels);
+            if (as != null) {
+                ss[size++] = InternalOps.newSample(cs.name, cs.labels, cs.timestamp, transform.applyAsDouble(cs.value, as.value));
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return SampleFamily.build(this.context, size == ss.length ? ss : Arrays.copyOf(ss, size));
     }
 
     public SampleFamily downsampling(final DownsamplingType type) {
@@ -507,18 +547,28 @@ public class SampleFamily {
     private static class InternalOps {
 
         private static Sample[] left(List<Sample> samples, List<String> labelKeys) {
-            return samples.stream().map(s -> {
-                ImmutableMap<String, String> ll = ImmutableMap.<String, String>builder()
-                    .putAll(Maps.filterKeys(s.labels, key -> !labelKeys.contains(key)))
-                    .build();
-                return s.toBuilder().labels(ll).build();
-            }).toArray(Sample[]::new);
+            Sample[] ss = new Sample[samples.size()];
+            for (int i = 0; i < ss.length; i++) {
+                Sample s = samples.get(i);
+                ImmutableMap.Builder<String, String> ll = ImmutableMap.builder();
+                for (final Map.Entry<String, String> label : s.labels.entrySet()) {
+                    if (!labelKeys.contains(label.getKey())) {
+                        ll.put(label);
+                    }
+                }
+                ss[i] = newSample(s.name, ll.build(), s.timestamp, s.value);
+            }
+            return ss;
         }
 
         private static String dim(List<Sample> samples, List<String> labelKeys) {
-            String name = labelKeys.stream()
-                                   .map(k -> samples.get(0).labels.getOrDefault(k, ""))
-                                   .collect(Collectors.joining("."));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < labelKeys.size(); i++) {
+                if (i > 0) {
+                    name.append('.');
+                }
+                name.append(samples.get(0).labels.getOrDefault(labelKeys.get(i), ""));
+            }
             return CharMatcher.is('.').trimFrom(name);
         }
 
@@ -542,12 +592,7 @@ public class SampleFamily {
         }
 
         private static Sample newSample(String name, ImmutableMap<String, String> labels, long timestamp, double newValue) {
-            return Sample.builder()
-                         .value(newValue)
-                         .labels(labels)
-                         .timestamp(timestamp)
-                         .name(name)
-                         .build();
+            return new Sample(name, labels, newValue, timestamp);
         }
 
         private static boolean stringComp(String a, String b) {
@@ -579,14 +624,62 @@ public class SampleFamily {
 
             return false;
         }
+    }
+
+    /**
+     * LabelValues is the values of the given label keys in a sample, the samples are grouped by it. The hash code is
+     * the same as the map of these labels, so the groups are iterated in the same order as grouping by the label maps.
+     */
+    private static final class LabelValues {
+        private final String[] keys;
+        private final String[] values;
+        private final int hash;
+
+        private LabelValues(String[] keys, Map<String, String> labels) {
+            this.keys = keys;
+            this.values = new String[keys.length];
+            int h = 0;
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = labels.getOrDefault(keys[i], "");
+                h += keys[i].hashCode() ^ values[i].hashCode();
+            }
+            this.hash = h;
+        }
+
+        private ImmutableMap<String, String> toLabels() {
+            ImmutableMap.Builder<String, String> labels = ImmutableMap.builder();
+            for (int i = 0; i < keys.length; i++) {
+                labels.put(keys[i], values[i]);
+            }
+            return labels.build();
+        }
 
-        private static ImmutableMap<String, String> getLabels(final List<String> labelKeys, final Sample sample) {
-            return labelKeys.stream()
-                            .collect(toImmutableMap(
-                                Function.identity(),
-                                labelKey -> sample.labels.getOrDefault(labelKey, "")
-                            ));
+        @Override
+        public boolean equals(final Object o) {
+            return this == o || o instanceof LabelValues && Arrays.equals(values, ((LabelValues) o).values);
         }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Reduction {
+        private final Sample first;
+        private double value;
+        private int count = 1;
+
+        private Reduction(Sample first) {
+            this.first = first;
+            this.value = first.value;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Bucket {
+        private final double le;
+        private final Sample sample;
     }
 
     private enum CompType {
@@ -19,46 +19,174 @@
 package org.apache.skywalking.oap.meter.analyzer.dsl.counter;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
-import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
 /**
  * CounterWindow stores a series of counter samples in order to calculate the increase
  * or instant rate of increase.
  *
+ * The windows of the series are hosted in a concurrent map, each of them is a ring buffer of the primitive timestamps
+ * and values, which is locked while a sample is added. The series not reported longer than the TTL are evicted. Once
+ * the number of series reaches the max, the new series are not tracked, their increase is 0 until some series are
+ * evicted.
  */
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-@ToString
-@EqualsAndHashCode
+@Slf4j
 public class CounterWindow {
 
-    public static final CounterWindow INSTANCE = new CounterWindow();
+    private static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(30);
 
-    private final Map<ID, Queue<Tuple2<Long, Double>>> windows = Maps.newHashMap();
+    private static final int DEFAULT_MAX_SERIES = 1_000_000;
+
+    private static final long MAX_EVICTION_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    public static final CounterWindow INSTANCE = new CounterWindow(System::currentTimeMillis);
+
+    private final Map<ID, Window> windows = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+
+    private final AtomicLong nextEviction = new AtomicLong();
+
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private volatile long ttl = DEFAULT_TTL;
+
+    private volatile int maxSeries = DEFAULT_MAX_SERIES;
+
+    private volatile GaugeMetrics liveSeries;
+
+    CounterWindow(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param ttl            the series are evicted if they are not reported longer than it, in milliseconds.
+     * @param maxSeries      the max number of series to be tracked.
+     * @param metricsCreator to create the gauge of the live series.
+     */
+    public void configure(final long ttl, final int maxSeries, final MetricsCreator metricsCreator) {
+        this.ttl = ttl;
+        this.maxSeries = maxSeries;
+        final GaugeMetrics gauge = metricsCreator.createGauge(
+            "meter_counter_window_series", "The number of series in the counter window of MAL increase and rate",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        gauge.setValue(windows.size());
+        this.liveSeries = gauge;
+    }
 
     public Tuple2<Long, Double> increase(String name, ImmutableMap<String, String> labels, Double value, long windowSize, long now) {
-        ID id = new ID(name, labels);
-        if (!windows.containsKey(id)) {
-            windows.put(id, new LinkedList<>());
-        }
-        Queue<Tuple2<Long, Double>> window = windows.get(id);
-        window.offer(Tuple.of(now, value));
-        Tuple2<Long, Double> ps = window.element();
-        if ((now - ps._1) >= windowSize) {
-            window.remove();
+        final long current = clock.getAsLong();
+        evictExpired(current);
+
+        final ID id = new ID(name, labels);
+        Window window = windows.get(id);
+        if (window == null) {
+            if (windows.size() >= maxSeries) {
+                if (overflowed.compareAndSet(false, true)) {
+                    log.warn("The counter window reaches the max {} series, the increase of new series are 0", maxSeries);
+                }
+                return Tuple.of(now, value);
+            }
+            window = windows.computeIfAbsent(id, ignored -> {
+                final GaugeMetrics gauge = liveSeries;
+                if (gauge != null) {
+                    gauge.inc();
+                }
+                return new Window();
+            });
         }
-        return ps;
+        return window.increase(value, windowSize, now, current);
     }
 
     public void reset() {
         windows.clear();
+        final GaugeMetrics gauge = liveSeries;
+        if (gauge != null) {
+            gauge.setValue(0);
+        }
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    /**
+     * Evict the expired series, at most once in the eviction interval, by the first caller after the interval.
+     */
+    private void evictExpired(final long current) {
+        final long next = nextEviction.get();
+        if (current < next || !nextEviction.compareAndSet(next, current + Math.min(ttl, MAX_EVICTION_INTERVAL))) {
+            return;
+        }
+        final long expiry = current - ttl;
+        final GaugeMetrics gauge = liveSeries;
+        windows.forEach((id, window) -> {
+            if (window.lastAccess < expiry && windows.remove(id, window) && gauge != null) {
+                gauge.dec();
+            }
+        });
+        if (windows.size() < maxSeries) {
+            overflowed.set(false);
+        }
+    }
+
+    /**
+     * Window is the ring buffer of the samples in the window of a series, the oldest sample is at the head.
+     */
+    private static class Window {
+        private long[] timestamps = new long[4];
+        private double[] values = new double[4];
+        private int head;
+        private int size;
+        private volatile long lastAccess;
+
+        /**
+         * Add the sample, and remove the oldest one if it is out of the window.
+         *
+         * @return the oldest sample before removing.
+         */
+        synchronized Tuple2<Long, Double> increase(double value, long windowSize, long now, long current) {
+            lastAccess = current;
+            if (size == timestamps.length) {
+                grow();
+            }
+            final int tail = (head + size) % timestamps.length;
+            timestamps[tail] = now;
+            values[tail] = value;
+            size++;
+
+            final long oldestTimestamp = timestamps[head];
+            final double oldestValue = values[head];
+            if (now - oldestTimestamp >= windowSize) {
+                head = (head + 1) % timestamps.length;
+                size--;
+            }
+            return Tuple.of(oldestTimestamp, oldestValue);
+        }
+
+        private void grow() {
+            final long[] newTimestamps = new long[timestamps.length << 1];
+            final double[] newValues = new double[values.length << 1];
+            final int first = timestamps.length - head;
+            System.arraycopy(timestamps, head, newTimestamps, 0, first);
+            System.arraycopy(timestamps, 0, newTimestamps, first, head);
+            System.arraycopy(values, head, newValues, 0, first);
+            System.arraycopy(values, 0, newValues, first, head);
+            timestamps = newTimestamps;
+            values = newValues;
+            head = 0;
+        }
     }
 }
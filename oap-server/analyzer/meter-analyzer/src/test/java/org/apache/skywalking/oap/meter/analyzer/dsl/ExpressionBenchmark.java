@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare running the MAL expressions as Groovy scripts, with running the operators compiled by {@link
+ * ExpressionCompiler}. The sample families are small, so the cost of the dispatch is not hidden by the operations of
+ * {@link SampleFamily}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+    private static final String ARITHMETIC =
+        "(100 - jvm_memory_used.tagEqual('area', 'heap') * 100 / jvm_memory_max.tagEqual('area', 'heap'))"
+            + ".sum(['service', 'instance']).instance(['service'], ['instance'])";
+    private static final String TAG =
+        "jvm_memory_used.tag({tags -> tags.area = 'memory::' + tags.area}).sum(['service', 'area']).service(['service'])";
+
+    private final ImmutableMap<String, SampleFamily> input;
+
+    private final Expression compiledArithmetic = DSL.parse(ARITHMETIC, true);
+    private final Expression groovyArithmetic = DSL.parse(ARITHMETIC, false);
+    private final Expression compiledTag = DSL.parse(TAG, true);
+    private final Expression groovyTag = DSL.parse(TAG, false);
+
+    {
+        Sample[] used = new Sample[2];
+        Sample[] max = new Sample[2];
+        for (int i = 0; i < used.length; i++) {
+            ImmutableMap<String, String> labels = ImmutableMap.of(
+                "service", "service-" + i % 2, "instance", "instance-" + i / 2, "area", i % 4 == 0 ? "nonheap" : "heap");
+            used[i] = Sample.builder().name("jvm_memory_used").labels(labels).value(100 + i).build();
+            max[i] = Sample.builder().name("jvm_memory_max").labels(labels).value(1000).build();
+        }
+        input = ImmutableMap.of(
+            "jvm_memory_used", SampleFamilyBuilder.newBuilder(used).build(),
+            "jvm_memory_max", SampleFamilyBuilder.newBuilder(max).build()
+        );
+    }
+
+    @Benchmark
+    public Result groovyArithmetic() {
+        return groovyArithmetic.run(input);
+    }
+
+    @Benchmark
+    public Result compiledArithmetic() {
+        return compiledArithmetic.run(input);
+    }
+
+    @Benchmark
+    public Result groovyTag() {
+        return groovyTag.run(input);
+    }
+
+    @Benchmark
+    public Result compiledTag() {
+        return compiledTag.run(input);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(ExpressionBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+    /*
+        Environment:
+
+        # JMH version: 1.21
+        # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08, 1 CPU core
+        # Warmup: 5 iterations, 2 s each
+        # Measurement: 10 iterations, 2 s each
+        # Threads: 1 thread, will synchronize iterations
+        # Benchmark mode: Average time, time/op
+
+        Benchmark                               Mode  Cnt  Score   Error  Units
+        ExpressionBenchmark.compiledArithmetic  avgt   10  5.071 ± 0.630  us/op
+        ExpressionBenchmark.compiledTag         avgt   10  5.896 ± 1.170  us/op
+        ExpressionBenchmark.groovyArithmetic    avgt   10  7.213 ± 0.554  us/op
+        ExpressionBenchmark.groovyTag           avgt   10  8.109 ± 5.645  us/op
+
+        With 20 samples in each family, the aggregation and the matching of the samples dominate, both modes take about
+        60us for the arithmetic and 21us for the tag expression.
+     */
+}
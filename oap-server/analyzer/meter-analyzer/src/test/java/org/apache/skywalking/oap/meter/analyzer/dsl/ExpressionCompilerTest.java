@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(Parameterized.class)
+public class ExpressionCompilerTest {
+
+    private static final ImmutableMap<String, SampleFamily> INPUT = of(
+        "foo", SampleFamilyBuilder.newBuilder(
+            Sample.builder().labels(of("svc", "s1", "region", "us", "le", "0.25")).value(8).name("foo").build(),
+            Sample.builder().labels(of("svc", "s1", "region", "cn", "le", "1.5")).value(12).name("foo").build(),
+            Sample.builder().labels(of("svc", "s2", "region", "us", "le", "0.5")).value(20).name("foo").build()
+        ).build(),
+        "bar", SampleFamilyBuilder.newBuilder(
+            Sample.builder().labels(of("svc", "s1", "region", "us", "le", "0.25")).value(2).name("bar").build(),
+            Sample.builder().labels(of("svc", "s2", "region", "us", "le", "0.5")).value(4).name("bar").build()
+        ).build()
+    );
+
+    @Parameterized.Parameter
+    public String expression;
+
+    @Parameterized.Parameter(1)
+    public boolean compiled;
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(new Object[][] {
+            {"foo", true},
+            {"absent", true},
+            {"100 - foo / 2", true},
+            {"(1 + 2) / 2 * foo", true},
+            {"-foo + 10 / bar", true},
+            {"100 / foo.tagNotEqual('svc', 's2')", true},
+            {"foo * bar - foo / bar", true},
+            {"(foo + absent).valueGreater(10).sum(['svc'])", true},
+            {"foo.tagEqual('svc', 's1', 'region', 'cn')", true},
+            {"foo.tagMatch('region', 'u.*')", true},
+            {"foo.sum(by = ['region'])", true},
+            {"foo.avg()", true},
+            {"foo.histogram().histogram_percentile([50, 99]).service(['svc'])", true},
+            {"foo.histogram('le').downsampling(SUM)", true},
+            {"foo.sum(['svc', 'region']).instance(['svc'], ['region'])", true},
+            {"foo.tag({tags -> tags.region = 'prefix::' + tags.region})", true},
+            {"foo.tag({ tags ->\n  if (tags['region'] == 'us') {\n    tags.remove('region')\n  }\n}).sum(['svc'])", true},
+            {"foo.tagEqual('svc', 's1').increase('PT1M')", true},
+            {"foo.valueEqual(8) * 1024 * 8", true},
+            {"foo.tagEqual(1)", false},
+            {"foo.unknown()", false},
+            {"foo?.sum(['svc'])", false},
+            {"def a = foo\na", false},
+            {"[foo, bar][0]", false},
+            {"foo.tagEqual(\"${'svc'}\", 's1')", false},
+            {"1 + 2", false},
+        });
+    }
+
+    @Test
+    public void test() {
+        Expression compiledExpression = DSL.parse(expression, true);
+        Expression groovyExpression = DSL.parse(expression, false);
+        assertThat(compiledExpression.isCompiled(), is(compiled));
+        assertThat(groovyExpression.isCompiled(), is(false));
+        assertThat(compiledExpression.run(INPUT), is(groovyExpression.run(INPUT)));
+    }
+}
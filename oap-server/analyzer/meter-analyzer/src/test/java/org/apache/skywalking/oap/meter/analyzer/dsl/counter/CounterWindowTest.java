@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.meter.analyzer.dsl.counter;
+
+import com.google.common.collect.ImmutableMap;
+import io.vavr.Tuple2;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.collect.ImmutableMap.of;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CounterWindowTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final TestGauge gauge = new TestGauge();
+
+    private CounterWindow window;
+
+    @Before
+    public void setUp() {
+        MetricsCreator metricsCreator = mock(MetricsCreator.class);
+        when(metricsCreator.createGauge(any(), any(), any(), any())).thenReturn(gauge);
+        window = new CounterWindow(clock::get);
+        window.configure(1000, 3, metricsCreator);
+    }
+
+    @Test
+    public void testWindow() {
+        final ImmutableMap<String, String> labels = of("svc", "product");
+        assertThat(window.increase("http_requests", labels, 10D, 100, 0), is(sample(0, 10)));
+        assertThat(window.increase("http_requests", labels, 20D, 100, 50), is(sample(0, 10)));
+        assertThat(window.increase("http_requests", labels, 30D, 100, 100), is(sample(0, 10)));
+        assertThat(window.increase("http_requests", labels, 40D, 100, 150), is(sample(50, 20)));
+        // Grow the ring buffer while its head is not at the beginning.
+        for (int i = 4; i < 20; i++) {
+            window.increase("http_requests", labels, i * 10D, 1000, i * 50);
+        }
+        assertThat(window.increase("http_requests", labels, 200D, 100, 1000), is(sample(100, 30)));
+        assertThat(window.increase("http_requests", of("svc", "catalog"), 5D, 100, 1000), is(sample(1000, 5)));
+        assertThat(window.size(), is(2));
+        assertThat(gauge.getValue(), is(2D));
+    }
+
+    @Test
+    public void testEviction() {
+        window.increase("http_requests", of("svc", "product"), 10D, 100, 0);
+        clock.set(500);
+        window.increase("http_requests", of("svc", "catalog"), 10D, 100, 0);
+        clock.set(1200);
+        window.increase("http_requests", of("svc", "catalog"), 10D, 100, 0);
+        assertThat(window.size(), is(1));
+        assertThat(gauge.getValue(), is(1D));
+
+        clock.set(3000);
+        window.increase("http_requests", of("svc", "product"), 20D, 100, 100);
+        assertThat(window.size(), is(1));
+        assertThat(gauge.getValue(), is(1D));
+    }
+
+    @Test
+    public void testMaxSeries() {
+        for (int i = 0; i < 3; i++) {
+            window.increase("http_requests", of("svc", "svc" + i), 10D, 100, 0);
+        }
+        window.increase("http_requests", of("svc", "overflow"), 10D, 100, 0);
+        assertThat(window.increase("http_requests", of("svc", "overflow"), 20D, 100, 50), is(sample(50, 20)));
+        assertThat(window.size(), is(3));
+
+        clock.set(2000);
+        window.increase("http_requests", of("svc", "overflow"), 30D, 100, 100);
+        assertThat(window.increase("http_requests", of("svc", "overflow"), 40D, 100, 150), is(sample(100, 30)));
+        assertThat(window.size(), is(1));
+    }
+
+    @Test
+    public void testConcurrentIncrease() throws InterruptedException {
+        final int threads = 4;
+        final int rounds = 10_000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> workers = new ArrayList<>();
+        final DoubleAdder increase = new DoubleAdder();
+        for (int t = 0; t < threads; t++) {
+            final Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < rounds; i++) {
+                    final Tuple2<Long, Double> oldest =
+                        window.increase("http_requests", of("svc", "svc" + i % 3), 1D, Long.MAX_VALUE, i);
+                    increase.add(1D - oldest._2());
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertThat(window.size(), is(3));
+        assertThat(gauge.getValue(), is(3D));
+        assertThat(increase.sum(), is(0D));
+    }
+
+    private static Tuple2<Long, Double> sample(long timestamp, double value) {
+        return new Tuple2<>(timestamp, value);
+    }
+
+    private static class TestGauge implements GaugeMetrics {
+        private final DoubleAdder value = new DoubleAdder();
+
+        @Override
+        public void inc() {
+            value.add(1);
+        }
+
+        @Override
+        public void inc(final double value) {
+            this.value.add(value);
+        }
+
+        @Override
+        public void dec() {
+            value.add(-1);
+        }
+
+        @Override
+        public void dec(final double value) {
+            this.value.add(-value);
+        }
+
+        @Override
+        public void setValue(final double value) {
+            this.value.reset();
+            this.value.add(value);
+        }
+
+        @Override
+        public double getValue() {
+            return value.sum();
+        }
+    }
+}
@@ -96,6 +96,7 @@ public class OALRuntime implements OALEngine {
     };
     private static final String[] METRICS_BUILDER_CLASS_METHODS = {
         "entity2Storage",
+        "entity2Columns",
         "storage2Entity"
     };
     private static boolean IS_RT_TEMP_FOLDER_INIT_COMPLETED = false;
@@ -23,6 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.skywalking.oap.server.core.analysis.metrics.NumericDataTable;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
 
 @Getter
@@ -149,6 +150,8 @@ public class AnalysisResult {
                 serializeFields.addStringField(column.getFieldName());
             } else if (columnType.equals(long.class)) {
                 serializeFields.addLongField(column.getFieldName());
+            } else if (columnType.equals(NumericDataTable.class)) {
+                serializeFields.addNumericTableField(column.getFieldName());
             } else if (StorageDataComplexObject.class.isAssignableFrom(columnType)) {
                 serializeFields.addObjectField(column.getFieldName(), columnType.getName());
             } else {
@@ -20,6 +20,7 @@ package org.apache.skywalking.oal.rt.parser;
 
 import java.util.LinkedList;
 import java.util.List;
+import org.apache.skywalking.oap.server.core.analysis.metrics.NumericDataTable;
 
 public class PersistenceColumns {
     private List<PersistenceField> stringFields = new LinkedList<>();
@@ -27,6 +28,7 @@ public class PersistenceColumns {
     private List<PersistenceField> doubleFields = new LinkedList<>();
     private List<PersistenceField> intFields = new LinkedList<>();
     private List<PersistenceField> objectFields = new LinkedList<>();
+    private List<PersistenceField> numericTableFields = new LinkedList<>();
 
     public void addStringField(String fieldName) {
         stringFields.add(new PersistenceField(fieldName, "String"));
@@ -48,6 +50,17 @@ public class PersistenceColumns {
         objectFields.add(new PersistenceField(fieldName, fieldType));
     }
 
+    /**
+     * The numeric table field is an object field too, it keeps the same position in the object strings, so the OAP
+     * servers transferring it in the string format could still read each other.
+     */
+    public void addNumericTableField(String fieldName) {
+        PersistenceField field = new PersistenceField(fieldName, NumericDataTable.class.getName());
+        field.setNumericTableIndex(numericTableFields.size());
+        numericTableFields.add(field);
+        objectFields.add(field);
+    }
+
     public List<PersistenceField> getStringFields() {
         return stringFields;
     }
@@ -67,4 +80,8 @@ public class PersistenceColumns {
     public List<PersistenceField> getObjectFields() {
         return objectFields;
     }
+
+    public List<PersistenceField> getNumericTableFields() {
+        return numericTableFields;
+    }
 }
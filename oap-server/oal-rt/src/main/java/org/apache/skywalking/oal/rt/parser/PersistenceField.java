@@ -29,6 +29,10 @@ public class PersistenceField {
     private String setter;
     private String getter;
     private String fieldType;
+    /**
+     * The position in the numeric tables of the remote data, -1 means it is not a numeric table field.
+     */
+    private int numericTableIndex = -1;
 
     public PersistenceField(String fieldName, String fieldType) {
         this.fieldName = fieldName;
@@ -0,0 +1,17 @@
+public void entity2Columns(org.apache.skywalking.oap.server.core.storage.StorageData input, org.apache.skywalking.oap.server.core.storage.type.StorageColumnWriter writer) throws java.io.IOException {
+${metricsClassPackage}${metricsName}Metrics storageData = (${metricsClassPackage}${metricsName}Metrics)input;
+<#list fieldsFromSource as field>
+    <#if field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
+        writer.write("${field.columnName}", storageData.${field.fieldGetter}());
+    <#else>
+        writer.write("${field.columnName}", (Object)storageData.${field.fieldGetter}());
+    </#if>
+</#list>
+<#list persistentFields as field>
+    <#if field.typeName == "long" || field.typeName == "int" || field.typeName == "double" || field.typeName == "float">
+        writer.write("${field.columnName}", storageData.${field.fieldGetter}());
+    <#else>
+        writer.write("${field.columnName}", (Object)storageData.${field.fieldGetter}());
+    </#if>
+</#list>
+}
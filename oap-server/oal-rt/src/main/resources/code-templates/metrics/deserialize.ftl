@@ -16,7 +16,15 @@ public void deserialize(org.apache.skywalking.oap.server.core.remote.grpc.proto.
 </#list>
 
 <#list serializeFields.objectFields as field>
+    <#if (field.numericTableIndex >= 0)>
+    if (remoteData.getDataNumericTablesCount() > ${field.numericTableIndex}) {
+        ${field.setter}(new ${field.fieldType}(remoteData.getDataNumericTables(${field.numericTableIndex})));
+    } else {
+        ${field.setter}(new ${field.fieldType}(remoteData.getDataObjectStrings(${field?index})));
+    }
+    <#else>
     ${field.setter}(new ${field.fieldType}(remoteData.getDataObjectStrings(${field?index})));
+    </#if>
 </#list>
 
 }
\ No newline at end of file
@@ -17,7 +17,16 @@ org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData.Builder remot
 </#list>
 
 <#list serializeFields.objectFields as field>
+    <#if (field.numericTableIndex >= 0)>
+    if (org.apache.skywalking.oap.server.core.analysis.metrics.NumericDataTable.isBinaryRemoteFormat()) {
+        remoteBuilder.addDataObjectStrings("");
+        remoteBuilder.addDataNumericTables(${field.getter}().serialize());
+    } else {
+        remoteBuilder.addDataObjectStrings(${field.getter}().toStorageData());
+    }
+    <#else>
     remoteBuilder.addDataObjectStrings(${field.getter}().toStorageData());
+    </#if>
 </#list>
 
 return remoteBuilder;
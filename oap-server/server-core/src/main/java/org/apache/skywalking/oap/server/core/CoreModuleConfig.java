@@ -77,6 +77,29 @@ public class CoreModuleConfig extends ModuleConfig {
      */
 
     private int remoteTimeout = 20;
+    /**
+     * The max number of remote messages packed into one gRPC message of the cluster internal communication, and the
+     * packed messages are sent through long-lived streams. 0 means sending the messages one by one, which is compatible
+     * with the OAP servers before 8.6.0.
+     *
+     * @since 8.6.0
+     */
+    private int remoteBatchSize = 0;
+    /**
+     * The gRPC compressor of the cluster internal communication, such as gzip. Empty means no compression.
+     *
+     * @since 8.6.0
+     */
+    private String remoteCompression = "";
+    /**
+     * Transfer the {@link org.apache.skywalking.oap.server.core.analysis.metrics.NumericDataTable} fields of the OAL
+     * metrics between OAP servers in the binary format rather than the storage string. Every OAP server since 8.6.0
+     * reads both formats, but the older ones only read the string, so it should only be activated after all OAP
+     * servers of the cluster are upgraded.
+     *
+     * @since 8.6.0
+     */
+    private boolean remoteBinaryNumericTable = false;
     /**
      * The size of network address alias.
      */
@@ -150,6 +173,16 @@ public class CoreModuleConfig extends ModuleConfig {
     @Getter
     private int syncThreads = 2;
 
+    /**
+     * The number of threads used to prepare the metrics data of different models concurrently before the storage
+     * execution. It should be at least 1, checked when the core module is prepared.
+     *
+     * @since 8.6.0
+     */
+    @Setter
+    @Getter
+    private int prepareThreads = 2;
+
     /**
      * The maximum number of processes supported for each synchronous storage operation. When the number of the flush
      * data is greater than this value, it will be assigned to multiple cores for execution.
@@ -158,6 +191,56 @@ public class CoreModuleConfig extends ModuleConfig {
     @Setter
     private int maxSyncOperationNum = 50000;
 
+    /**
+     * The period of L1 aggregation flush. The L1 aggregate worker keeps merging the metrics across the consuming cycles
+     * until the period is reached or the minute changes. Unit is ms.
+     *
+     * @since 8.6.0
+     */
+    @Getter
+    @Setter
+    private long l1FlushPeriod = 500;
+
+    /**
+     * The max size of the metrics session cache in every persistent worker, only works when {@link
+     * #enableDatabaseSession} == true. The least recently used metrics is evicted when the size is reached.
+     *
+     * @since 8.6.0
+     */
+    @Getter
+    @Setter
+    private int maxSizeOfMetricsSession = 50_000;
+
+    /**
+     * The max number of the values in the query result cache, which hosts the results of the closed time buckets for
+     * the metrics queries. 0 means the cache is disabled.
+     *
+     * @since 8.6.0
+     */
+    @Getter
+    @Setter
+    private long maxSizeOfQueryCache = 100_000;
+
+    /**
+     * The seconds after the end of a time bucket, when the bucket is treated as closed and its query result could be
+     * cached. This should be longer than the period of the persistence and the refresh of the storage.
+     *
+     * @since 8.6.0
+     */
+    @Getter
+    @Setter
+    private int queryCacheClosedDelay = 120;
+
+    /**
+     * The number of the recent minutes of the service relations indexed in memory for the service topology queries. The
+     * index only works when this node is the only aggregator in the cluster. 0 means the index is disabled.
+     *
+     * @since 8.6.0
+     */
+    @Getter
+    @Setter
+    private int serviceRelationIndexMinutes = 60;
+
     public CoreModuleConfig() {
         this.downsampling = new ArrayList<>();
     }
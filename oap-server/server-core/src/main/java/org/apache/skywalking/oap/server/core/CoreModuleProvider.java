@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.oap.server.configuration.api.ConfigurationModule;
 import org.apache.skywalking.oap.server.configuration.api.DynamicConfigurationService;
 import org.apache.skywalking.oap.server.core.analysis.ApdexThresholdConfig;
@@ -29,6 +30,7 @@ import org.apache.skywalking.oap.server.core.analysis.DisableRegister;
 import org.apache.skywalking.oap.server.core.analysis.StreamAnnotationListener;
 import org.apache.skywalking.oap.server.core.analysis.meter.MeterSystem;
 import org.apache.skywalking.oap.server.core.analysis.metrics.ApdexMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.NumericDataTable;
 import org.apache.skywalking.oap.server.core.analysis.worker.ManagementStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
@@ -62,6 +64,8 @@ import org.apache.skywalking.oap.server.core.query.MetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsMetadataQueryService;
 import org.apache.skywalking.oap.server.core.query.MetricsQueryService;
 import org.apache.skywalking.oap.server.core.query.ProfileTaskQueryService;
+import org.apache.skywalking.oap.server.core.query.QueryResultCache;
+import org.apache.skywalking.oap.server.core.query.ServiceRelationIndex;
 import org.apache.skywalking.oap.server.core.query.TopNRecordsQueryService;
 import org.apache.skywalking.oap.server.core.query.TopologyQueryService;
 import org.apache.skywalking.oap.server.core.query.TraceQueryService;
@@ -98,6 +102,7 @@ import org.apache.skywalking.oap.server.library.server.jetty.JettyServer;
 import org.apache.skywalking.oap.server.library.server.jetty.JettyServerConfig;
 import org.apache.skywalking.oap.server.library.util.ResourceUtils;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.TelemetryRelatedContext;
 
 /**
@@ -120,6 +125,8 @@ public class CoreModuleProvider extends ModuleProvider {
     private ApdexThresholdConfig apdexThresholdConfig;
     private EndpointNameGroupingRuleWatcher endpointNameGroupingRuleWatcher;
     private OALEngineLoaderService oalEngineLoaderService;
+    private QueryResultCache queryResultCache;
+    private ServiceRelationIndex serviceRelationIndex;
 
     public CoreModuleProvider() {
         super();
@@ -146,6 +153,10 @@ public class CoreModuleProvider extends ModuleProvider {
 
     @Override
     public void prepare() throws ServiceNotProvidedException, ModuleStartException {
+        if (moduleConfig.getPrepareThreads() < 1) {
+            throw new ModuleStartException(
+                "core/prepareThreads should be at least 1, but got " + moduleConfig.getPrepareThreads());
+        }
         if (moduleConfig.isActiveExtraModelColumns()) {
             DefaultScopeDefine.activeExtraModelColumns();
         }
@@ -242,14 +253,32 @@ public class CoreModuleProvider extends ModuleProvider {
         this.registerServiceImplementation(
             NetworkAddressAliasCache.class, new NetworkAddressAliasCache(moduleConfig));
 
-        this.registerServiceImplementation(TopologyQueryService.class, new TopologyQueryService(getManager()));
+        if (moduleConfig.getMaxSizeOfQueryCache() > 0) {
+            queryResultCache = new QueryResultCache(
+                moduleConfig.getMaxSizeOfQueryCache(),
+                TimeUnit.SECONDS.toMillis(moduleConfig.getQueryCacheClosedDelay())
+            );
+        }
+        if (moduleConfig.getServiceRelationIndexMinutes() > 0
+            && !CoreModuleConfig.Role.Receiver.name().equalsIgnoreCase(moduleConfig.getRole())) {
+            // The remote clients include this node itself.
+            serviceRelationIndex = new ServiceRelationIndex(
+                moduleConfig.getServiceRelationIndexMinutes(),
+                () -> remoteClientManager.getRemoteClient().size() <= 1
+            );
+            MetricsStreamProcessor.getInstance().setServiceRelationIndex(serviceRelationIndex);
+        }
+        this.registerServiceImplementation(
+            TopologyQueryService.class, new TopologyQueryService(getManager(), serviceRelationIndex));
         this.registerServiceImplementation(MetricsMetadataQueryService.class, new MetricsMetadataQueryService());
-        this.registerServiceImplementation(MetricsQueryService.class, new MetricsQueryService(getManager()));
+        this.registerServiceImplementation(
+            MetricsQueryService.class, new MetricsQueryService(getManager(), queryResultCache));
         this.registerServiceImplementation(TraceQueryService.class, new TraceQueryService(getManager()));
         this.registerServiceImplementation(BrowserLogQueryService.class, new BrowserLogQueryService(getManager()));
         this.registerServiceImplementation(LogQueryService.class, new LogQueryService(getManager()));
         this.registerServiceImplementation(MetadataQueryService.class, new MetadataQueryService(getManager()));
-        this.registerServiceImplementation(AggregationQueryService.class, new AggregationQueryService(getManager()));
+        this.registerServiceImplementation(
+            AggregationQueryService.class, new AggregationQueryService(getManager(), queryResultCache));
         this.registerServiceImplementation(AlarmQueryService.class, new AlarmQueryService(getManager()));
         this.registerServiceImplementation(TopNRecordsQueryService.class, new TopNRecordsQueryService(getManager()));
         this.registerServiceImplementation(EventQueryService.class, new EventQueryService(getManager()));
@@ -276,6 +305,9 @@ public class CoreModuleProvider extends ModuleProvider {
         } else {
             this.remoteClientManager = new RemoteClientManager(getManager(), moduleConfig.getRemoteTimeout());
         }
+        this.remoteClientManager.setRemoteBatchSize(moduleConfig.getRemoteBatchSize());
+        this.remoteClientManager.setRemoteCompression(moduleConfig.getRemoteCompression());
+        NumericDataTable.setBinaryRemoteFormat(moduleConfig.isRemoteBinaryNumericTable());
         this.registerServiceImplementation(RemoteClientManager.class, remoteClientManager);
 
         // Management
@@ -283,6 +315,8 @@ public class CoreModuleProvider extends ModuleProvider {
             UITemplateManagementService.class, new UITemplateManagementService(getManager()));
 
         MetricsStreamProcessor.getInstance().setEnableDatabaseSession(moduleConfig.isEnableDatabaseSession());
+        MetricsStreamProcessor.getInstance().setL1FlushPeriod(moduleConfig.getL1FlushPeriod());
+        MetricsStreamProcessor.getInstance().setMaxSizeOfMetricsSession(moduleConfig.getMaxSizeOfMetricsSession());
         TopNStreamProcessor.getInstance().setTopNWorkerReportCycle(moduleConfig.getTopNReportPeriod());
         apdexThresholdConfig = new ApdexThresholdConfig(this);
         ApdexMetrics.setDICT(apdexThresholdConfig);
@@ -328,6 +362,11 @@ public class CoreModuleProvider extends ModuleProvider {
                                                                                   DynamicConfigurationService.class);
         dynamicConfigurationService.registerConfigChangeWatcher(apdexThresholdConfig);
         dynamicConfigurationService.registerConfigChangeWatcher(endpointNameGroupingRuleWatcher);
+
+        if (queryResultCache != null) {
+            queryResultCache.start(
+                getManager().find(TelemetryModule.NAME).provider().getService(MetricsCreator.class));
+        }
     }
 
     @Override
@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.oap.server.core.analysis.manual.segment;
 
+import java.io.IOException;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
@@ -36,6 +37,7 @@ import org.apache.skywalking.oap.server.core.source.DefaultScopeDefine;
 import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 import org.apache.skywalking.oap.server.core.storage.annotation.SuperDataset;
+import org.apache.skywalking.oap.server.core.storage.type.StorageColumnWriter;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 
 @SuperDataset
@@ -130,10 +132,7 @@ public class SegmentRecord extends Record {
 
         @Override
         public Map<String, Object> entity2Storage(SegmentRecord storageData) {
-            storageData.statement = Strings.join(new String[] {
-                storageData.endpointName,
-                storageData.traceId
-            }, " - ");
+            buildStatement(storageData);
             Map<String, Object> map = new HashMap<>();
             map.put(SEGMENT_ID, storageData.getSegmentId());
             map.put(TRACE_ID, storageData.getTraceId());
@@ -157,6 +156,40 @@ public class SegmentRecord extends Record {
             return map;
         }
 
+        /**
+         * The segments are the most written records, write the fields directly rather than building the map.
+         */
+        @Override
+        public void entity2Columns(SegmentRecord storageData, StorageColumnWriter writer) throws IOException {
+            buildStatement(storageData);
+            writer.write(SEGMENT_ID, storageData.getSegmentId());
+            writer.write(TRACE_ID, storageData.getTraceId());
+            writer.write(TopN.STATEMENT, storageData.getStatement());
+            writer.write(SERVICE_ID, storageData.getServiceId());
+            writer.write(SERVICE_INSTANCE_ID, storageData.getServiceInstanceId());
+            writer.write(ENDPOINT_NAME, storageData.getEndpointName());
+            writer.write(ENDPOINT_ID, storageData.getEndpointId());
+            writer.write(START_TIME, storageData.getStartTime());
+            writer.write(END_TIME, storageData.getEndTime());
+            writer.write(LATENCY, storageData.getLatency());
+            writer.write(IS_ERROR, storageData.getIsError());
+            writer.write(TIME_BUCKET, storageData.getTimeBucket());
+            if (CollectionUtils.isEmpty(storageData.getDataBinary())) {
+                writer.write(DATA_BINARY, Const.EMPTY_STRING);
+            } else {
+                writer.write(DATA_BINARY, new String(Base64.getEncoder().encode(storageData.getDataBinary())));
+            }
+            writer.write(VERSION, storageData.getVersion());
+            writer.write(TAGS, storageData.getTags());
+        }
+
+        private void buildStatement(SegmentRecord storageData) {
+            storageData.statement = Strings.join(new String[] {
+                storageData.endpointName,
+                storageData.traceId
+            }, " - ");
+        }
+
         @Override
         public SegmentRecord storage2Entity(Map<String, Object> dbMap) {
             SegmentRecord record = new SegmentRecord();
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+import org.apache.skywalking.oap.server.core.Const;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.NumericTable;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+
+/**
+ * NumericDataTable is a {@link DataTable} alternative for numeric keys, such as the buckets of histogram and
+ * percentile. The keys and values are hosted in two primitive arrays, and the keys are always in ascending order, so
+ * accumulation and merging don't box the numbers, and the sorted iteration doesn't require the string parsing.
+ *
+ * The storage format is the same as {@link DataTable}, the data could be read by each other. Between the OAP nodes, it
+ * could be transferred in the binary {@link NumericTable} rather than the string format, see {@link #serialize()} and
+ * {@link #isBinaryRemoteFormat()}.
+ */
+public class NumericDataTable implements StorageDataComplexObject<NumericDataTable> {
+    /**
+     * Whether the OAL metrics transfer this table in the binary {@link NumericTable} format, which the OAP servers
+     * before 8.6.0 can't read. When it is false, the string format of {@link #toStorageData()} is transferred.
+     */
+    private static volatile boolean BINARY_REMOTE_FORMAT = false;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    public static boolean isBinaryRemoteFormat() {
+        return BINARY_REMOTE_FORMAT;
+    }
+
+    public static void setBinaryRemoteFormat(boolean binaryRemoteFormat) {
+        BINARY_REMOTE_FORMAT = binaryRemoteFormat;
+    }
+
+    public NumericDataTable() {
+        this(16);
+    }
+
+    public NumericDataTable(int initialCapacity) {
+        keys = new long[Math.max(initialCapacity, 1)];
+        values = new long[keys.length];
+    }
+
+    public NumericDataTable(String data) {
+        this();
+        toObject(data);
+    }
+
+    /**
+     * Rebuild the table from the remote data created by {@link #serialize()}.
+     */
+    public NumericDataTable(NumericTable remoteData) {
+        this(remoteData.getKeyDeltasCount());
+        final int count = Math.min(remoteData.getKeyDeltasCount(), remoteData.getValuesCount());
+        long key = 0;
+        for (int i = 0; i < count; i++) {
+            key += remoteData.getKeyDeltas(i);
+            keys[i] = key;
+            values[i] = remoteData.getValues(i);
+        }
+        size = count;
+    }
+
+    /**
+     * @return the value of the given key, or 0 if the key doesn't exist.
+     */
+    public long get(long key) {
+        final int index = indexOf(key);
+        return index >= 0 ? values[index] : 0;
+    }
+
+    public void put(long key, long value) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            values[index] = value;
+        } else {
+            insert(-(index + 1), key, value);
+        }
+    }
+
+    /**
+     * Accumulate the value with existing value in the same given key.
+     */
+    public void valueAccumulation(long key, long value) {
+        final int index = indexOf(key);
+        if (index >= 0) {
+            values[index] += value;
+        } else {
+            insert(-(index + 1), key, value);
+        }
+    }
+
+    /**
+     * @return the sum of all values.
+     */
+    public long sumOfValues() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the key at the given position, keys are in ascending order.
+     */
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the value at the given position, matching the key of {@link #keyAt(int)}.
+     */
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    public boolean hasData() {
+        return size > 0;
+    }
+
+    public boolean hasKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Serialize the table for the transmission between the OAP nodes. The keys are in ascending order, so only the
+     * deltas of them are kept, which are encoded into fewer bytes by the varint.
+     */
+    public NumericTable.Builder serialize() {
+        final NumericTable.Builder builder = NumericTable.newBuilder();
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            builder.addKeyDeltas(keys[i] - previous);
+            builder.addValues(values[i]);
+            previous = keys[i];
+        }
+        return builder;
+    }
+
+    @Override
+    public String toStorageData() {
+        StringBuilder builder = new StringBuilder(size * 8);
+        for (int i = 0; i < size; i++) {
+            if (i != 0) {
+                builder.append(Const.ARRAY_SPLIT);
+            }
+            builder.append(keys[i]).append(Const.KEY_VALUE_SPLIT).append(values[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Parse the storage data in the {@link DataTable} format. Any element whose key or value is not a number is
+     * ignored.
+     */
+    @Override
+    public void toObject(String data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        int start = 0;
+        while (start < data.length()) {
+            int end = data.indexOf(Const.ARRAY_SPLIT, start);
+            if (end < 0) {
+                end = data.length();
+            }
+            final int split = data.indexOf(Const.KEY_VALUE_SPLIT, start);
+            if (split > start && split < end - 1) {
+                try {
+                    put(Long.parseLong(data.substring(start, split)), Long.parseLong(data.substring(split + 1, end)));
+                } catch (NumberFormatException ignored) {
+                    // Not a numeric element, ignore it as DataTable ignores the malformed pairs.
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    @Override
+    public void copyFrom(final NumericDataTable source) {
+        this.append(source);
+    }
+
+    /**
+     * Accumulate all values of the given table into this one. Both key arrays are sorted, so they are merged in one
+     * pass, and the arrays are only reallocated when the given table has keys not existing in this one.
+     */
+    public NumericDataTable append(NumericDataTable that) {
+        if (that.size == 0) {
+            return this;
+        }
+        final int newKeys = countNewKeys(that);
+        if (newKeys == 0) {
+            for (int i = 0, j = 0; j < that.size; i++) {
+                if (keys[i] == that.keys[j]) {
+                    values[i] += that.values[j++];
+                }
+            }
+            return this;
+        }
+
+        final int capacity = Math.max(keys.length, size + newKeys);
+        long[] mergedKeys = new long[capacity];
+        long[] mergedValues = new long[capacity];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < size || j < that.size) {
+            if (j == that.size || i < size && keys[i] < that.keys[j]) {
+                mergedKeys[n] = keys[i];
+                mergedValues[n++] = values[i++];
+            } else if (i == size || keys[i] > that.keys[j]) {
+                mergedKeys[n] = that.keys[j];
+                mergedValues[n++] = that.values[j++];
+            } else {
+                mergedKeys[n] = keys[i];
+                mergedValues[n++] = values[i++] + that.values[j++];
+            }
+        }
+        keys = mergedKeys;
+        values = mergedValues;
+        size = n;
+        return this;
+    }
+
+    private int countNewKeys(NumericDataTable that) {
+        int count = 0;
+        int i = 0;
+        for (int j = 0; j < that.size; j++) {
+            while (i < size && keys[i] < that.keys[j]) {
+                i++;
+            }
+            if (i == size || keys[i] != that.keys[j]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int indexOf(long key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, long key, long value) {
+        if (size == keys.length) {
+            final int capacity = keys.length << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        if (index < size) {
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NumericDataTable)) {
+            return false;
+        }
+        final NumericDataTable that = (NumericDataTable) o;
+        if (size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != that.keys[i] || values[i] != that.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Long.hashCode(keys[i]);
+            result = 31 * result + Long.hashCode(values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "NumericDataTable(" + toStorageData() + ")";
+    }
+}
@@ -18,9 +18,6 @@
 
 package org.apache.skywalking.oap.server.core.analysis.metrics;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.stream.IntStream;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.annotation.Arg;
@@ -50,7 +47,7 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
     @Getter
     @Setter
     @Column(columnName = VALUE, dataType = Column.ValueDataType.LABELED_VALUE, storageOnly = true)
-    private DataTable percentileValues;
+    private NumericDataTable percentileValues;
     @Getter
     @Setter
     @Column(columnName = PRECISION, storageOnly = true)
@@ -58,13 +55,13 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
     @Getter
     @Setter
     @Column(columnName = DATASET, storageOnly = true)
-    private DataTable dataset;
+    private NumericDataTable dataset;
 
     private boolean isCalculated;
 
     public PercentileMetrics() {
-        percentileValues = new DataTable(RANKS.length);
-        dataset = new DataTable(30);
+        percentileValues = new NumericDataTable(RANKS.length);
+        dataset = new NumericDataTable(30);
     }
 
     @Entrance
@@ -72,8 +69,7 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
         this.isCalculated = false;
         this.precision = precision;
 
-        String index = String.valueOf(value / precision);
-        dataset.valueAccumulation(index, 1L);
+        dataset.valueAccumulation(value / precision, 1L);
     }
 
     @Override
@@ -96,18 +92,14 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
             }
 
             int count = 0;
-            final List<String> sortedKeys = dataset.sortedKeys(Comparator.comparingInt(Integer::parseInt));
-
             int loopIndex = 0;
-            for (String key : sortedKeys) {
-                final Long value = dataset.get(key);
-
-                count += value;
+            for (int i = 0; i < dataset.size(); i++) {
+                count += dataset.valueAt(i);
                 for (int rankIdx = loopIndex; rankIdx < roofs.length; rankIdx++) {
                     int roof = roofs[rankIdx];
 
                     if (count >= roof) {
-                        percentileValues.put(String.valueOf(rankIdx), Long.parseLong(key) * precision);
+                        percentileValues.put(rankIdx, dataset.keyAt(i) * precision);
                         loopIndex++;
                     } else {
                         break;
@@ -119,9 +111,10 @@ public abstract class PercentileMetrics extends Metrics implements MultiIntValue
 
     @Override
     public int[] getValues() {
-        return percentileValues.sortedValues(Comparator.comparingInt(Integer::parseInt))
-                               .stream()
-                               .flatMapToInt(l -> IntStream.of(l.intValue()))
-                               .toArray();
+        int[] values = new int[percentileValues.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (int) percentileValues.valueAt(i);
+        }
+        return values;
     }
 }
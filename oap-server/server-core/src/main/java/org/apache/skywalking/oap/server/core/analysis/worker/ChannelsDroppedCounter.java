@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+
+/**
+ * ChannelsDroppedCounter exports the {@link QueueBuffer#getDroppedCount()} of every channel to a telemetry counter, so
+ * the data dropped by the {@code IF_POSSIBLE} strategy is visible. The counters are increased by the data dropped
+ * since the last report.
+ */
+public class ChannelsDroppedCounter<T> {
+    private final Channels<T> channels;
+    private final CounterMetrics[] counters;
+    private final AtomicLongArray reportedCounts;
+
+    /**
+     * @param counterCreator creates the counter of the channel at the given index.
+     */
+    public ChannelsDroppedCounter(Channels<T> channels, IntFunction<CounterMetrics> counterCreator) {
+        this.channels = channels;
+        this.counters = new CounterMetrics[channels.getChannelSize()];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = counterCreator.apply(i);
+        }
+        this.reportedCounts = new AtomicLongArray(counters.length);
+    }
+
+    /**
+     * Report the data dropped since the last report. It could be called by several consumer threads concurrently, each
+     * dropped data is counted once.
+     */
+    public void report() {
+        for (int i = 0; i < counters.length; i++) {
+            final long droppedCount = channels.getBuffer(i).getDroppedCount();
+            long reportedCount = reportedCounts.get(i);
+            while (droppedCount > reportedCount) {
+                if (reportedCounts.compareAndSet(i, reportedCount, droppedCount)) {
+                    counters[i].inc(droppedCount - reportedCount);
+                    break;
+                }
+                reportedCount = reportedCounts.get(i);
+            }
+        }
+    }
+}
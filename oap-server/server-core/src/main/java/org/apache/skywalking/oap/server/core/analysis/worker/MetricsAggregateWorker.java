@@ -21,6 +21,8 @@ package org.apache.skywalking.oap.server.core.analysis.worker;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPoolFactory;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -31,6 +33,7 @@ import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 import org.apache.skywalking.oap.server.telemetry.TelemetryModule;
 import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.GaugeMetrics;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
 import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
 
@@ -39,6 +42,10 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
  * it merges the data just after the receiver analysis. The metrics belonging to the same entity, metrics type and time
  * bucket, the L1 aggregation will merge them into one metrics object to reduce the unnecessary memory and network
  * payload.
+ *
+ * The merged metrics are held across consuming cycles, and sent to the next worker once the {@link #l1FlushPeriod} is
+ * reached, or the wall clock minute changes. A longer period brings a higher merge ratio, which reduces the payload of
+ * L1 to L2, at the cost of the delay of the metrics.
  */
 @Slf4j
 public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
@@ -46,12 +53,21 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
     private final DataCarrier<Metrics> dataCarrier;
     private final MergableBufferedData<Metrics> mergeDataCache;
     private CounterMetrics aggregationCounter;
+    private CounterMetrics flushCounter;
+    private final GaugeMetrics[] queueUsageGauges;
+    private final ChannelsDroppedCounter<Metrics> queueDroppedCounter;
+    /**
+     * The max period of the merged metrics kept in the L1 cache. Unit is ms.
+     */
+    private final long l1FlushPeriod;
+    private long lastSendTime = 0;
 
     MetricsAggregateWorker(ModuleDefineHolder moduleDefineHolder, AbstractWorker<Metrics> nextWorker,
-                           String modelName) {
+                           String modelName, long l1FlushPeriod) {
         super(moduleDefineHolder);
         this.nextWorker = nextWorker;
         this.mergeDataCache = new MergableBufferedData();
+        this.l1FlushPeriod = l1FlushPeriod;
         String name = "METRICS_L1_AGGREGATION";
         this.dataCarrier = new DataCarrier<>("MetricsAggregateWorker." + modelName, name, 2, 10000);
 
@@ -71,6 +87,26 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
             "metrics_aggregation", "The number of rows in aggregation",
             new MetricsTag.Keys("metricName", "level", "dimensionality"), new MetricsTag.Values(modelName, "1", "minute")
         );
+        flushCounter = metricsCreator.createCounter(
+            "metrics_aggregation_flushed", "The number of rows sent to the next worker after aggregation",
+            new MetricsTag.Keys("metricName", "level", "dimensionality"), new MetricsTag.Values(modelName, "1", "minute")
+        );
+        queueUsageGauges = new GaugeMetrics[dataCarrier.getChannels().getChannelSize()];
+        for (int i = 0; i < queueUsageGauges.length; i++) {
+            queueUsageGauges[i] = metricsCreator.createGauge(
+                "metrics_aggregation_queue_used_percentage", "The percentage of queue used in aggregation",
+                new MetricsTag.Keys("metricName", "level", "channel"),
+                new MetricsTag.Values(modelName, "1", String.valueOf(i))
+            );
+        }
+        queueDroppedCounter = new ChannelsDroppedCounter<>(
+            dataCarrier.getChannels(),
+            channel -> metricsCreator.createCounter(
+                "metrics_aggregation_queue_dropped", "The number of metrics dropped as the aggregation queue is full",
+                new MetricsTag.Keys("metricName", "level", "channel"),
+                new MetricsTag.Values(modelName, "1", String.valueOf(channel))
+            )
+        );
     }
 
     /**
@@ -93,14 +129,42 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
             mergeDataCache.accept(metrics);
         });
 
-        mergeDataCache.read().forEach(
-            data -> {
-                if (log.isDebugEnabled()) {
-                    log.debug(data.toString());
+        flush();
+        reportQueueUsage();
+    }
+
+    /**
+     * Report the occupancy and the dropped data of every channel, measured after the consuming, so it shows the data
+     * accumulated while the consumer was busy.
+     */
+    private void reportQueueUsage() {
+        final Channels<Metrics> channels = dataCarrier.getChannels();
+        for (int i = 0; i < queueUsageGauges.length; i++) {
+            final QueueBuffer<Metrics> buffer = channels.getBuffer(i);
+            queueUsageGauges[i].setValue(100.0 * buffer.size() / buffer.getBufferSize());
+        }
+        queueDroppedCounter.report();
+    }
+
+    /**
+     * Send the merged metrics to the next worker, if the flush period is reached, or the current minute is different
+     * from the last sending time. The minute boundary check makes sure the metrics of the last minute are sent without
+     * waiting for an extra period.
+     */
+    private void flush() {
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastSendTime >= l1FlushPeriod || currentTime / 60_000 != lastSendTime / 60_000) {
+            mergeDataCache.read().forEach(
+                data -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug(data.toString());
+                    }
+                    flushCounter.inc();
+                    nextWorker.in(data);
                 }
-                nextWorker.in(data);
-            }
-        );
+            );
+            lastSendTime = currentTime;
+        }
     }
 
     private class AggregatorConsumer implements IConsumer<Metrics> {
@@ -121,5 +185,10 @@ public class MetricsAggregateWorker extends AbstractWorker<Metrics> {
         @Override
         public void onExit() {
         }
+
+        @Override
+        public void nothingToConsume() {
+            MetricsAggregateWorker.this.flush();
+        }
     }
 }
@@ -22,11 +22,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
@@ -52,8 +51,9 @@ import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
  */
 @Slf4j
 public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
+    @Getter
     private final Model model;
-    private final Map<Metrics, Metrics> context;
+    private final MetricsSessionCache sessionCache;
     private final IMetricsDAO metricsDAO;
     private final Optional<AbstractWorker<Metrics>> nextAlarmWorker;
     private final Optional<AbstractWorker<ExportEvent>> nextExportWorker;
@@ -65,10 +65,10 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
 
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
                             AbstractWorker<Metrics> nextAlarmWorker, AbstractWorker<ExportEvent> nextExportWorker,
-                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate) {
+                            MetricsTransWorker transWorker, boolean enableDatabaseSession, boolean supportUpdate,
+                            int maxSizeOfMetricsSession) {
         super(moduleDefineHolder, new ReadWriteSafeCache<>(new MergableBufferedData(), new MergableBufferedData()));
         this.model = model;
-        this.context = new HashMap<>(100);
         this.enableDatabaseSession = enableDatabaseSession;
         this.metricsDAO = metricsDAO;
         this.nextAlarmWorker = Optional.ofNullable(nextAlarmWorker);
@@ -99,16 +99,31 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
             new MetricsTag.Keys("metricName", "level", "dimensionality"),
             new MetricsTag.Values(model.getName(), "2", model.getDownsampling().getName())
         );
+        this.sessionCache = new MetricsSessionCache(
+            maxSizeOfMetricsSession, model.getDownsampling(),
+            sessionCacheCounter(metricsCreator, "hit"),
+            sessionCacheCounter(metricsCreator, "miss"),
+            sessionCacheCounter(metricsCreator, "evicted"),
+            sessionCacheCounter(metricsCreator, "expired")
+        );
     }
 
     /**
      * Create the leaf MetricsPersistentWorker, no next step.
      */
     MetricsPersistentWorker(ModuleDefineHolder moduleDefineHolder, Model model, IMetricsDAO metricsDAO,
-                            boolean enableDatabaseSession, boolean supportUpdate) {
+                            boolean enableDatabaseSession, boolean supportUpdate, int maxSizeOfMetricsSession) {
         this(moduleDefineHolder, model, metricsDAO,
              null, null, null,
-             enableDatabaseSession, supportUpdate
+             enableDatabaseSession, supportUpdate, maxSizeOfMetricsSession
+        );
+    }
+
+    private CounterMetrics sessionCacheCounter(MetricsCreator metricsCreator, String status) {
+        return metricsCreator.createCounter(
+            "metrics_persistent_session_cache", "The number of hit, miss, evicted and expired metrics in the session cache",
+            new MetricsTag.Keys("metricName", "dimensionality", "status"),
+            new MetricsTag.Values(model.getName(), model.getDownsampling().getName(), status)
         );
     }
 
@@ -159,10 +174,10 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
     private void flushDataToStorage(List<Metrics> metricsList,
                                     List<PrepareRequest> prepareRequests) {
         try {
-            loadFromStorage(metricsList);
+            final Map<Metrics, Metrics> cachedMetricsMap = loadFromStorage(metricsList);
 
             for (Metrics metrics : metricsList) {
-                Metrics cachedMetrics = context.get(metrics);
+                Metrics cachedMetrics = cachedMetricsMap.get(metrics);
                 if (cachedMetrics != null) {
                     /*
                      * If the metrics is not supportUpdate, defined through MetricsExtension#supportUpdate,
@@ -208,32 +223,38 @@ public class MetricsPersistentWorker extends PersistenceWorker<Metrics> {
 
     /**
      * Load data from the storage, if {@link #enableDatabaseSession} == true, only load data when the id doesn't exist.
+     *
+     * @return the existing metrics of the given list. It is kept apart from the session cache, because the bounded
+     * session cache could evict some of them before they are merged.
      */
-    private void loadFromStorage(List<Metrics> metrics) throws IOException {
+    private Map<Metrics, Metrics> loadFromStorage(List<Metrics> metrics) throws IOException {
         if (!enableDatabaseSession) {
-            context.clear();
+            sessionCache.clear();
         }
 
-        List<Metrics> noInCacheMetrics = metrics.stream()
-                                                .filter(m -> !context.containsKey(m))
-                                                .collect(Collectors.toList());
+        final Map<Metrics, Metrics> cachedMetricsMap = new HashMap<>(metrics.size());
+        final List<Metrics> noInCacheMetrics = new ArrayList<>();
+        for (Metrics m : metrics) {
+            final Metrics cached = sessionCache.lookup(m);
+            if (cached != null) {
+                cachedMetricsMap.put(cached, cached);
+            } else {
+                noInCacheMetrics.add(m);
+            }
+        }
         if (!noInCacheMetrics.isEmpty()) {
-            metricsDAO.multiGet(model, noInCacheMetrics).forEach(m -> context.put(m, m));
+            metricsDAO.multiGet(model, noInCacheMetrics).forEach(m -> {
+                cachedMetricsMap.put(m, m);
+                sessionCache.put(m);
+            });
         }
+        return cachedMetricsMap;
     }
 
     @Override
     public void endOfRound(long tookTime) {
         if (enableDatabaseSession) {
-            Iterator<Metrics> iterator = context.values().iterator();
-            while (iterator.hasNext()) {
-                Metrics metrics = iterator.next();
-                metrics.extendSurvivalTime(tookTime);
-                // 70,000ms means more than one minute.
-                if (metrics.getSurvivalTime() > 70000) {
-                    iterator.remove();
-                }
-            }
+            sessionCache.removeExpired(tookTime);
         }
     }
 
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+
+/**
+ * MetricsSessionCache hosts the metrics loaded from the storage by the {@link MetricsPersistentWorker}, so the
+ * following rounds could merge the new metrics without reading them again.
+ *
+ * The cache is bounded by the max size, the least recently used metrics is evicted when the size is reached. The
+ * metrics is also expired when it stays in the cache longer than the timeout of its downsampling, as the time bucket
+ * of it is not going to receive new data anymore.
+ *
+ * This cache is not thread safe, it is only accessed by the persistence round of the owner worker.
+ */
+class MetricsSessionCache {
+    private final Map<Metrics, Metrics> sessionCache;
+    private final long timeoutThreshold;
+    private final CounterMetrics hitCounter;
+    private final CounterMetrics missCounter;
+    private final CounterMetrics expiredCounter;
+
+    MetricsSessionCache(int maxSize, DownSampling downSampling, CounterMetrics hitCounter, CounterMetrics missCounter,
+                        CounterMetrics evictedCounter, CounterMetrics expiredCounter) {
+        this.sessionCache = new LinkedHashMap<Metrics, Metrics>(Math.min(maxSize, 100), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Metrics, Metrics> eldest) {
+                if (size() > maxSize) {
+                    evictedCounter.inc();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.timeoutThreshold = timeoutThreshold(downSampling);
+        this.hitCounter = hitCounter;
+        this.missCounter = missCounter;
+        this.expiredCounter = expiredCounter;
+    }
+
+    /**
+     * @return the cached metrics with the same ID, or null if it doesn't exist. The hit and miss are counted.
+     */
+    Metrics lookup(Metrics metrics) {
+        final Metrics cached = sessionCache.get(metrics);
+        if (cached != null) {
+            hitCounter.inc();
+        } else {
+            missCounter.inc();
+        }
+        return cached;
+    }
+
+    void put(Metrics metrics) {
+        sessionCache.put(metrics, metrics);
+    }
+
+    void clear() {
+        sessionCache.clear();
+    }
+
+    int size() {
+        return sessionCache.size();
+    }
+
+    /**
+     * Extend the survival time of all cached metrics, and remove the ones longer than the timeout.
+     *
+     * @param tookTime the time of the last persistence round.
+     */
+    void removeExpired(long tookTime) {
+        Iterator<Metrics> iterator = sessionCache.values().iterator();
+        while (iterator.hasNext()) {
+            Metrics metrics = iterator.next();
+            metrics.extendSurvivalTime(tookTime);
+            if (metrics.getSurvivalTime() > timeoutThreshold) {
+                iterator.remove();
+                expiredCounter.inc();
+            }
+        }
+    }
+
+    /**
+     * The time bucket of the metrics only receives new data in its own period, 10s more is given for the delayed data.
+     * 70,000ms means more than one minute.
+     */
+    static long timeoutThreshold(DownSampling downSampling) {
+        switch (downSampling) {
+            case Hour:
+                return 3_610_000;
+            case Day:
+                return 86_410_000;
+            default:
+                return 70_000;
+        }
+    }
+}
@@ -32,8 +32,11 @@ import org.apache.skywalking.oap.server.core.analysis.MetricsExtension;
 import org.apache.skywalking.oap.server.core.analysis.Stream;
 import org.apache.skywalking.oap.server.core.analysis.StreamDefinition;
 import org.apache.skywalking.oap.server.core.analysis.StreamProcessor;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationClientSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
 import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
 import org.apache.skywalking.oap.server.core.config.DownSamplingConfigService;
+import org.apache.skywalking.oap.server.core.query.ServiceRelationIndex;
 import org.apache.skywalking.oap.server.core.storage.IMetricsDAO;
 import org.apache.skywalking.oap.server.core.storage.StorageBuilderFactory;
 import org.apache.skywalking.oap.server.core.storage.StorageDAO;
@@ -43,6 +46,7 @@ import org.apache.skywalking.oap.server.core.storage.annotation.Storage;
 import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.storage.model.ModelCreator;
 import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceSetter;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
 
@@ -77,6 +81,27 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
     @Getter
     private boolean enableDatabaseSession;
 
+    /**
+     * Hold and forward CoreModuleConfig#l1FlushPeriod to the L1 aggregate worker.
+     */
+    @Setter
+    @Getter
+    private long l1FlushPeriod = 500;
+
+    /**
+     * Hold and forward CoreModuleConfig#maxSizeOfMetricsSession to the persistent workers.
+     */
+    @Setter
+    @Getter
+    private int maxSizeOfMetricsSession = 50_000;
+
+    /**
+     * Hold and forward the index of the service relations to their minute persistent workers, null means no index.
+     */
+    @Setter
+    @Getter
+    private ServiceRelationIndex serviceRelationIndex;
+
     public static MetricsStreamProcessor getInstance() {
         return PROCESSOR;
     }
@@ -157,7 +182,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
         Model model = modelSetter.add(
             metricsClass, stream.getScopeId(), new Storage(stream.getName(), DownSampling.Minute), false);
         MetricsPersistentWorker minutePersistentWorker = minutePersistentWorker(
-            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate);
+            moduleDefineHolder, metricsDAO, model, transWorker, supportUpdate, metricsClass);
 
         String remoteReceiverWorkerName = stream.getName() + "_rec";
         IWorkerInstanceSetter workerInstanceSetter = moduleDefineHolder.find(CoreModule.NAME)
@@ -167,7 +192,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
 
         MetricsRemoteWorker remoteWorker = new MetricsRemoteWorker(moduleDefineHolder, remoteReceiverWorkerName);
         MetricsAggregateWorker aggregateWorker = new MetricsAggregateWorker(
-            moduleDefineHolder, remoteWorker, stream.getName());
+            moduleDefineHolder, remoteWorker, stream.getName(), l1FlushPeriod);
 
         entryWorkers.put(metricsClass, aggregateWorker);
     }
@@ -176,13 +201,19 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                                                            IMetricsDAO metricsDAO,
                                                            Model model,
                                                            MetricsTransWorker transWorker,
-                                                           boolean supportUpdate) {
-        AlarmNotifyWorker alarmNotifyWorker = new AlarmNotifyWorker(moduleDefineHolder);
+                                                           boolean supportUpdate,
+                                                           Class<? extends Metrics> metricsClass) {
+        AbstractWorker<Metrics> nextAlarmWorker = new AlarmNotifyWorker(moduleDefineHolder);
+        if (serviceRelationIndex != null && (ServiceRelationServerSideMetrics.class.equals(metricsClass)
+            || ServiceRelationClientSideMetrics.class.equals(metricsClass))) {
+            nextAlarmWorker = new ServiceRelationIndexWorker(
+                moduleDefineHolder, serviceRelationIndex, nextAlarmWorker);
+        }
         ExportWorker exportWorker = new ExportWorker(moduleDefineHolder);
 
         MetricsPersistentWorker minutePersistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, alarmNotifyWorker, exportWorker, transWorker, enableDatabaseSession,
-            supportUpdate
+            moduleDefineHolder, model, metricsDAO, nextAlarmWorker, exportWorker, transWorker, enableDatabaseSession,
+            supportUpdate, maxSizeOfMetricsSession
         );
         persistentWorkers.add(minutePersistentWorker);
 
@@ -194,7 +225,7 @@ public class MetricsStreamProcessor implements StreamProcessor<Metrics> {
                                                        Model model,
                                                        boolean supportUpdate) {
         MetricsPersistentWorker persistentWorker = new MetricsPersistentWorker(
-            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate);
+            moduleDefineHolder, model, metricsDAO, enableDatabaseSession, supportUpdate, maxSizeOfMetricsSession);
         persistentWorkers.add(persistentWorker);
 
         return persistentWorker;
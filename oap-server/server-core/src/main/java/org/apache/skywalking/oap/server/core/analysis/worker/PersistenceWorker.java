@@ -25,6 +25,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.oap.server.core.analysis.data.ReadWriteSafeCache;
 import org.apache.skywalking.oap.server.core.storage.StorageData;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
@@ -52,6 +53,11 @@ public abstract class PersistenceWorker<INPUT extends StorageData> extends Abstr
         cache.write(input);
     }
 
+    /**
+     * @return the storage model of the data persisted by this worker.
+     */
+    public abstract Model getModel();
+
     /**
      * The persistence process is driven by the {@link org.apache.skywalking.oap.server.core.storage.PersistenceTimer}.
      * This is a notification method for the worker when every round finished.
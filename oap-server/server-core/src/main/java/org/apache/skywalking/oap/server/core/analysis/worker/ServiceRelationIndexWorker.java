@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.ServiceRelationIndex;
+import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
+import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
+
+/**
+ * Service relation index worker, indexes the persisted service relations into the {@link ServiceRelationIndex} before
+ * routing them to the next worker.
+ */
+public class ServiceRelationIndexWorker extends AbstractWorker<Metrics> {
+    private final ServiceRelationIndex index;
+    private final AbstractWorker<Metrics> nextWorker;
+
+    public ServiceRelationIndexWorker(ModuleDefineHolder moduleDefineHolder, ServiceRelationIndex index,
+                                      AbstractWorker<Metrics> nextWorker) {
+        super(moduleDefineHolder);
+        this.index = index;
+        this.nextWorker = nextWorker;
+    }
+
+    @Override
+    public void in(Metrics metrics) {
+        index.index(metrics);
+        nextWorker.in(metrics);
+    }
+}
@@ -37,10 +37,19 @@ import org.apache.skywalking.oap.server.library.module.Service;
 
 public class AggregationQueryService implements Service {
     private final ModuleManager moduleManager;
+    private final QueryResultCache queryResultCache;
     private IAggregationQueryDAO aggregationQueryDAO;
 
     public AggregationQueryService(ModuleManager moduleManager) {
+        this(moduleManager, null);
+    }
+
+    /**
+     * @param queryResultCache caches the results of the closed durations, null means no cache.
+     */
+    public AggregationQueryService(ModuleManager moduleManager, QueryResultCache queryResultCache) {
         this.moduleManager = moduleManager;
+        this.queryResultCache = queryResultCache;
     }
 
     private IAggregationQueryDAO getAggregationQueryDAO() {
@@ -54,14 +63,24 @@ public class AggregationQueryService implements Service {
 
     public List<SelectedRecord> sortMetrics(TopNCondition condition, Duration duration) throws IOException {
         final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
-        List<KeyValue> additionalConditions = null;
+        final List<KeyValue> additionalConditions;
         if (StringUtil.isNotEmpty(condition.getParentService())) {
             additionalConditions = new ArrayList<>(1);
             final String serviceId = IDManager.ServiceID.buildId(condition.getParentService(), condition.isNormal());
             additionalConditions.add(new KeyValue(InstanceTraffic.SERVICE_ID, serviceId));
+        } else {
+            additionalConditions = null;
+        }
+        final List<SelectedRecord> selectedRecords;
+        if (queryResultCache != null) {
+            selectedRecords = queryResultCache.sortMetrics(
+                condition, duration,
+                d -> getAggregationQueryDAO().sortMetrics(condition, valueCName, d, additionalConditions)
+            );
+        } else {
+            selectedRecords = getAggregationQueryDAO().sortMetrics(
+                condition, valueCName, duration, additionalConditions);
         }
-        final List<SelectedRecord> selectedRecords = getAggregationQueryDAO().sortMetrics(
-            condition, valueCName, duration, additionalConditions);
         selectedRecords.forEach(selectedRecord -> {
             switch (condition.getScope()) {
                 case Service:
@@ -163,6 +163,25 @@ public enum DurationUtils {
         throw new UnexpectedException("Unsupported step " + step.name());
     }
 
+    /**
+     * Convert the time bucket back to the date in the format of the duration, such as `yyyy-MM-dd HHmm` in minute
+     * precision. This is the reverse of {@link #convertToTimeBucket(String)}.
+     */
+    public String timeBucketToDateStr(Step step, long timeBucket) {
+        final DateTime dateTime = parseToDateTime(step, timeBucket);
+        switch (step) {
+            case DAY:
+                return YYYY_MM_DD.print(dateTime);
+            case HOUR:
+                return YYYY_MM_DD_HH.print(dateTime);
+            case MINUTE:
+                return YYYY_MM_DD_HHMM.print(dateTime);
+            case SECOND:
+                return YYYY_MM_DD_HHMMSS.print(dateTime);
+        }
+        throw new UnexpectedException("Unsupported step " + step.name());
+    }
+
     private DateTime parseToDateTime(Step step, long time) {
         switch (step) {
             case DAY:
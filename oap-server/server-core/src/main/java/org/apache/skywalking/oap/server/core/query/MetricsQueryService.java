@@ -34,10 +34,19 @@ import org.apache.skywalking.oap.server.library.module.Service;
 @Slf4j
 public class MetricsQueryService implements Service {
     private final ModuleManager moduleManager;
+    private final QueryResultCache queryResultCache;
     private IMetricsQueryDAO metricQueryDAO;
 
     public MetricsQueryService(ModuleManager moduleManager) {
+        this(moduleManager, null);
+    }
+
+    /**
+     * @param queryResultCache caches the results of the closed time buckets, null means no cache.
+     */
+    public MetricsQueryService(ModuleManager moduleManager, QueryResultCache queryResultCache) {
         this.moduleManager = moduleManager;
+        this.queryResultCache = queryResultCache;
     }
 
     private IMetricsQueryDAO getMetricQueryDAO() {
@@ -59,8 +68,12 @@ public class MetricsQueryService implements Service {
      * Read time-series values in the duration of required metrics
      */
     public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (queryResultCache != null) {
+            return queryResultCache.readMetricsValues(
+                condition, duration, d -> getMetricQueryDAO().readMetricsValues(condition, valueCName, d));
+        }
+        return getMetricQueryDAO().readMetricsValues(condition, valueCName, duration);
     }
 
     /**
@@ -71,15 +84,25 @@ public class MetricsQueryService implements Service {
     public List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition,
                                                         List<String> labels,
                                                         Duration duration) throws IOException {
-        return getMetricQueryDAO().readLabeledMetricsValues(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), labels, duration);
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (queryResultCache != null) {
+            return queryResultCache.readLabeledMetricsValues(
+                condition, labels, duration,
+                d -> getMetricQueryDAO().readLabeledMetricsValues(condition, valueCName, labels, d)
+            );
+        }
+        return getMetricQueryDAO().readLabeledMetricsValues(condition, valueCName, labels, duration);
     }
 
     /**
      * Heatmap is bucket based value statistic result.
      */
     public HeatMap readHeatMap(MetricsCondition condition, Duration duration) throws IOException {
-        return getMetricQueryDAO().readHeatMap(
-            condition, ValueColumnMetadata.INSTANCE.getValueCName(condition.getName()), duration);
+        final String valueCName = ValueColumnMetadata.INSTANCE.getValueCName(condition.getName());
+        if (queryResultCache != null) {
+            return queryResultCache.readHeatMap(
+                condition, duration, d -> getMetricQueryDAO().readHeatMap(condition, valueCName, d));
+        }
+        return getMetricQueryDAO().readHeatMap(condition, valueCName, duration);
     }
 }
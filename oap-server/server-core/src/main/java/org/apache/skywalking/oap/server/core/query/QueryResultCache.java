@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.input.TopNCondition;
+import org.apache.skywalking.oap.server.core.query.type.Bucket;
+import org.apache.skywalking.oap.server.core.query.type.HeatMap;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.core.query.type.SelectedRecord;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetadata;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsCreator;
+import org.apache.skywalking.oap.server.telemetry.api.MetricsTag;
+import org.apache.skywalking.oap.server.telemetry.none.MetricsCreatorNoop;
+
+/**
+ * QueryResultCache hosts the query results of the closed time buckets for the {@link MetricsQueryService} and the
+ * {@link AggregationQueryService}. A time bucket is closed when its end time is earlier than now by more than the
+ * closed delay, then the metrics of it have been persisted and are not going to change anymore.
+ *
+ * The time series queries are cached per time bucket. The leading closed buckets of the duration are read from the
+ * cache, and only the rest of the duration, usually the latest open bucket, is read from the storage. The sorted
+ * metrics are cached as a whole, only when all buckets of the duration are closed.
+ *
+ * The cache is bounded by the number of the cached values, the least recently used ones are evicted when the size is
+ * reached. The number of the time buckets served from the cache and read from the storage are reported by the
+ * `query_result_cache` telemetry.
+ */
+public class QueryResultCache {
+    private static final String METRICS_VALUES = "readMetricsValues";
+    private static final String LABELED_METRICS_VALUES = "readLabeledMetricsValues";
+    private static final String HEAT_MAP = "readHeatMap";
+    private static final String SORT_METRICS = "sortMetrics";
+
+    private final Cache<List<Object>, Object> cache;
+    private final long closedDelay;
+    private final LongSupplier clock;
+    private Counters metricsValuesCounters;
+    private Counters labeledMetricsValuesCounters;
+    private Counters heatMapCounters;
+    private Counters sortMetricsCounters;
+
+    /**
+     * @param maxSize     the max number of the cached values.
+     * @param closedDelay the milliseconds after the end of a time bucket, when the bucket is treated as closed.
+     */
+    public QueryResultCache(long maxSize, long closedDelay) {
+        this(maxSize, closedDelay, System::currentTimeMillis);
+    }
+
+    QueryResultCache(long maxSize, long closedDelay, LongSupplier clock) {
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumWeight(maxSize)
+                                 .weigher((List<Object> key, Object value) -> weigh(value))
+                                 .build();
+        this.closedDelay = closedDelay;
+        this.clock = clock;
+        start(new MetricsCreatorNoop());
+    }
+
+    /**
+     * Create the hit and miss telemetry by the given creator.
+     */
+    public void start(MetricsCreator metricsCreator) {
+        metricsValuesCounters = new Counters(metricsCreator, METRICS_VALUES);
+        labeledMetricsValuesCounters = new Counters(metricsCreator, LABELED_METRICS_VALUES);
+        heatMapCounters = new Counters(metricsCreator, HEAT_MAP);
+        sortMetricsCounters = new Counters(metricsCreator, SORT_METRICS);
+    }
+
+    public MetricsValues readMetricsValues(MetricsCondition condition, Duration duration,
+                                           DurationReader<MetricsValues> reader) throws IOException {
+        final List<PointOfTime> points = new ArrayList<>(duration.assembleDurationPoints());
+        final List<Object> series = Arrays.asList(METRICS_VALUES, condition.getName(), entityId(condition));
+        final List<KVInt> cached = lookup(series, duration.getStep(), points);
+        final MetricsValues result = new MetricsValues();
+        if (cached.size() < points.size()) {
+            final MetricsValues read = reader.read(remaining(duration, points, cached.size()));
+            final List<KVInt> values = read.getValues().getValues();
+            if (values.size() != points.size() - cached.size()) {
+                return cached.isEmpty() ? read : reader.read(duration);
+            }
+            final List<KVInt> copies = new ArrayList<>(values.size());
+            values.forEach(kv -> copies.add(copy(kv)));
+            store(series, duration.getStep(), points, cached.size(), copies);
+            if (cached.isEmpty()) {
+                metricsValuesCounters.count(0, values.size());
+                return read;
+            }
+            result.setLabel(read.getLabel());
+            cached.forEach(kv -> result.getValues().addKVInt(copy(kv)));
+            values.forEach(result.getValues()::addKVInt);
+        } else {
+            cached.forEach(kv -> result.getValues().addKVInt(copy(kv)));
+        }
+        metricsValuesCounters.count(cached.size(), points.size() - cached.size());
+        return result;
+    }
+
+    /**
+     * The labeled values are cached only when the labels are given, otherwise the labels are decided by the existing
+     * data, which may be different in any duration.
+     */
+    public List<MetricsValues> readLabeledMetricsValues(MetricsCondition condition, List<String> labels,
+                                                        Duration duration,
+                                                        DurationReader<List<MetricsValues>> reader) throws IOException {
+        if (labels == null || labels.isEmpty() || labels.stream().anyMatch(Objects::isNull)) {
+            return reader.read(duration);
+        }
+        final List<String> sortedLabels = new ArrayList<>(new TreeSet<>(labels));
+        final List<PointOfTime> points = new ArrayList<>(duration.assembleDurationPoints());
+        final List<Object> series = Arrays.asList(
+            LABELED_METRICS_VALUES, condition.getName(), entityId(condition), sortedLabels);
+        final List<LabeledPoint> cached = lookup(series, duration.getStep(), points);
+        final int remaining = points.size() - cached.size();
+        List<MetricsValues> read = Collections.emptyList();
+        if (remaining > 0) {
+            read = reader.read(remaining(duration, points, cached.size()));
+            if (!matches(read, sortedLabels, remaining)) {
+                return cached.isEmpty() ? read : reader.read(duration);
+            }
+            final List<LabeledPoint> readPoints = new ArrayList<>(remaining);
+            for (int i = 0; i < remaining; i++) {
+                final long[] values = new long[sortedLabels.size()];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = read.get(j).getValues().getValues().get(i).getValue();
+                }
+                readPoints.add(new LabeledPoint(read.get(0).getValues().getValues().get(i).getId(), values));
+            }
+            store(series, duration.getStep(), points, cached.size(), readPoints);
+            if (cached.isEmpty()) {
+                labeledMetricsValuesCounters.count(0, remaining);
+                return read;
+            }
+        }
+
+        final List<MetricsValues> result = new ArrayList<>(sortedLabels.size());
+        for (int j = 0; j < sortedLabels.size(); j++) {
+            final MetricsValues values = new MetricsValues();
+            values.setLabel(sortedLabels.get(j));
+            for (final LabeledPoint point : cached) {
+                final KVInt kv = new KVInt();
+                kv.setId(point.id);
+                kv.setValue(point.values[j]);
+                values.getValues().addKVInt(kv);
+            }
+            if (remaining > 0) {
+                read.get(j).getValues().getValues().forEach(values.getValues()::addKVInt);
+            }
+            result.add(values);
+        }
+        labeledMetricsValuesCounters.count(cached.size(), remaining);
+        return result;
+    }
+
+    public HeatMap readHeatMap(MetricsCondition condition, Duration duration,
+                               DurationReader<HeatMap> reader) throws IOException {
+        final List<PointOfTime> points = new ArrayList<>(duration.assembleDurationPoints());
+        final List<Object> series = Arrays.asList(HEAT_MAP, condition.getName(), entityId(condition));
+        final List<HeatMapPoint> cached = lookup(series, duration.getStep(), points);
+        final int remaining = points.size() - cached.size();
+        HeatMap read = null;
+        if (remaining > 0) {
+            read = reader.read(remaining(duration, points, cached.size()));
+            if (read.getValues().size() != remaining) {
+                return cached.isEmpty() ? read : reader.read(duration);
+            }
+            final List<Bucket> buckets = new ArrayList<>(read.getBuckets());
+            final List<HeatMapPoint> readPoints = new ArrayList<>(remaining);
+            read.getValues().forEach(column -> readPoints.add(new HeatMapPoint(buckets, copy(column))));
+            store(series, duration.getStep(), points, cached.size(), readPoints);
+            if (cached.isEmpty()) {
+                heatMapCounters.count(0, remaining);
+                return read;
+            }
+        }
+
+        List<Bucket> buckets = read != null ? read.getBuckets() : Collections.emptyList();
+        for (int i = 0; i < cached.size() && buckets.isEmpty(); i++) {
+            buckets = cached.get(i).buckets;
+        }
+        final HeatMap result = new HeatMap();
+        buckets.forEach(result::addBucket);
+        final int defaultValue = ValueColumnMetadata.INSTANCE.getDefaultValue(condition.getName());
+        for (final HeatMapPoint point : cached) {
+            final HeatMap.HeatMapColumn column = copy(point.column);
+            if (column.getValues().isEmpty()) {
+                buckets.forEach(bucket -> column.addValue((long) defaultValue));
+            } else if (column.getValues().size() != buckets.size()) {
+                // The buckets are changed, the cached columns could not be merged with the new ones.
+                return reader.read(duration);
+            }
+            result.getValues().add(column);
+        }
+        if (read != null) {
+            for (final HeatMap.HeatMapColumn column : read.getValues()) {
+                if (column.getValues().isEmpty()) {
+                    buckets.forEach(bucket -> column.addValue((long) defaultValue));
+                } else if (column.getValues().size() != buckets.size()) {
+                    return reader.read(duration);
+                }
+                result.getValues().add(column);
+            }
+        }
+        heatMapCounters.count(cached.size(), remaining);
+        return result;
+    }
+
+    /**
+     * The sorted metrics are cached only when the whole duration is closed, as the order may be changed by any open
+     * time bucket.
+     */
+    public List<SelectedRecord> sortMetrics(TopNCondition condition, Duration duration,
+                                            DurationReader<List<SelectedRecord>> reader) throws IOException {
+        final int size = duration.assembleDurationPoints().size();
+        if (!isClosed(duration.getStep(), duration.getEndTimeBucket())) {
+            sortMetricsCounters.count(0, size);
+            return reader.read(duration);
+        }
+        final List<Object> key = Arrays.asList(
+            SORT_METRICS, condition.getName(), condition.getParentService(), condition.isNormal(),
+            condition.getScope(), condition.getTopN(), condition.getOrder(),
+            duration.getStep(), duration.getStartTimeBucket(), duration.getEndTimeBucket()
+        );
+        @SuppressWarnings("unchecked")
+        List<SelectedRecord> records = (List<SelectedRecord>) cache.getIfPresent(key);
+        if (records != null) {
+            sortMetricsCounters.count(size, 0);
+        } else {
+            records = reader.read(duration);
+            cache.put(key, new ArrayList<>(records));
+            sortMetricsCounters.count(0, size);
+        }
+        return new ArrayList<>(records);
+    }
+
+    /**
+     * @return the cached values of the leading closed time buckets, stops at the first one not in the cache.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> lookup(List<Object> series, Step step, List<PointOfTime> points) {
+        final List<T> cached = new ArrayList<>(points.size());
+        for (final PointOfTime point : points) {
+            final T value = (T) cache.getIfPresent(pointKey(series, step, point));
+            if (value == null) {
+                break;
+            }
+            cached.add(value);
+        }
+        return cached;
+    }
+
+    /**
+     * Cache the values of the closed time buckets, which are read from the given offset of the points.
+     */
+    private <T> void store(List<Object> series, Step step, List<PointOfTime> points, int offset, List<T> values) {
+        for (int i = 0; i < values.size(); i++) {
+            final PointOfTime point = points.get(offset + i);
+            if (!isClosed(step, point.getPoint())) {
+                return;
+            }
+            cache.put(pointKey(series, step, point), values.get(i));
+        }
+    }
+
+    private boolean isClosed(Step step, long timeBucket) {
+        final String date = DurationUtils.INSTANCE.timeBucketToDateStr(step, timeBucket);
+        return DurationUtils.INSTANCE.endTimeToTimestamp(step, date) + closedDelay <= clock.getAsLong();
+    }
+
+    private static List<Object> pointKey(List<Object> series, Step step, PointOfTime point) {
+        return Arrays.asList(series, step, point.getPoint());
+    }
+
+    /**
+     * @return the duration from the point of the given index to the end of the given duration.
+     */
+    private static Duration remaining(Duration duration, List<PointOfTime> points, int from) {
+        if (from == 0) {
+            return duration;
+        }
+        final Duration remaining = new Duration();
+        remaining.setStart(DurationUtils.INSTANCE.timeBucketToDateStr(duration.getStep(), points.get(from).getPoint()));
+        remaining.setEnd(duration.getEnd());
+        remaining.setStep(duration.getStep());
+        return remaining;
+    }
+
+    private static String entityId(MetricsCondition condition) {
+        return condition.getEntity().buildId();
+    }
+
+    /**
+     * @return true if the read values are in the order of the given labels, and have the expected number of points.
+     */
+    private static boolean matches(List<MetricsValues> read, List<String> sortedLabels, int points) {
+        if (read.size() != sortedLabels.size()) {
+            return false;
+        }
+        for (int j = 0; j < sortedLabels.size(); j++) {
+            final MetricsValues values = read.get(j);
+            if (!sortedLabels.get(j).equals(values.getLabel()) || values.getValues().getValues().size() != points) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static KVInt copy(KVInt kv) {
+        final KVInt copy = new KVInt();
+        copy.setId(kv.getId());
+        copy.setValue(kv.getValue());
+        return copy;
+    }
+
+    private static HeatMap.HeatMapColumn copy(HeatMap.HeatMapColumn column) {
+        final HeatMap.HeatMapColumn copy = new HeatMap.HeatMapColumn();
+        copy.setId(column.getId());
+        copy.getValues().addAll(column.getValues());
+        return copy;
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof LabeledPoint) {
+            return Math.max(((LabeledPoint) value).values.length, 1);
+        }
+        if (value instanceof HeatMapPoint) {
+            return Math.max(((HeatMapPoint) value).column.getValues().size(), 1);
+        }
+        if (value instanceof List) {
+            return Math.max(((List<?>) value).size(), 1);
+        }
+        return 1;
+    }
+
+    /**
+     * Read the query result of the given duration from the storage.
+     */
+    @FunctionalInterface
+    public interface DurationReader<T> {
+        T read(Duration duration) throws IOException;
+    }
+
+    @RequiredArgsConstructor
+    private static class LabeledPoint {
+        private final String id;
+        private final long[] values;
+    }
+
+    @RequiredArgsConstructor
+    private static class HeatMapPoint {
+        private final List<Bucket> buckets;
+        private final HeatMap.HeatMapColumn column;
+    }
+
+    private static class Counters {
+        private final CounterMetrics hit;
+        private final CounterMetrics miss;
+
+        private Counters(MetricsCreator metricsCreator, String query) {
+            hit = counter(metricsCreator, query, "hit");
+            miss = counter(metricsCreator, query, "miss");
+        }
+
+        private void count(int hits, int misses) {
+            if (hits > 0) {
+                hit.inc(hits);
+            }
+            if (misses > 0) {
+                miss.inc(misses);
+            }
+        }
+
+        private static CounterMetrics counter(MetricsCreator metricsCreator, String query, String status) {
+            return metricsCreator.createCounter(
+                "query_result_cache", "The number of time buckets served from the query result cache or the storage",
+                new MetricsTag.Keys("query", "status"), new MetricsTag.Values(query, status)
+            );
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.TimeBucket;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationClientSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.query.type.Call;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+
+/**
+ * ServiceRelationIndex hosts the service relations of the recent minutes in memory, so the {@link
+ * TopologyQueryService} could build the service topology without the storage. The relations are indexed from the
+ * minute metrics of {@link ServiceRelationServerSideMetrics} and {@link ServiceRelationClientSideMetrics}, when they
+ * are persisted by the L2 aggregation of this OAP node.
+ *
+ * The index only covers the time buckets since this node started, and not older than the retained minutes. The
+ * queries of other time ranges should read the storage. As the relations are distributed to the L2 aggregation of all
+ * OAP nodes, the index only works when this node is the only one doing the aggregation, it is reset when any other
+ * aggregator joins the cluster.
+ */
+public class ServiceRelationIndex {
+    private final ConcurrentNavigableMap<Long, Map<String, Integer>> serverSideRelations;
+    private final ConcurrentNavigableMap<Long, Map<String, Integer>> clientSideRelations;
+    private final int retainedMinutes;
+    private final BooleanSupplier exclusive;
+    private final LongSupplier clock;
+    /**
+     * The first minute time bucket whose relations are all in the index.
+     */
+    private volatile long since;
+    private volatile long latest;
+
+    /**
+     * @param retainedMinutes the number of the recent minutes in the index.
+     * @param exclusive       returns true if this node is the only one doing the L2 aggregation in the cluster.
+     */
+    public ServiceRelationIndex(int retainedMinutes, BooleanSupplier exclusive) {
+        this(retainedMinutes, exclusive, System::currentTimeMillis);
+    }
+
+    ServiceRelationIndex(int retainedMinutes, BooleanSupplier exclusive, LongSupplier clock) {
+        this.serverSideRelations = new ConcurrentSkipListMap<>();
+        this.clientSideRelations = new ConcurrentSkipListMap<>();
+        this.retainedMinutes = retainedMinutes;
+        this.exclusive = exclusive;
+        this.clock = clock;
+        reset();
+    }
+
+    /**
+     * Clear the index, it only covers the time buckets from the next minute. The relations of the current minute may
+     * have been persisted before, or by other nodes.
+     */
+    private synchronized void reset() {
+        final long nextMinute = TimeBucket.getMinuteTimeBucket(clock.getAsLong() + TimeUnit.MINUTES.toMillis(1));
+        if (since < nextMinute) {
+            since = nextMinute;
+            latest = 0;
+            serverSideRelations.clear();
+            clientSideRelations.clear();
+        }
+    }
+
+    /**
+     * Index the relation of the persisted minute metrics, other metrics are ignored.
+     */
+    public void index(Metrics metrics) {
+        if (!exclusive.getAsBoolean()) {
+            reset();
+            return;
+        }
+        if (metrics instanceof ServiceRelationServerSideMetrics) {
+            final ServiceRelationServerSideMetrics relation = (ServiceRelationServerSideMetrics) metrics;
+            index(serverSideRelations, relation.getTimeBucket(), relation.getEntityId(), relation.getComponentId());
+        } else if (metrics instanceof ServiceRelationClientSideMetrics) {
+            final ServiceRelationClientSideMetrics relation = (ServiceRelationClientSideMetrics) metrics;
+            index(clientSideRelations, relation.getTimeBucket(), relation.getEntityId(), relation.getComponentId());
+        }
+    }
+
+    private void index(ConcurrentNavigableMap<Long, Map<String, Integer>> relations, long timeBucket,
+                       String entityId, int componentId) {
+        if (!TimeBucket.isMinuteBucket(timeBucket) || timeBucket < since) {
+            return;
+        }
+        relations.computeIfAbsent(timeBucket, bucket -> new ConcurrentHashMap<>()).putIfAbsent(entityId, componentId);
+        if (timeBucket > latest) {
+            evict(timeBucket);
+        }
+    }
+
+    /**
+     * Remove the relations older than the retained minutes before the given latest time bucket.
+     */
+    private synchronized void evict(long latestTimeBucket) {
+        if (latestTimeBucket <= latest) {
+            return;
+        }
+        latest = latestTimeBucket;
+        final long oldest = TimeBucket.getMinuteTimeBucket(
+            TimeBucket.getTimestamp(latestTimeBucket, DownSampling.Minute)
+                - TimeUnit.MINUTES.toMillis(retainedMinutes - 1));
+        if (oldest > since) {
+            since = oldest;
+        }
+        serverSideRelations.headMap(oldest).clear();
+        clientSideRelations.headMap(oldest).clear();
+    }
+
+    /**
+     * @param startTB the start time bucket of the query, in any downsampling.
+     * @return true if the relations since the given time bucket are all in the index.
+     */
+    public boolean covers(long startTB) {
+        return exclusive.getAsBoolean() && toMinuteTimeBucket(startTB, false) >= since;
+    }
+
+    /**
+     * @return the relations detected at the server side in the given time range, like {@link
+     * org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO#loadServiceRelationsDetectedAtServerSide}
+     */
+    public List<Call.CallDetail> loadServerSideRelations(long startTB, long endTB, Collection<String> serviceIds) {
+        return load(serverSideRelations, startTB, endTB, serviceIds, DetectPoint.SERVER);
+    }
+
+    /**
+     * @return the relations detected at the client side in the given time range, like {@link
+     * org.apache.skywalking.oap.server.core.storage.query.ITopologyQueryDAO#loadServiceRelationDetectedAtClientSide}
+     */
+    public List<Call.CallDetail> loadClientSideRelations(long startTB, long endTB, Collection<String> serviceIds) {
+        return load(clientSideRelations, startTB, endTB, serviceIds, DetectPoint.CLIENT);
+    }
+
+    /**
+     * @param serviceIds the relations with the source or dest service in these services are loaded, null means all
+     *                   relations.
+     */
+    private static List<Call.CallDetail> load(ConcurrentNavigableMap<Long, Map<String, Integer>> relations,
+                                              long startTB, long endTB, Collection<String> serviceIds,
+                                              DetectPoint detectPoint) {
+        final Map<String, Integer> components = new HashMap<>();
+        relations.subMap(toMinuteTimeBucket(startTB, false), true, toMinuteTimeBucket(endTB, true), true)
+                 .values()
+                 .forEach(bucket -> bucket.forEach(components::putIfAbsent));
+
+        final List<Call.CallDetail> calls = new ArrayList<>(components.size());
+        components.forEach((entityId, componentId) -> {
+            final Call.CallDetail call = new Call.CallDetail();
+            call.buildFromServiceRelation(entityId, componentId, detectPoint);
+            if (serviceIds == null || serviceIds.contains(call.getSource()) || serviceIds.contains(call.getTarget())) {
+                calls.add(call);
+            }
+        });
+        return calls;
+    }
+
+    /**
+     * Convert the time bucket in any downsampling to the first or the last minute in it.
+     */
+    private static long toMinuteTimeBucket(long timeBucket, boolean end) {
+        if (TimeBucket.isSecondBucket(timeBucket)) {
+            return timeBucket / 100;
+        } else if (TimeBucket.isHourBucket(timeBucket)) {
+            return timeBucket * 100 + (end ? 59 : 0);
+        } else if (TimeBucket.isDayBucket(timeBucket)) {
+            return timeBucket * 10000 + (end ? 2359 : 0);
+        }
+        return timeBucket;
+    }
+}
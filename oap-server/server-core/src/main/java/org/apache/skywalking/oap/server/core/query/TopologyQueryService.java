@@ -45,11 +45,21 @@ import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 @Slf4j
 public class TopologyQueryService implements Service {
     private final ModuleManager moduleManager;
+    private final ServiceRelationIndex serviceRelationIndex;
     private ITopologyQueryDAO topologyQueryDAO;
     private IComponentLibraryCatalogService componentLibraryCatalogService;
 
     public TopologyQueryService(ModuleManager moduleManager) {
+        this(moduleManager, null);
+    }
+
+    /**
+     * @param serviceRelationIndex loads the service relations of the recent minutes, null means always loading them
+     *                             from the storage.
+     */
+    public TopologyQueryService(ModuleManager moduleManager, ServiceRelationIndex serviceRelationIndex) {
         this.moduleManager = moduleManager;
+        this.serviceRelationIndex = serviceRelationIndex;
     }
 
     private ITopologyQueryDAO getTopologyQueryDAO() {
@@ -70,10 +80,15 @@ public class TopologyQueryService implements Service {
 
     public Topology getGlobalTopology(final long startTB,
                                       final long endTB) throws IOException {
-        List<Call.CallDetail> serviceRelationServerCalls = getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(
-            startTB, endTB);
-        List<Call.CallDetail> serviceRelationClientCalls = getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(
-            startTB, endTB);
+        List<Call.CallDetail> serviceRelationServerCalls;
+        List<Call.CallDetail> serviceRelationClientCalls;
+        if (isIndexed(startTB)) {
+            serviceRelationServerCalls = serviceRelationIndex.loadServerSideRelations(startTB, endTB, null);
+            serviceRelationClientCalls = serviceRelationIndex.loadClientSideRelations(startTB, endTB, null);
+        } else {
+            serviceRelationServerCalls = getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(startTB, endTB);
+            serviceRelationClientCalls = getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(startTB, endTB);
+        }
 
         ServiceTopologyBuilder builder = new ServiceTopologyBuilder(moduleManager);
         return builder.build(serviceRelationClientCalls, serviceRelationServerCalls);
@@ -81,9 +96,9 @@ public class TopologyQueryService implements Service {
 
     public Topology getServiceTopology(final long startTB, final long endTB,
                                        final List<String> serviceIds) throws IOException {
-        List<Call.CallDetail> serviceRelationClientCalls = getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(
+        List<Call.CallDetail> serviceRelationClientCalls = loadServiceRelationDetectedAtClientSide(
             startTB, endTB, serviceIds);
-        List<Call.CallDetail> serviceRelationServerCalls = getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(
+        List<Call.CallDetail> serviceRelationServerCalls = loadServiceRelationsDetectedAtServerSide(
             startTB, endTB, serviceIds);
 
         ServiceTopologyBuilder builder = new ServiceTopologyBuilder(moduleManager);
@@ -104,7 +119,7 @@ public class TopologyQueryService implements Service {
         });
         if (CollectionUtils.isNotEmpty(outScopeSourceServiceIds)) {
             // If exist, query them as the server side to get the target's component.
-            List<Call.CallDetail> sourceCalls = getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(
+            List<Call.CallDetail> sourceCalls = loadServiceRelationsDetectedAtServerSide(
                 startTB, endTB, outScopeSourceServiceIds);
             topology.getNodes().forEach(node -> {
                 if (Strings.isNullOrEmpty(node.getType())) {
@@ -121,6 +136,29 @@ public class TopologyQueryService implements Service {
         return topology;
     }
 
+    private List<Call.CallDetail> loadServiceRelationsDetectedAtServerSide(long startTB, long endTB,
+                                                                           List<String> serviceIds) throws IOException {
+        if (isIndexed(startTB)) {
+            return serviceRelationIndex.loadServerSideRelations(startTB, endTB, new HashSet<>(serviceIds));
+        }
+        return getTopologyQueryDAO().loadServiceRelationsDetectedAtServerSide(startTB, endTB, serviceIds);
+    }
+
+    private List<Call.CallDetail> loadServiceRelationDetectedAtClientSide(long startTB, long endTB,
+                                                                          List<String> serviceIds) throws IOException {
+        if (isIndexed(startTB)) {
+            return serviceRelationIndex.loadClientSideRelations(startTB, endTB, new HashSet<>(serviceIds));
+        }
+        return getTopologyQueryDAO().loadServiceRelationDetectedAtClientSide(startTB, endTB, serviceIds);
+    }
+
+    /**
+     * @return true if the service relations since the given time bucket are all in the {@link ServiceRelationIndex}.
+     */
+    private boolean isIndexed(long startTB) {
+        return serviceRelationIndex != null && serviceRelationIndex.covers(startTB);
+    }
+
     public ServiceInstanceTopology getServiceInstanceTopology(final String clientServiceId,
                                                               final String serverServiceId,
                                                               final long startTB,
@@ -25,6 +25,7 @@ import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessageBatch;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.core.worker.AbstractWorker;
 import org.apache.skywalking.oap.server.core.worker.IWorkerInstanceGetter;
@@ -97,45 +98,40 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
      */
     @Override
     public StreamObserver<RemoteMessage> call(StreamObserver<Empty> responseObserver) {
-        if (Objects.isNull(workerInstanceGetter)) {
-            synchronized (RemoteServiceHandler.class) {
-                if (Objects.isNull(workerInstanceGetter)) {
-                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
-                                                             .provider()
-                                                             .getService(IWorkerInstanceGetter.class);
-                }
-            }
-        }
+        initWorkerInstanceGetter();
 
         return new StreamObserver<RemoteMessage>() {
             @Override
             public void onNext(RemoteMessage message) {
-                remoteInCounter.inc();
-                HistogramMetrics.Timer timer = remoteInHistogram.createTimer();
-                try {
-                    String nextWorkerName = message.getNextWorkerName();
-                    RemoteData remoteData = message.getRemoteData();
-
-                    try {
-                        RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
-                        if (handleWorker != null) {
-                            AbstractWorker nextWorker = handleWorker.getWorker();
-                            StreamData streamData = handleWorker.getStreamDataClass().newInstance();
-                            streamData.deserialize(remoteData);
-                            nextWorker.in(streamData);
-                        } else {
-                            remoteInTargetNotFoundCounter.inc();
-                            LOGGER.warn(
-                                "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
-                                nextWorkerName
-                            );
-                        }
-                    } catch (Throwable t) {
-                        remoteInErrorCounter.inc();
-                        LOGGER.error(t.getMessage(), t);
-                    }
-                } finally {
-                    timer.finish();
+                handle(message);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOGGER.error(throwable.getMessage(), throwable);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(Empty.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * gRPC handler of {@link RemoteServiceGrpc}. Same as {@link #call(StreamObserver)}, but every message of the stream
+     * packs multiple remote messages.
+     */
+    @Override
+    public StreamObserver<RemoteMessageBatch> batchCall(StreamObserver<Empty> responseObserver) {
+        initWorkerInstanceGetter();
+
+        return new StreamObserver<RemoteMessageBatch>() {
+            @Override
+            public void onNext(RemoteMessageBatch batch) {
+                for (RemoteMessage message : batch.getMessagesList()) {
+                    handle(message);
                 }
             }
 
@@ -151,4 +147,46 @@ public class RemoteServiceHandler extends RemoteServiceGrpc.RemoteServiceImplBas
             }
         };
     }
+
+    private void initWorkerInstanceGetter() {
+        if (Objects.isNull(workerInstanceGetter)) {
+            synchronized (RemoteServiceHandler.class) {
+                if (Objects.isNull(workerInstanceGetter)) {
+                    workerInstanceGetter = moduleDefineHolder.find(CoreModule.NAME)
+                                                             .provider()
+                                                             .getService(IWorkerInstanceGetter.class);
+                }
+            }
+        }
+    }
+
+    private void handle(RemoteMessage message) {
+        remoteInCounter.inc();
+        HistogramMetrics.Timer timer = remoteInHistogram.createTimer();
+        try {
+            String nextWorkerName = message.getNextWorkerName();
+            RemoteData remoteData = message.getRemoteData();
+
+            try {
+                RemoteHandleWorker handleWorker = workerInstanceGetter.get(nextWorkerName);
+                if (handleWorker != null) {
+                    AbstractWorker nextWorker = handleWorker.getWorker();
+                    StreamData streamData = handleWorker.getStreamDataClass().newInstance();
+                    streamData.deserialize(remoteData);
+                    nextWorker.in(streamData);
+                } else {
+                    remoteInTargetNotFoundCounter.inc();
+                    LOGGER.warn(
+                        "Work name [{}] not found. Check OAL script, make sure they are same in the whole cluster.",
+                        nextWorkerName
+                    );
+                }
+            } catch (Throwable t) {
+                remoteInErrorCounter.inc();
+                LOGGER.error(t.getMessage(), t);
+            }
+        } finally {
+            timer.finish();
+        }
+    }
 }
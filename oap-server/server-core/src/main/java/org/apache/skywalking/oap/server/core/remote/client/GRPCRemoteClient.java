@@ -27,9 +27,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
+import org.apache.skywalking.apm.util.StringUtil;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.Empty;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessage;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteMessageBatch;
 import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteServiceGrpc;
 import org.apache.skywalking.oap.server.library.client.grpc.GRPCClient;
 import org.apache.skywalking.oap.server.library.module.ModuleDefineHolder;
@@ -43,10 +45,17 @@ import org.slf4j.LoggerFactory;
 /**
  * This is a wrapper of the gRPC client for sending message to each other OAP server. It contains a block queue to
  * buffering the message and sending the message by batch.
+ *
+ * When the batch size is greater than 0, the messages are packed into {@link RemoteMessageBatch}es, and sent through a
+ * long-lived stream, which is renewed before the timeout of it, and completed when it is idle.
  */
 public class GRPCRemoteClient implements RemoteClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GRPCRemoteClient.class);
+    /**
+     * The batch stream is completed when no message is written into it in this period.
+     */
+    private static final long BATCH_STREAM_IDLE_TIMEOUT = TimeUnit.SECONDS.toMillis(1);
 
     private final int channelSize;
     private final int bufferSize;
@@ -59,6 +68,8 @@ public class GRPCRemoteClient implements RemoteClient {
     private CounterMetrics remoteOutCounter;
     private CounterMetrics remoteOutErrorCounter;
     private int remoteTimeout;
+    private final int batchSize;
+    private final String compression;
 
     public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
                             final Address address,
@@ -66,12 +77,30 @@ public class GRPCRemoteClient implements RemoteClient {
                             final int bufferSize,
                             final int remoteTimeout,
                             final SslContext sslContext) {
+        this(moduleDefineHolder, address, channelSize, bufferSize, remoteTimeout, sslContext, 0, null);
+    }
+
+    /**
+     * @param batchSize   the max number of messages packed into one {@link RemoteMessageBatch}, 0 means sending the
+     *                    messages one by one.
+     * @param compression the name of the gRPC compressor, such as gzip. Empty means no compression.
+     */
+    public GRPCRemoteClient(final ModuleDefineHolder moduleDefineHolder,
+                            final Address address,
+                            final int channelSize,
+                            final int bufferSize,
+                            final int remoteTimeout,
+                            final SslContext sslContext,
+                            final int batchSize,
+                            final String compression) {
 
         this.address = address;
         this.channelSize = channelSize;
         this.bufferSize = bufferSize;
         this.remoteTimeout = remoteTimeout;
         this.sslContext = sslContext;
+        this.batchSize = batchSize;
+        this.compression = compression;
 
         remoteOutCounter = moduleDefineHolder.find(TelemetryModule.NAME)
                                              .provider()
@@ -115,7 +144,11 @@ public class GRPCRemoteClient implements RemoteClient {
     }
 
     RemoteServiceGrpc.RemoteServiceStub getStub() {
-        return RemoteServiceGrpc.newStub(getChannel());
+        RemoteServiceGrpc.RemoteServiceStub stub = RemoteServiceGrpc.newStub(getChannel());
+        if (StringUtil.isNotEmpty(compression)) {
+            stub = stub.withCompression(compression);
+        }
+        return stub;
     }
 
     DataCarrier<RemoteMessage> getDataCarrier() {
@@ -145,12 +178,18 @@ public class GRPCRemoteClient implements RemoteClient {
     }
 
     class RemoteMessageConsumer implements IConsumer<RemoteMessage> {
+        private BatchStream batchStream;
+
         @Override
         public void init() {
         }
 
         @Override
         public void consume(List<RemoteMessage> remoteMessages) {
+            if (batchSize > 0) {
+                consumeInBatch(remoteMessages);
+                return;
+            }
             try {
                 StreamObserver<RemoteMessage> streamObserver = createStreamObserver();
                 for (RemoteMessage remoteMessage : remoteMessages) {
@@ -164,6 +203,49 @@ public class GRPCRemoteClient implements RemoteClient {
             }
         }
 
+        private void consumeInBatch(List<RemoteMessage> remoteMessages) {
+            try {
+                if (batchStream == null || !batchStream.isWritable()) {
+                    completeBatchStream();
+                    batchStream = new BatchStream();
+                }
+                RemoteMessageBatch.Builder builder = RemoteMessageBatch.newBuilder();
+                for (RemoteMessage remoteMessage : remoteMessages) {
+                    remoteOutCounter.inc();
+                    builder.addMessages(remoteMessage);
+                    if (builder.getMessagesCount() == batchSize) {
+                        batchStream.write(builder.build());
+                        builder.clear();
+                    }
+                }
+                if (builder.getMessagesCount() > 0) {
+                    batchStream.write(builder.build());
+                }
+            } catch (Throwable t) {
+                remoteOutErrorCounter.inc();
+                LOGGER.error(t.getMessage(), t);
+                completeBatchStream();
+            }
+        }
+
+        /**
+         * Complete the stream when it is idle longer than {@link #BATCH_STREAM_IDLE_TIMEOUT} or not writable anymore,
+         * rather than keeping it open until the deadline cancels it. The next messages open a new stream.
+         */
+        @Override
+        public void nothingToConsume() {
+            if (batchStream != null && (batchStream.isIdle() || !batchStream.isWritable())) {
+                completeBatchStream();
+            }
+        }
+
+        private void completeBatchStream() {
+            if (batchStream != null) {
+                batchStream.complete();
+                batchStream = null;
+            }
+        }
+
         @Override
         public void onError(List<RemoteMessage> remoteMessages, Throwable t) {
             LOGGER.error(t.getMessage(), t);
@@ -171,33 +253,78 @@ public class GRPCRemoteClient implements RemoteClient {
 
         @Override
         public void onExit() {
+            completeBatchStream();
         }
     }
 
     /**
-     * Create a gRPC stream observer to sending stream data, one stream observer could send multiple stream data by a
-     * single consume. The max number of concurrency allowed at the same time is 10.
-     *
-     * @return stream observer
+     * A long-lived stream of the {@link RemoteMessageBatch}. It is writable in the first half of the remote timeout, and
+     * is renewed by the consumer after that, so the deadline of the stream is never reached during the writing.
      */
-    private StreamObserver<RemoteMessage> createStreamObserver() {
-        int sleepTotalMillis = 0;
-        int sleepMillis = 10;
-        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
-            concurrentStreamObserverNumber.addAndGet(-1);
+    private class BatchStream {
+        private final StreamObserver<RemoteMessageBatch> observer;
+        private final long createTime;
+        private long lastWriteTime;
+        private volatile boolean closed;
 
-            try {
-                Thread.sleep(sleepMillis);
-            } catch (InterruptedException e) {
-                LOGGER.error(e.getMessage(), e);
-            }
+        private BatchStream() {
+            acquireStreamObserver();
+            this.createTime = System.currentTimeMillis();
+            this.lastWriteTime = createTime;
+            this.observer = getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS)
+                                     .batchCall(new StreamObserver<Empty>() {
+                                         @Override
+                                         public void onNext(Empty empty) {
+                                         }
 
-            sleepTotalMillis += sleepMillis;
+                                         @Override
+                                         public void onError(Throwable throwable) {
+                                             closed = true;
+                                             concurrentStreamObserverNumber.addAndGet(-1);
+                                             LOGGER.error(throwable.getMessage(), throwable);
+                                         }
 
-            if (sleepTotalMillis > 60000) {
-                LOGGER.warn("Remote client block times over 60 seconds.");
+                                         @Override
+                                         public void onCompleted() {
+                                             closed = true;
+                                             concurrentStreamObserverNumber.addAndGet(-1);
+                                         }
+                                     });
+        }
+
+        private void write(RemoteMessageBatch batch) {
+            observer.onNext(batch);
+            lastWriteTime = System.currentTimeMillis();
+        }
+
+        private boolean isIdle() {
+            return System.currentTimeMillis() - lastWriteTime >= BATCH_STREAM_IDLE_TIMEOUT;
+        }
+
+        private boolean isWritable() {
+            return !closed && System.currentTimeMillis() - createTime < TimeUnit.SECONDS.toMillis(remoteTimeout) / 2;
+        }
+
+        private void complete() {
+            if (closed) {
+                return;
+            }
+            try {
+                observer.onCompleted();
+            } catch (Throwable t) {
+                LOGGER.error(t.getMessage(), t);
             }
         }
+    }
+
+    /**
+     * Create a gRPC stream observer to sending stream data, one stream observer could send multiple stream data by a
+     * single consume. The max number of concurrency allowed at the same time is 10.
+     *
+     * @return stream observer
+     */
+    private StreamObserver<RemoteMessage> createStreamObserver() {
+        acquireStreamObserver();
 
         return getStub().withDeadlineAfter(remoteTimeout, TimeUnit.SECONDS).call(new StreamObserver<Empty>() {
             @Override
@@ -217,6 +344,29 @@ public class GRPCRemoteClient implements RemoteClient {
         });
     }
 
+    /**
+     * Block until the number of the concurrent stream observers is less than 10.
+     */
+    private void acquireStreamObserver() {
+        int sleepTotalMillis = 0;
+        int sleepMillis = 10;
+        while (concurrentStreamObserverNumber.incrementAndGet() > 10) {
+            concurrentStreamObserverNumber.addAndGet(-1);
+
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+
+            sleepTotalMillis += sleepMillis;
+
+            if (sleepTotalMillis > 60000) {
+                LOGGER.warn("Remote client block times over 60 seconds.");
+            }
+        }
+    }
+
     @Override
     public void close() {
         if (Objects.nonNull(this.carrier)) {
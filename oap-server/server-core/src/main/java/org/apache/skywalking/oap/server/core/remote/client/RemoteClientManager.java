@@ -62,6 +62,16 @@ public class RemoteClientManager implements Service {
     private volatile List<RemoteClient> usingClients;
     private GaugeMetrics gauge;
     private int remoteTimeout;
+    /**
+     * The max number of messages packed into one gRPC message, 0 means sending the messages one by one.
+     */
+    @Setter
+    private int remoteBatchSize;
+    /**
+     * The gRPC compressor name, such as gzip. Empty means no compression.
+     */
+    @Setter
+    private String remoteCompression;
 
     /**
      * Initial the manager for all remote communication clients.
@@ -232,7 +242,10 @@ public class RemoteClientManager implements Service {
                         newRemoteClients.add(client);
                     } else {
                         RemoteClient client;
-                        client = new GRPCRemoteClient(moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext);
+                        client = new GRPCRemoteClient(
+                            moduleDefineHolder, address, 1, 3000, remoteTimeout, sslContext, remoteBatchSize,
+                            remoteCompression
+                        );
                         client.connect();
                         newRemoteClients.add(client);
                     }
@@ -18,19 +18,23 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
-import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.oap.server.core.Const;
 import org.apache.skywalking.oap.server.core.CoreModuleConfig;
 import org.apache.skywalking.oap.server.core.analysis.worker.MetricsStreamProcessor;
 import org.apache.skywalking.oap.server.core.analysis.worker.PersistenceWorker;
 import org.apache.skywalking.oap.server.core.analysis.worker.TopNStreamProcessor;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.module.ModuleManager;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
@@ -48,11 +52,26 @@ public enum PersistenceTimer {
     private CounterMetrics errorCounter;
     private HistogramMetrics prepareLatency;
     private HistogramMetrics executeLatency;
+    private HistogramMetrics batchExecuteLatency;
+    private HistogramMetrics allLatency;
+    private MetricsCreator metricsCreator;
+    private final Map<String, CounterMetrics> modelPrepareTimeCounters = new ConcurrentHashMap<>();
     private long lastTime = System.currentTimeMillis();
     private final List<PrepareRequest> prepareRequests = new ArrayList<>(50000);
     private int syncOperationThreadsNum;
     private int maxSyncoperationNum;
     private ExecutorService executorService;
+    private ExecutorService prepareExecutorService;
+    /**
+     * The max number of batches submitted to the execute stage but not finished.
+     */
+    private int maxInFlightBatches;
+    private Semaphore inFlightBatches;
+    /**
+     * Measure the execute stage of the round, from the first submitted batch until all batches are finished. Guarded
+     * by {@link #prepareRequests}.
+     */
+    private HistogramMetrics.Timer executeTimer;
 
     PersistenceTimer() {
         this.debug = System.getProperty("debug") != null;
@@ -62,9 +81,9 @@ public enum PersistenceTimer {
         log.info("persistence timer start");
         IBatchDAO batchDAO = moduleManager.find(StorageModule.NAME).provider().getService(IBatchDAO.class);
 
-        MetricsCreator metricsCreator = moduleManager.find(TelemetryModule.NAME)
-                                                     .provider()
-                                                     .getService(MetricsCreator.class);
+        metricsCreator = moduleManager.find(TelemetryModule.NAME)
+                                      .provider()
+                                      .getService(MetricsCreator.class);
         errorCounter = metricsCreator.createCounter(
             "persistence_timer_bulk_error_count", "Error execution of the prepare stage in persistence timer",
             MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
@@ -77,9 +96,20 @@ public enum PersistenceTimer {
             "persistence_timer_bulk_execute_latency", "Latency of the execute stage in persistence timer",
             MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
         );
+        batchExecuteLatency = metricsCreator.createHistogramMetric(
+            "persistence_timer_bulk_batch_execute_latency", "Latency of executing one batch in persistence timer",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
+        allLatency = metricsCreator.createHistogramMetric(
+            "persistence_timer_bulk_all_latency", "Latency of the whole persistence round, including prepare and execute",
+            MetricsTag.EMPTY_KEY, MetricsTag.EMPTY_VALUE
+        );
         syncOperationThreadsNum = moduleConfig.getSyncThreads();
         maxSyncoperationNum = moduleConfig.getMaxSyncOperationNum();
         executorService = Executors.newFixedThreadPool(syncOperationThreadsNum);
+        prepareExecutorService = Executors.newFixedThreadPool(moduleConfig.getPrepareThreads());
+        maxInFlightBatches = syncOperationThreadsNum * 2;
+        inFlightBatches = new Semaphore(maxInFlightBatches);
         if (!isStarted) {
             Executors.newSingleThreadScheduledExecutor()
                      .scheduleWithFixedDelay(
@@ -92,6 +122,16 @@ public enum PersistenceTimer {
         }
     }
 
+    /**
+     * The workers are prepared concurrently in the {@link #prepareExecutorService}, each worker prepares its requests
+     * into its own list. The prepared requests flow to the execute stage in batches of {@link #maxSyncoperationNum},
+     * so the storage executes the prepared batches while the remaining workers are still being prepared. The number of
+     * in-flight batches is bounded by {@link #inFlightBatches}, the prepare stage waits when the execute stage is
+     * slower.
+     *
+     * The prepare and execute latencies are measured per round. The prepare time of every model and the latency of
+     * every batch are measured separately.
+     */
     private void extractDataAndSave(IBatchDAO batchDAO) {
         if (log.isDebugEnabled()) {
             log.debug("Extract data and save");
@@ -99,66 +139,154 @@ public enum PersistenceTimer {
 
         long startTime = System.currentTimeMillis();
 
+        HistogramMetrics.Timer allTimer = allLatency.createTimer();
+        CountDownLatch countDownLatch = null;
         try {
-            HistogramMetrics.Timer timer = prepareLatency.createTimer();
+            List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
+            persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
+            persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
 
+            HistogramMetrics.Timer prepareTimer = prepareLatency.createTimer();
             try {
-                List<PersistenceWorker> persistenceWorkers = new ArrayList<>();
-                persistenceWorkers.addAll(TopNStreamProcessor.getInstance().getPersistentWorkers());
-                persistenceWorkers.addAll(MetricsStreamProcessor.getInstance().getPersistentWorkers());
-
-                persistenceWorkers.forEach(worker -> {
-                    if (log.isDebugEnabled()) {
-                        log.debug("extract {} worker data and save", worker.getClass().getName());
-                    }
-
-                    worker.buildBatchRequests(prepareRequests);
-
-                    worker.endOfRound(System.currentTimeMillis() - lastTime);
-                });
-
-                if (debug) {
-                    log.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
+                countDownLatch = new CountDownLatch(persistenceWorkers.size());
+                for (PersistenceWorker worker : persistenceWorkers) {
+                    prepareExecutorService.submit(prepare(batchDAO, worker, countDownLatch));
                 }
+                countDownLatch.await();
             } finally {
-                timer.finish();
+                prepareTimer.finish();
             }
 
-            HistogramMetrics.Timer executeLatencyTimer = executeLatency.createTimer();
-            try {
-                List<List<PrepareRequest>> partitions = Lists.partition(prepareRequests, maxSyncoperationNum);
-                CountDownLatch countDownLatch = new CountDownLatch(partitions.size());
-                for (final List<PrepareRequest> partition : partitions) {
-                    executorService.submit(() -> {
-                        try {
-                            if (CollectionUtils.isNotEmpty(partition)) {
-                                batchDAO.synchronous(partition);
-                            }
-                        } catch (Throwable e) {
-                            log.error(e.getMessage(), e);
-                        } finally {
-                            countDownLatch.countDown();
-                        }
-                    });
+            synchronized (prepareRequests) {
+                if (CollectionUtils.isNotEmpty(prepareRequests)) {
+                    execute(batchDAO, new ArrayList<>(prepareRequests));
                 }
-                countDownLatch.await();
-            } finally {
-                executeLatencyTimer.finish();
+            }
+
+            if (debug) {
+                log.info("build batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
             }
         } catch (Throwable e) {
             errorCounter.inc();
             log.error(e.getMessage(), e);
         } finally {
+            // Don't start the next round until all prepare tasks and in-flight batches of this round are finished.
+            awaitUninterruptibly(countDownLatch);
+            inFlightBatches.acquireUninterruptibly(maxInFlightBatches);
+            inFlightBatches.release(maxInFlightBatches);
+
             if (log.isDebugEnabled()) {
                 log.debug("Persistence data save finish");
             }
 
-            prepareRequests.clear();
+            synchronized (prepareRequests) {
+                prepareRequests.clear();
+                if (executeTimer != null) {
+                    executeTimer.finish();
+                    executeTimer = null;
+                }
+            }
             lastTime = System.currentTimeMillis();
+            allTimer.finish();
         }
 
         if (debug) {
             log.info("Batch persistence duration: {} ms", System.currentTimeMillis() - startTime);
         }
     }
+
+    private Runnable prepare(IBatchDAO batchDAO, PersistenceWorker worker, CountDownLatch countDownLatch) {
+        return () -> {
+            try {
+                if (log.isDebugEnabled()) {
+                    log.debug("extract {} worker data and save", worker.getClass().getName());
+                }
+
+                List<PrepareRequest> innerPrepareRequests = new ArrayList<>();
+                long prepareStartTime = System.currentTimeMillis();
+                worker.buildBatchRequests(innerPrepareRequests);
+                worker.endOfRound(System.currentTimeMillis() - lastTime);
+                modelPrepareTime(worker.getModel()).inc(System.currentTimeMillis() - prepareStartTime);
+
+                collect(batchDAO, innerPrepareRequests);
+            } catch (Throwable e) {
+                errorCounter.inc();
+                log.error(e.getMessage(), e);
+            } finally {
+                countDownLatch.countDown();
+            }
+        };
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch countDownLatch) {
+        if (countDownLatch == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                countDownLatch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Collect the requests prepared by one worker, and submit the full batches to the execute stage.
+     */
+    private void collect(IBatchDAO batchDAO, List<PrepareRequest> innerPrepareRequests) throws InterruptedException {
+        if (innerPrepareRequests.isEmpty()) {
+            return;
+        }
+        synchronized (prepareRequests) {
+            prepareRequests.addAll(innerPrepareRequests);
+            while (prepareRequests.size() >= maxSyncoperationNum) {
+                final List<PrepareRequest> batch = new ArrayList<>(prepareRequests.subList(0, maxSyncoperationNum));
+                prepareRequests.subList(0, maxSyncoperationNum).clear();
+                execute(batchDAO, batch);
+            }
+        }
+    }
+
+    private CounterMetrics modelPrepareTime(Model model) {
+        return modelPrepareTimeCounters.computeIfAbsent(
+            model.getName() + Const.ID_CONNECTOR + model.getDownsampling().getName(),
+            key -> metricsCreator.createCounter(
+                "persistence_timer_model_prepare_time", "The time(ms) costs of the prepare stage per model",
+                new MetricsTag.Keys("metricName", "dimensionality"),
+                new MetricsTag.Values(model.getName(), model.getDownsampling().getName())
+            )
+        );
+    }
+
+    /**
+     * Submit the batch to the execute stage, block if there are too many in-flight batches. Should be called with the
+     * lock of {@link #prepareRequests}.
+     */
+    private void execute(IBatchDAO batchDAO, List<PrepareRequest> batch) throws InterruptedException {
+        inFlightBatches.acquire();
+        if (executeTimer == null) {
+            executeTimer = executeLatency.createTimer();
+        }
+        try {
+            executorService.submit(() -> {
+                try (HistogramMetrics.Timer timer = batchExecuteLatency.createTimer()) {
+                    batchDAO.synchronous(batch);
+                } catch (Throwable e) {
+                    errorCounter.inc();
+                    log.error(e.getMessage(), e);
+                } finally {
+                    inFlightBatches.release();
+                }
+            });
+        } catch (Throwable e) {
+            inFlightBatches.release();
+            throw e;
+        }
+    }
 }
@@ -55,7 +55,8 @@ public interface StorageBuilderFactory extends Service {
          */
         private final String superClass;
         /**
-         * This folder includes entity2Storage.ftl and storage2Entity.ftl to support the builder's generation.
+         * This folder includes entity2Storage.ftl, entity2Columns.ftl and storage2Entity.ftl to support the builder's
+         * generation.
          */
         private final String templatePath;
     }
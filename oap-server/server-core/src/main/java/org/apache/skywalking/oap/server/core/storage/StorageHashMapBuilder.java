@@ -18,8 +18,10 @@
 
 package org.apache.skywalking.oap.server.core.storage;
 
+import java.io.IOException;
 import java.util.Map;
 import org.apache.skywalking.oap.server.core.storage.type.StorageBuilder;
+import org.apache.skywalking.oap.server.core.storage.type.StorageColumnWriter;
 
 /**
  * Converter between the give T and Map. Map is a general usable type using in the storage implementation.
@@ -31,4 +33,14 @@ public interface StorageHashMapBuilder<T extends StorageData> extends StorageBui
     T storage2Entity(Map<String, Object> dbMap);
 
     Map<String, Object> entity2Storage(T storageData);
+
+    /**
+     * Write the columns of the entity into the writer, the columns are the same as {@link #entity2Storage(StorageData)}.
+     * The default implementation writes the built map, the OAL generated builders write the fields directly.
+     */
+    default void entity2Columns(T storageData, StorageColumnWriter writer) throws IOException {
+        for (Map.Entry<String, Object> column : entity2Storage(storageData).entrySet()) {
+            writer.write(column.getKey(), column.getValue());
+        }
+    }
 }
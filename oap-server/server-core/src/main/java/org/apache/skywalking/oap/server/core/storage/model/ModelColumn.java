@@ -21,6 +21,7 @@ package org.apache.skywalking.oap.server.core.storage.model;
 import java.lang.reflect.Type;
 import lombok.Getter;
 import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.NumericDataTable;
 import org.apache.skywalking.oap.server.core.storage.annotation.Column;
 
 @Getter
@@ -50,7 +51,7 @@ public class ModelColumn {
         /*
          * byte[] and {@link IntKeyLongValueHashMap} could never be query.
          */
-        if (type.equals(byte[].class) || type.equals(DataTable.class)) {
+        if (type.equals(byte[].class) || type.equals(DataTable.class) || type.equals(NumericDataTable.class)) {
             this.storageOnly = true;
         } else {
             if (storageOnly && isValue) {
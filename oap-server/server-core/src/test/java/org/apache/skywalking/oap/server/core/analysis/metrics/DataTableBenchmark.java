@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare {@link DataTable} and {@link NumericDataTable} in the way of {@link PercentileMetrics}, 1000 sampled
+ * latencies are accumulated, 10 tables are merged, and the P50/75/90/95/99 are calculated.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataTableBenchmark {
+    private static final int PRECISION = 10;
+    private static final int[] RANKS = {50, 75, 90, 95, 99};
+
+    private final int[] latencies = new int[1000];
+    private final DataTable[] dataTables = new DataTable[10];
+    private final NumericDataTable[] numericDataTables = new NumericDataTable[10];
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = (int) Math.abs(random.nextGaussian() * 200 + 300);
+        }
+        for (int i = 0; i < dataTables.length; i++) {
+            dataTables[i] = new DataTable(30);
+            numericDataTables[i] = new NumericDataTable(30);
+            for (int j = 0; j < 100; j++) {
+                final int value = latencies[random.nextInt(latencies.length)];
+                dataTables[i].valueAccumulation(String.valueOf(value / PRECISION), 1L);
+                numericDataTables[i].valueAccumulation(value / PRECISION, 1L);
+            }
+        }
+    }
+
+    @Benchmark
+    public DataTable dataTableCombine() {
+        DataTable dataset = new DataTable(30);
+        for (int latency : latencies) {
+            dataset.valueAccumulation(String.valueOf(latency / PRECISION), 1L);
+        }
+        return dataset;
+    }
+
+    @Benchmark
+    public NumericDataTable numericDataTableCombine() {
+        NumericDataTable dataset = new NumericDataTable(30);
+        for (int latency : latencies) {
+            dataset.valueAccumulation(latency / PRECISION, 1L);
+        }
+        return dataset;
+    }
+
+    @Benchmark
+    public DataTable dataTableMerge() {
+        DataTable dataset = new DataTable(30);
+        for (DataTable dataTable : dataTables) {
+            dataset.append(dataTable);
+        }
+        return dataset;
+    }
+
+    @Benchmark
+    public NumericDataTable numericDataTableMerge() {
+        NumericDataTable dataset = new NumericDataTable(30);
+        for (NumericDataTable dataTable : numericDataTables) {
+            dataset.append(dataTable);
+        }
+        return dataset;
+    }
+
+    @Benchmark
+    public DataTable dataTablePercentile() {
+        final DataTable dataset = dataTables[0];
+        final DataTable percentileValues = new DataTable(RANKS.length);
+        long total = dataset.sumOfValues();
+        int[] roofs = new int[RANKS.length];
+        for (int i = 0; i < RANKS.length; i++) {
+            roofs[i] = Math.round(total * RANKS[i] * 1.0f / 100);
+        }
+        int count = 0;
+        int loopIndex = 0;
+        final List<String> sortedKeys = dataset.sortedKeys(Comparator.comparingInt(Integer::parseInt));
+        for (String key : sortedKeys) {
+            count += dataset.get(key);
+            for (int rankIdx = loopIndex; rankIdx < roofs.length; rankIdx++) {
+                if (count >= roofs[rankIdx]) {
+                    percentileValues.put(String.valueOf(rankIdx), Long.parseLong(key) * PRECISION);
+                    loopIndex++;
+                } else {
+                    break;
+                }
+            }
+        }
+        return percentileValues;
+    }
+
+    @Benchmark
+    public NumericDataTable numericDataTablePercentile() {
+        final NumericDataTable dataset = numericDataTables[0];
+        final NumericDataTable percentileValues = new NumericDataTable(RANKS.length);
+        long total = dataset.sumOfValues();
+        int[] roofs = new int[RANKS.length];
+        for (int i = 0; i < RANKS.length; i++) {
+            roofs[i] = Math.round(total * RANKS[i] * 1.0f / 100);
+        }
+        int count = 0;
+        int loopIndex = 0;
+        for (int i = 0; i < dataset.size(); i++) {
+            count += dataset.valueAt(i);
+            for (int rankIdx = loopIndex; rankIdx < roofs.length; rankIdx++) {
+                if (count >= roofs[rankIdx]) {
+                    percentileValues.put(rankIdx, dataset.keyAt(i) * PRECISION);
+                    loopIndex++;
+                } else {
+                    break;
+                }
+            }
+        }
+        return percentileValues;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(DataTableBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.21
+     * # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08
+     * # Warmup: 3 iterations, 5 s each
+     * # Measurement: 5 iterations, 5 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                          Mode  Cnt      Score     Error  Units
+     * DataTableBenchmark.dataTableCombine                                avgt    5     46.230 ±  10.858  us/op
+     * DataTableBenchmark.dataTableCombine:·gc.alloc.rate.norm            avgt    5  51632.004 ±   0.001   B/op
+     * DataTableBenchmark.dataTableMerge                                  avgt    5     14.364 ±   5.009  us/op
+     * DataTableBenchmark.dataTableMerge:·gc.alloc.rate.norm              avgt    5   3664.001 ±   0.001   B/op
+     * DataTableBenchmark.dataTablePercentile                             avgt    5      9.528 ±   3.471  us/op
+     * DataTableBenchmark.dataTablePercentile:·gc.alloc.rate.norm         avgt    5   2664.001 ±   0.001   B/op
+     * DataTableBenchmark.numericDataTableCombine                         avgt    5     19.488 ±  10.803  us/op
+     * DataTableBenchmark.numericDataTableCombine:·gc.alloc.rate.norm     avgt    5   3480.002 ±   0.001   B/op
+     * DataTableBenchmark.numericDataTableMerge                           avgt    5      6.859 ±   2.943  us/op
+     * DataTableBenchmark.numericDataTableMerge:·gc.alloc.rate.norm       avgt    5   7416.001 ±   0.001   B/op
+     * DataTableBenchmark.numericDataTablePercentile                      avgt    5      0.348 ±   0.161  us/op
+     * DataTableBenchmark.numericDataTablePercentile:·gc.alloc.rate.norm  avgt    5    176.000 ±   0.001   B/op
+     */
+}
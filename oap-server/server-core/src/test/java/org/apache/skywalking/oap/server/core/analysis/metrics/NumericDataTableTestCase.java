@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import java.util.Arrays;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.NumericTable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NumericDataTableTestCase {
+
+    private NumericDataTable dataTable;
+
+    @Before
+    public void init() {
+        dataTable = new NumericDataTable(2);
+        dataTable.valueAccumulation(5, 500L);
+        dataTable.valueAccumulation(6, 600L);
+        dataTable.valueAccumulation(1, 100L);
+        dataTable.valueAccumulation(2, 200L);
+        dataTable.valueAccumulation(7, 700L);
+    }
+
+    @Test
+    public void toStorageData() {
+        Assert.assertEquals("1,100|2,200|5,500|6,600|7,700", dataTable.toStorageData());
+    }
+
+    @Test
+    public void toObject() {
+        NumericDataTable dataTable = new NumericDataTable();
+        dataTable.toObject("7,700|1,100|2,200|5,500|6,600|abc,1|");
+
+        Assert.assertEquals(5, dataTable.size());
+        Assert.assertEquals(100, dataTable.get(1));
+        Assert.assertEquals(200, dataTable.get(2));
+        Assert.assertEquals(500, dataTable.get(5));
+        Assert.assertEquals(600, dataTable.get(6));
+        Assert.assertEquals(700, dataTable.get(7));
+        Assert.assertEquals(0, dataTable.get(8));
+    }
+
+    @Test
+    public void compatibleWithDataTable() {
+        NumericDataTable dataTable = new NumericDataTable(new DataTable(this.dataTable.toStorageData()).toStorageData());
+
+        Assert.assertEquals(this.dataTable, dataTable);
+    }
+
+    @Test
+    public void copyFrom() {
+        NumericDataTable dataTable = new NumericDataTable();
+        dataTable.copyFrom(this.dataTable);
+
+        Assert.assertEquals("1,100|2,200|5,500|6,600|7,700", dataTable.toStorageData());
+    }
+
+    @Test
+    public void append() {
+        NumericDataTable dataTable = new NumericDataTable();
+        dataTable.valueAccumulation(0, 1L);
+        dataTable.valueAccumulation(2, 2L);
+        dataTable.valueAccumulation(8, 8L);
+        dataTable.append(this.dataTable);
+
+        Assert.assertEquals("0,1|1,100|2,202|5,500|6,600|7,700|8,8", dataTable.toStorageData());
+        Assert.assertEquals(2111, dataTable.sumOfValues());
+    }
+
+    @Test
+    public void serialize() {
+        NumericTable remoteData = dataTable.serialize().build();
+        Assert.assertEquals(Arrays.asList(1L, 1L, 3L, 1L, 1L), remoteData.getKeyDeltasList());
+
+        NumericDataTable dataTable = new NumericDataTable(remoteData);
+        Assert.assertEquals(this.dataTable, dataTable);
+
+        dataTable = new NumericDataTable(new NumericDataTable().serialize().build());
+        Assert.assertFalse(dataTable.hasData());
+    }
+}
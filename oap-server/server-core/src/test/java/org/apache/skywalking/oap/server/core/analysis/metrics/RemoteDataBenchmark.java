@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.metrics;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compare the string and the binary {@link RemoteData} format of the {@link NumericDataTable}s in the way of
+ * {@link PercentileMetrics}, the metrics is serialized, encoded into bytes, parsed and deserialized as it is
+ * transferred between the OAP nodes.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RemoteDataBenchmark {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteDataBenchmark.class);
+    private static final String ENTITY_ID = "c2VydmljZS1h.1_ZW5kcG9pbnQtYQ==";
+    private static final long TIME_BUCKET = 202104011200L;
+
+    private final NumericDataTable dataset = new NumericDataTable(30);
+    private final NumericDataTable percentileValues = new NumericDataTable(5);
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            dataset.valueAccumulation((long) Math.abs(random.nextGaussian() * 200 + 300) / 10, 1L);
+        }
+        for (int i = 0; i < 5; i++) {
+            percentileValues.put(i, (i + 1) * 100L);
+        }
+    }
+
+    @Benchmark
+    public NumericDataTable stringFormat() throws InvalidProtocolBufferException {
+        final RemoteData remoteData = RemoteData.parseFrom(stringFormatRemoteData().toByteArray());
+        new NumericDataTable(remoteData.getDataObjectStrings(0));
+        return new NumericDataTable(remoteData.getDataObjectStrings(1));
+    }
+
+    @Benchmark
+    public NumericDataTable binaryFormat() throws InvalidProtocolBufferException {
+        final RemoteData remoteData = RemoteData.parseFrom(binaryFormatRemoteData().toByteArray());
+        new NumericDataTable(remoteData.getDataNumericTables(0));
+        return new NumericDataTable(remoteData.getDataNumericTables(1));
+    }
+
+    private RemoteData stringFormatRemoteData() {
+        return RemoteData.newBuilder()
+                         .addDataStrings(ENTITY_ID)
+                         .addDataLongs(TIME_BUCKET)
+                         .addDataIntegers(10)
+                         .addDataObjectStrings(dataset.toStorageData())
+                         .addDataObjectStrings(percentileValues.toStorageData())
+                         .build();
+    }
+
+    private RemoteData binaryFormatRemoteData() {
+        return RemoteData.newBuilder()
+                         .addDataStrings(ENTITY_ID)
+                         .addDataLongs(TIME_BUCKET)
+                         .addDataIntegers(10)
+                         .addDataNumericTables(dataset.serialize())
+                         .addDataNumericTables(percentileValues.serialize())
+                         .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final RemoteDataBenchmark benchmark = new RemoteDataBenchmark();
+        benchmark.setup();
+        LOGGER.info("String format bytes/metric: {}", benchmark.stringFormatRemoteData().getSerializedSize());
+        LOGGER.info("Binary format bytes/metric: {}", benchmark.binaryFormatRemoteData().getSerializedSize());
+
+        Options opt = new OptionsBuilder().include(RemoteDataBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.21
+     * # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08
+     * # Warmup: 3 iterations, 5 s each
+     * # Measurement: 5 iterations, 5 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * String format bytes/metric: 529
+     * Binary format bytes/metric: 235
+     *
+     * Benchmark                                                  Mode  Cnt      Score      Error  Units
+     * RemoteDataBenchmark.binaryFormat                           avgt    5   7110.204 ± 1636.784  ns/op
+     * RemoteDataBenchmark.binaryFormat:·gc.alloc.rate.norm       avgt    5  11976.001 ±    0.001   B/op
+     * RemoteDataBenchmark.stringFormat                           avgt    5  15001.269 ± 4329.020  ns/op
+     * RemoteDataBenchmark.stringFormat:·gc.alloc.rate.norm       avgt    5  19200.001 ±    0.001   B/op
+     */
+}
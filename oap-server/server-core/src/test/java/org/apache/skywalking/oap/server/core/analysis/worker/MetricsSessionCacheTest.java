@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.analysis.worker;
+
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.metrics.Metrics;
+import org.apache.skywalking.oap.server.core.remote.grpc.proto.RemoteData;
+import org.apache.skywalking.oap.server.telemetry.api.CounterMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsSessionCacheTest {
+    private final CountingCounter hit = new CountingCounter();
+    private final CountingCounter miss = new CountingCounter();
+    private final CountingCounter evicted = new CountingCounter();
+    private final CountingCounter expired = new CountingCounter();
+
+    @Test
+    public void testLookup() {
+        final MetricsSessionCache cache = new MetricsSessionCache(10, DownSampling.Minute, hit, miss, evicted, expired);
+        final Metrics metrics = new MetricsMocker(202104011201L);
+
+        Assert.assertNull(cache.lookup(metrics));
+        cache.put(metrics);
+        Assert.assertSame(metrics, cache.lookup(metrics));
+        Assert.assertEquals(1, hit.count);
+        Assert.assertEquals(1, miss.count);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        final MetricsSessionCache cache = new MetricsSessionCache(2, DownSampling.Minute, hit, miss, evicted, expired);
+        final Metrics m1 = new MetricsMocker(202104011202L);
+        final Metrics m2 = new MetricsMocker(202104011203L);
+        final Metrics m3 = new MetricsMocker(202104011204L);
+        cache.put(m1);
+        cache.put(m2);
+        // Access m1, m2 becomes the eldest one.
+        cache.lookup(m1);
+        cache.put(m3);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, evicted.count);
+        Assert.assertNull(cache.lookup(m2));
+        Assert.assertSame(m1, cache.lookup(m1));
+        Assert.assertSame(m3, cache.lookup(m3));
+    }
+
+    @Test
+    public void testRemoveExpired() {
+        final MetricsSessionCache cache = new MetricsSessionCache(10, DownSampling.Hour, hit, miss, evicted, expired);
+        final Metrics m1 = new MetricsMocker(202104011205L);
+        final Metrics m2 = new MetricsMocker(202104011206L);
+        cache.put(m1);
+        cache.removeExpired(3_600_000);
+        cache.put(m2);
+        // Only m1 is cached longer than one hour and 10s.
+        cache.removeExpired(20_000);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, expired.count);
+        Assert.assertSame(m2, cache.lookup(m2));
+    }
+
+    @Test
+    public void testTimeoutThreshold() {
+        Assert.assertEquals(70_000, MetricsSessionCache.timeoutThreshold(DownSampling.Minute));
+        Assert.assertEquals(3_610_000, MetricsSessionCache.timeoutThreshold(DownSampling.Hour));
+        Assert.assertEquals(86_410_000, MetricsSessionCache.timeoutThreshold(DownSampling.Day));
+    }
+
+    private static class CountingCounter implements CounterMetrics {
+        private long count;
+
+        @Override
+        public void inc() {
+            count++;
+        }
+
+        @Override
+        public void inc(final double value) {
+            count += value;
+        }
+    }
+
+    private static class MetricsMocker extends Metrics {
+        private MetricsMocker(long timeBucket) {
+            setTimeBucket(timeBucket);
+        }
+
+        @Override
+        public String id() {
+            return null;
+        }
+
+        @Override
+        public boolean combine(Metrics metrics) {
+            return true;
+        }
+
+        @Override
+        public void calculate() {
+
+        }
+
+        @Override
+        public Metrics toHour() {
+            return null;
+        }
+
+        @Override
+        public Metrics toDay() {
+            return null;
+        }
+
+        @Override
+        public void deserialize(RemoteData remoteData) {
+
+        }
+
+        @Override
+        public RemoteData.Builder serialize() {
+            return null;
+        }
+
+        @Override
+        public int remoteHashCode() {
+            return 0;
+        }
+    }
+}
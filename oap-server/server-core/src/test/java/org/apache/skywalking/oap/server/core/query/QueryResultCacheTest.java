@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.skywalking.oap.server.core.query.enumeration.Order;
+import org.apache.skywalking.oap.server.core.query.enumeration.Scope;
+import org.apache.skywalking.oap.server.core.query.enumeration.Step;
+import org.apache.skywalking.oap.server.core.query.input.Duration;
+import org.apache.skywalking.oap.server.core.query.input.Entity;
+import org.apache.skywalking.oap.server.core.query.input.MetricsCondition;
+import org.apache.skywalking.oap.server.core.query.input.TopNCondition;
+import org.apache.skywalking.oap.server.core.query.sql.Function;
+import org.apache.skywalking.oap.server.core.query.type.HeatMap;
+import org.apache.skywalking.oap.server.core.query.type.KVInt;
+import org.apache.skywalking.oap.server.core.query.type.MetricsValues;
+import org.apache.skywalking.oap.server.core.query.type.SelectedRecord;
+import org.apache.skywalking.oap.server.core.storage.annotation.Column;
+import org.apache.skywalking.oap.server.core.storage.annotation.ValueColumnMetadata;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.skywalking.oap.server.core.source.DefaultScopeDefine.SERVICE;
+
+public class QueryResultCacheTest {
+    private static final String METRICS_NAME = "query_cache_test";
+    private static final long NOW = DateTimeFormat.forPattern("yyyy-MM-dd HHmmss").parseMillis("2021-05-01 123000");
+
+    private final List<String> reads = new ArrayList<>();
+    private QueryResultCache cache;
+    private MetricsCondition condition;
+
+    @Before
+    public void setUp() {
+        ValueColumnMetadata.INSTANCE.putIfAbsent(
+            METRICS_NAME, "value", Column.ValueDataType.COMMON_VALUE, Function.Avg, -1, SERVICE);
+        // The buckets end before 12:28 are closed.
+        cache = new QueryResultCache(1000, 120_000, () -> NOW);
+        condition = new MetricsCondition();
+        condition.setName(METRICS_NAME);
+        final Entity entity = new Entity();
+        entity.setScope(Scope.Service);
+        entity.setServiceName("service");
+        entity.setNormal(true);
+        condition.setEntity(entity);
+    }
+
+    @Test
+    public void testReadMetricsValues() throws IOException {
+        final MetricsValues first = cache.readMetricsValues(condition, duration("1220", "1229"), this::readValues);
+        final MetricsValues second = cache.readMetricsValues(condition, duration("1220", "1229"), this::readValues);
+
+        Assert.assertEquals(Arrays.asList("1220-1229", "1228-1229"), reads);
+        Assert.assertEquals(ids(first), ids(second));
+        Assert.assertEquals(values(first), values(second));
+        Assert.assertEquals(10, second.getValues().getValues().size());
+
+        reads.clear();
+        cache.readMetricsValues(condition, duration("1225", "1229"), this::readValues);
+        Assert.assertEquals(Collections.singletonList("1228-1229"), reads);
+    }
+
+    @Test
+    public void testReadMetricsValuesOfOtherEntity() throws IOException {
+        cache.readMetricsValues(condition, duration("1220", "1229"), this::readValues);
+        condition.getEntity().setServiceName("other");
+        cache.readMetricsValues(condition, duration("1220", "1229"), this::readValues);
+
+        Assert.assertEquals(Arrays.asList("1220-1229", "1220-1229"), reads);
+    }
+
+    @Test
+    public void testReadLabeledMetricsValues() throws IOException {
+        final List<String> labels = Arrays.asList("50", "99");
+        final List<MetricsValues> first = cache.readLabeledMetricsValues(
+            condition, labels, duration("1220", "1229"), d -> readLabeledValues(labels, d));
+        final List<MetricsValues> second = cache.readLabeledMetricsValues(
+            condition, labels, duration("1220", "1229"), d -> readLabeledValues(labels, d));
+
+        Assert.assertEquals(Arrays.asList("1220-1229", "1228-1229"), reads);
+        Assert.assertEquals(2, second.size());
+        for (int i = 0; i < second.size(); i++) {
+            Assert.assertEquals(first.get(i).getLabel(), second.get(i).getLabel());
+            Assert.assertEquals(ids(first.get(i)), ids(second.get(i)));
+            Assert.assertEquals(values(first.get(i)), values(second.get(i)));
+        }
+    }
+
+    @Test
+    public void testReadLabeledMetricsValuesWithoutLabels() throws IOException {
+        final List<String> labels = Collections.emptyList();
+        cache.readLabeledMetricsValues(condition, labels, duration("1220", "1229"), d -> readLabeledValues(labels, d));
+        cache.readLabeledMetricsValues(condition, labels, duration("1220", "1229"), d -> readLabeledValues(labels, d));
+
+        Assert.assertEquals(Arrays.asList("1220-1229", "1220-1229"), reads);
+    }
+
+    @Test
+    public void testReadHeatMap() throws IOException {
+        final HeatMap first = cache.readHeatMap(condition, duration("1220", "1229"), d -> readHeatMap(d, false));
+        // No data in the open buckets, the buckets of the cached columns are used.
+        final HeatMap second = cache.readHeatMap(condition, duration("1220", "1229"), d -> readHeatMap(d, true));
+
+        Assert.assertEquals(Arrays.asList("1220-1229", "1228-1229"), reads);
+        Assert.assertEquals(3, second.getBuckets().size());
+        Assert.assertEquals(10, second.getValues().size());
+        Assert.assertEquals(first.getValues().get(0).getValues(), second.getValues().get(0).getValues());
+        Assert.assertEquals(Arrays.asList(-1L, -1L, -1L), second.getValues().get(9).getValues());
+    }
+
+    @Test
+    public void testSortMetrics() throws IOException {
+        final TopNCondition topN = new TopNCondition();
+        topN.setName(METRICS_NAME);
+        topN.setScope(Scope.Service);
+        topN.setTopN(10);
+        topN.setOrder(Order.DES);
+
+        cache.sortMetrics(topN, duration("1220", "1227"), this::sortMetrics);
+        final List<SelectedRecord> closed = cache.sortMetrics(topN, duration("1220", "1227"), this::sortMetrics);
+        Assert.assertEquals(Collections.singletonList("1220-1227"), reads);
+        Assert.assertEquals(1, closed.size());
+
+        cache.sortMetrics(topN, duration("1220", "1228"), this::sortMetrics);
+        cache.sortMetrics(topN, duration("1220", "1228"), this::sortMetrics);
+        Assert.assertEquals(Arrays.asList("1220-1227", "1220-1228", "1220-1228"), reads);
+    }
+
+    private static Duration duration(String start, String end) {
+        final Duration duration = new Duration();
+        duration.setStart("2021-05-01 " + start);
+        duration.setEnd("2021-05-01 " + end);
+        duration.setStep(Step.MINUTE);
+        return duration;
+    }
+
+    private void record(Duration duration) {
+        reads.add(duration.getStart().substring(11) + "-" + duration.getEnd().substring(11));
+    }
+
+    private MetricsValues readValues(Duration duration) {
+        record(duration);
+        final MetricsValues values = new MetricsValues();
+        duration.assembleDurationPoints().forEach(point -> {
+            final KVInt kv = new KVInt();
+            kv.setId(point.id(condition.getEntity().buildId()));
+            kv.setValue(point.getPoint() % 100);
+            values.getValues().addKVInt(kv);
+        });
+        return values;
+    }
+
+    private List<MetricsValues> readLabeledValues(List<String> labels, Duration duration) {
+        final List<String> readLabels = labels.isEmpty() ? Collections.singletonList("50") : labels;
+        final MetricsValues template = readValues(duration);
+        return readLabels.stream().sorted().map(label -> {
+            final MetricsValues values = new MetricsValues();
+            values.setLabel(label);
+            template.getValues().getValues().forEach(kv -> {
+                final KVInt labeled = new KVInt();
+                labeled.setId(kv.getId());
+                labeled.setValue(kv.getValue() * Long.parseLong(label));
+                values.getValues().addKVInt(labeled);
+            });
+            return values;
+        }).collect(Collectors.toList());
+    }
+
+    private HeatMap readHeatMap(Duration duration, boolean empty) {
+        record(duration);
+        final HeatMap heatMap = new HeatMap();
+        final List<String> ids = duration.assembleDurationPoints()
+                                         .stream()
+                                         .map(point -> point.id(condition.getEntity().buildId()))
+                                         .collect(Collectors.toList());
+        if (!empty) {
+            ids.forEach(id -> heatMap.buildColumn(id, "0,1|100,2|200,3", -1));
+        }
+        heatMap.fixMissingColumns(ids, -1);
+        return heatMap;
+    }
+
+    private List<SelectedRecord> sortMetrics(Duration duration) {
+        record(duration);
+        final SelectedRecord record = new SelectedRecord();
+        record.setId("service");
+        record.setValue("1");
+        return Collections.singletonList(record);
+    }
+
+    private static List<String> ids(MetricsValues values) {
+        return values.getValues().getValues().stream().map(KVInt::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> values(MetricsValues values) {
+        return values.getValues().getValues().stream().map(KVInt::getValue).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.core.query;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.oap.server.core.analysis.IDManager;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationClientSideMetrics;
+import org.apache.skywalking.oap.server.core.analysis.manual.relation.service.ServiceRelationServerSideMetrics;
+import org.apache.skywalking.oap.server.core.query.type.Call;
+import org.apache.skywalking.oap.server.core.source.DetectPoint;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServiceRelationIndexTest {
+    private static final String SERVICE_A = IDManager.ServiceID.buildId("a", true);
+    private static final String SERVICE_B = IDManager.ServiceID.buildId("b", true);
+    private static final String SERVICE_C = IDManager.ServiceID.buildId("c", true);
+
+    private final AtomicLong now = new AtomicLong(timestamp("202105011220"));
+    private final AtomicBoolean exclusive = new AtomicBoolean(true);
+    private ServiceRelationIndex index;
+
+    @Before
+    public void setUp() {
+        index = new ServiceRelationIndex(10, exclusive::get, now::get);
+    }
+
+    @Test
+    public void testCovers() {
+        // The current minute may have been persisted before the index started.
+        Assert.assertFalse(index.covers(202105011220L));
+        Assert.assertTrue(index.covers(202105011221L));
+        Assert.assertFalse(index.covers(2021050112L));
+        Assert.assertTrue(index.covers(2021050113L));
+
+        exclusive.set(false);
+        Assert.assertFalse(index.covers(202105011221L));
+    }
+
+    @Test
+    public void testLoadRelations() {
+        index.index(server(202105011221L, SERVICE_A, SERVICE_B, 1));
+        index.index(server(202105011222L, SERVICE_A, SERVICE_B, 1));
+        index.index(server(202105011223L, SERVICE_B, SERVICE_C, 2));
+        index.index(client(202105011222L, SERVICE_A, SERVICE_B, 3));
+
+        final List<Call.CallDetail> all = index.loadServerSideRelations(202105011221L, 202105011230L, null);
+        Assert.assertEquals(2, all.size());
+
+        final List<Call.CallDetail> calls = index.loadServerSideRelations(202105011221L, 202105011222L, null);
+        Assert.assertEquals(1, calls.size());
+        Assert.assertEquals(SERVICE_A, calls.get(0).getSource());
+        Assert.assertEquals(SERVICE_B, calls.get(0).getTarget());
+        Assert.assertEquals(1, calls.get(0).getComponentId().intValue());
+        Assert.assertEquals(DetectPoint.SERVER, calls.get(0).getDetectPoint());
+
+        final List<Call.CallDetail> ofC = index.loadServerSideRelations(
+            2021050112L, 2021050112L, Collections.singleton(SERVICE_C));
+        Assert.assertEquals(1, ofC.size());
+        Assert.assertEquals(SERVICE_B, ofC.get(0).getSource());
+
+        final List<Call.CallDetail> clientCalls = index.loadClientSideRelations(202105011221L, 202105011230L, null);
+        Assert.assertEquals(1, clientCalls.size());
+        Assert.assertEquals(DetectPoint.CLIENT, clientCalls.get(0).getDetectPoint());
+        Assert.assertEquals(3, clientCalls.get(0).getComponentId().intValue());
+    }
+
+    @Test
+    public void testEvictOldMinutes() {
+        index.index(server(202105011221L, SERVICE_A, SERVICE_B, 1));
+        index.index(server(202105011235L, SERVICE_B, SERVICE_C, 2));
+
+        Assert.assertFalse(index.covers(202105011225L));
+        Assert.assertTrue(index.covers(202105011226L));
+        Assert.assertEquals(1, index.loadServerSideRelations(202105011220L, 202105011235L, null).size());
+    }
+
+    @Test
+    public void testResetWhenNotExclusive() {
+        index.index(server(202105011221L, SERVICE_A, SERVICE_B, 1));
+        now.set(timestamp("202105011225"));
+        exclusive.set(false);
+        index.index(server(202105011225L, SERVICE_B, SERVICE_C, 2));
+        exclusive.set(true);
+
+        Assert.assertFalse(index.covers(202105011225L));
+        Assert.assertTrue(index.covers(202105011226L));
+        Assert.assertTrue(index.loadServerSideRelations(202105011226L, 202105011230L, null).isEmpty());
+    }
+
+    private static ServiceRelationServerSideMetrics server(long timeBucket, String source, String dest,
+                                                          int componentId) {
+        final ServiceRelationServerSideMetrics metrics = new ServiceRelationServerSideMetrics();
+        metrics.setTimeBucket(timeBucket);
+        metrics.setSourceServiceId(source);
+        metrics.setDestServiceId(dest);
+        metrics.setComponentId(componentId);
+        metrics.setEntityId(relationId(source, dest));
+        return metrics;
+    }
+
+    private static ServiceRelationClientSideMetrics client(long timeBucket, String source, String dest,
+                                                          int componentId) {
+        final ServiceRelationClientSideMetrics metrics = new ServiceRelationClientSideMetrics();
+        metrics.setTimeBucket(timeBucket);
+        metrics.setSourceServiceId(source);
+        metrics.setDestServiceId(dest);
+        metrics.setComponentId(componentId);
+        metrics.setEntityId(relationId(source, dest));
+        return metrics;
+    }
+
+    private static String relationId(String source, String dest) {
+        return IDManager.ServiceID.buildRelationId(new IDManager.ServiceID.ServiceRelationDefine(source, dest));
+    }
+
+    private static long timestamp(String minute) {
+        return DateTimeFormat.forPattern("yyyyMMddHHmm").parseMillis(minute);
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.skywalking.oap.server.core.remote.client;
 
 import io.grpc.testing.GrpcServerRule;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.oap.server.core.CoreModule;
 import org.apache.skywalking.oap.server.core.remote.RemoteServiceHandler;
 import org.apache.skywalking.oap.server.core.remote.data.StreamData;
@@ -49,6 +50,7 @@ import static org.mockito.Mockito.when;
 public class GRPCRemoteClientTestCase {
 
     private final String nextWorkerName = "mock-worker";
+    private final AtomicInteger received = new AtomicInteger();
     private ModuleManagerTesting moduleManager;
     @Rule
     public final GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
@@ -65,10 +67,7 @@ public class GRPCRemoteClientTestCase {
 
         TestWorker worker = new TestWorker(moduleManager);
         workerInstancesService.put(nextWorkerName, worker, TestStreamData.class);
-    }
 
-    @Test
-    public void testPush() throws InterruptedException {
         MetricsCreator metricsCreator = mock(MetricsCreator.class);
         when(metricsCreator.createCounter(any(), any(), any(), any())).thenReturn(new CounterMetrics() {
             @Override
@@ -99,7 +98,10 @@ public class GRPCRemoteClientTestCase {
         telemetryModuleDefine.provider().registerServiceImplementation(MetricsCreator.class, metricsCreator);
 
         grpcServerRule.getServiceRegistry().addService(new RemoteServiceHandler(moduleManager));
+    }
 
+    @Test
+    public void testPush() throws InterruptedException {
         Address address = new Address("not-important", 11, false);
         GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null));
         remoteClient.connect();
@@ -111,6 +113,24 @@ public class GRPCRemoteClientTestCase {
         }
 
         TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(12, received.get());
+    }
+
+    @Test
+    public void testBatchPush() throws InterruptedException {
+        Address address = new Address("not-important", 11, false);
+        GRPCRemoteClient remoteClient = spy(new GRPCRemoteClient(moduleManager, address, 1, 10, 10, null, 5, "gzip"));
+        remoteClient.connect();
+
+        doReturn(grpcServerRule.getChannel()).when(remoteClient).getChannel();
+
+        for (int i = 0; i < 12; i++) {
+            remoteClient.push(nextWorkerName, new TestStreamData());
+        }
+
+        TimeUnit.SECONDS.sleep(2);
+        Assert.assertEquals(12, received.get());
+        remoteClient.close();
     }
 
     public static class TestStreamData extends StreamData {
@@ -145,6 +165,7 @@ public class GRPCRemoteClientTestCase {
         public void in(Object o) {
             TestStreamData streamData = (TestStreamData) o;
             Assert.assertEquals(987, streamData.value);
+            received.incrementAndGet();
         }
     }
 }
@@ -22,6 +22,9 @@ import java.io.IOException;
 import java.util.Map;
 
 import org.apache.skywalking.oap.server.core.storage.AbstractDAO;
+import org.apache.skywalking.oap.server.core.storage.StorageData;
+import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
 import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
 import org.apache.skywalking.oap.server.library.client.elasticsearch.ElasticSearchClient;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -48,4 +51,19 @@ public abstract class EsDAO extends AbstractDAO<ElasticSearchClient> {
 
         return builder;
     }
+
+    /**
+     * Build the document of the entity through {@link StorageHashMapBuilder#entity2Columns}, which writes the columns
+     * into the builder directly, rather than building the map for {@link #map2builder(Map)}.
+     */
+    protected <T extends StorageData> XContentBuilder entity2builder(Model model,
+                                                                     StorageHashMapBuilder<T> storageBuilder,
+                                                                     T entity) throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+        storageBuilder.entity2Columns(entity, new XContentColumnWriter(builder));
+        IndexController.INSTANCE.appendMetricTableColumn(model, builder);
+        builder.endObject();
+
+        return builder;
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.IOException;
+import org.apache.skywalking.oap.server.core.storage.type.StorageColumnWriter;
+import org.apache.skywalking.oap.server.core.storage.type.StorageDataComplexObject;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+/**
+ * Write the columns into the fields of the {@link XContentBuilder} directly, the same format as {@link
+ * EsDAO#map2builder}.
+ */
+public class XContentColumnWriter implements StorageColumnWriter {
+    private final XContentBuilder builder;
+
+    public XContentColumnWriter(final XContentBuilder builder) {
+        this.builder = builder;
+    }
+
+    @Override
+    public void write(final String columnName, final long value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override
+    public void write(final String columnName, final int value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override
+    public void write(final String columnName, final double value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override
+    public void write(final String columnName, final float value) throws IOException {
+        builder.field(columnName, value);
+    }
+
+    @Override
+    public void write(final String columnName, final Object value) throws IOException {
+        if (value instanceof StorageDataComplexObject) {
+            builder.field(columnName, ((StorageDataComplexObject) value).toStorageData());
+        } else {
+            builder.field(columnName, value);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.manual.instance.InstanceTraffic;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.PercentileFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.apache.skywalking.oap.server.core.storage.type.StorageColumnWriter;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.shaded.com.google.common.collect.Lists;
+
+/**
+ * Compare building the ES documents through the map of entity2Storage and map2builder, with writing the columns into
+ * the XContentBuilder directly. The avg and percentile builders override entity2Columns in the same way as the OAL
+ * generated builders, see entity2Columns.ftl. The bytes are taken from the builder as the bulk request does, which
+ * also closes the builder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityXContentBenchmark {
+    private final EsDAO dao = new EsDAO(null) {
+    };
+    private final Model avgModel = new Model(
+        "service_resp_time", Lists.newArrayList(), Lists.newArrayList(), 0, DownSampling.Minute, false, false, "avg");
+    private final Model percentileModel = new Model(
+        "service_percentile", Lists.newArrayList(), Lists.newArrayList(), 0, DownSampling.Minute, false, false,
+        "percentile"
+    );
+    private final Model segmentModel = new Model(
+        "segment", Lists.newArrayList(), Lists.newArrayList(), 0, DownSampling.Second, true, true, "");
+
+    private final AvgBuilder avgBuilder = new AvgBuilder();
+    private final PercentileBuilder percentileBuilder = new PercentileBuilder();
+    private final SegmentRecord.Builder segmentBuilder = new SegmentRecord.Builder();
+
+    private final AvgFunction avg = new AvgFunctionInst();
+    private final PercentileFunction percentile = new PercentileFunctionInst();
+    private final SegmentRecord segment = new SegmentRecord();
+
+    {
+        avg.setEntityId("c2VydmljZS0x.1");
+        avg.setServiceId("c2VydmljZS0x.1");
+        avg.setSummation(23_456);
+        avg.setCount(123);
+        avg.setValue(190);
+        avg.setTimeBucket(202105011230L);
+
+        percentile.setEntityId("c2VydmljZS0x.1");
+        percentile.setDataset(new DataTable("0,120|100,80|200,43|300,21|400,12|500,7|1000,3|2000,1"));
+        percentile.setRanks(new IntList("50|75|90|95|99"));
+        percentile.setPercentileValues(new DataTable("50,100|75,200|90,400|95,500|99,1000"));
+        percentile.setTimeBucket(202105011230L);
+
+        segment.setSegmentId("3f2a9d1e6b7c4e0f8a5b2c1d0e9f8a7b.45.16198723456780000");
+        segment.setTraceId("3f2a9d1e6b7c4e0f8a5b2c1d0e9f8a7b.45.16198723456780001");
+        segment.setServiceId("c2VydmljZS0x.1");
+        segment.setServiceInstanceId("c2VydmljZS0x.1_aW5zdGFuY2UtMQ==");
+        segment.setEndpointName("/api/users/{id}");
+        segment.setEndpointId("c2VydmljZS0x.1_L2FwaS91c2Vycy97aWR9");
+        segment.setStartTime(1619872345678L);
+        segment.setEndTime(1619872345878L);
+        segment.setLatency(200);
+        segment.setDataBinary(new byte[512]);
+        segment.setTags(Arrays.asList("http.method=GET", "status_code=200", "db.type=mysql"));
+        segment.setTimeBucket(20210501123225L);
+    }
+
+    @Benchmark
+    public BytesReference avgMap() throws IOException {
+        return BytesReference.bytes(dao.map2builder(
+            IndexController.INSTANCE.appendMetricTableColumn(avgModel, avgBuilder.entity2Storage(avg))));
+    }
+
+    @Benchmark
+    public BytesReference avgColumns() throws IOException {
+        return BytesReference.bytes(dao.entity2builder(avgModel, avgBuilder, avg));
+    }
+
+    @Benchmark
+    public BytesReference percentileMap() throws IOException {
+        return BytesReference.bytes(dao.map2builder(
+            IndexController.INSTANCE.appendMetricTableColumn(
+                percentileModel, percentileBuilder.entity2Storage(percentile))));
+    }
+
+    @Benchmark
+    public BytesReference percentileColumns() throws IOException {
+        return BytesReference.bytes(dao.entity2builder(percentileModel, percentileBuilder, percentile));
+    }
+
+    @Benchmark
+    public BytesReference segmentMap() throws IOException {
+        return BytesReference.bytes(dao.map2builder(
+            IndexController.INSTANCE.appendMetricTableColumn(segmentModel, segmentBuilder.entity2Storage(segment))));
+    }
+
+    @Benchmark
+    public BytesReference segmentColumns() throws IOException {
+        return BytesReference.bytes(dao.entity2builder(segmentModel, segmentBuilder, segment));
+    }
+
+    /**
+     * The same as the OAL generated builder of a long avg metrics.
+     */
+    private static class AvgBuilder extends AvgFunction.AvgStorageBuilder {
+        @Override
+        public void entity2Columns(final AvgFunction storageData, final StorageColumnWriter writer) throws IOException {
+            writer.write(AvgFunction.ENTITY_ID, (Object) storageData.getEntityId());
+            writer.write(InstanceTraffic.SERVICE_ID, (Object) storageData.getServiceId());
+            writer.write("summation", storageData.getSummation());
+            writer.write("count", storageData.getCount());
+            writer.write("value", storageData.getValue());
+            writer.write(AvgFunction.TIME_BUCKET, storageData.getTimeBucket());
+        }
+    }
+
+    /**
+     * The same as the OAL generated builder of a percentile metrics.
+     */
+    private static class PercentileBuilder extends PercentileFunction.PercentileFunctionBuilder {
+        @Override
+        public void entity2Columns(final PercentileFunction storageData,
+                                   final StorageColumnWriter writer) throws IOException {
+            writer.write(PercentileFunction.ENTITY_ID, (Object) storageData.getEntityId());
+            writer.write(PercentileFunction.DATASET, (Object) storageData.getDataset());
+            writer.write(PercentileFunction.RANKS, (Object) storageData.getRanks());
+            writer.write(PercentileFunction.VALUE, (Object) storageData.getPercentileValues());
+            writer.write(PercentileFunction.TIME_BUCKET, storageData.getTimeBucket());
+        }
+    }
+
+    private static class AvgFunctionInst extends AvgFunction {
+        @Override
+        public AcceptableValue<Long> createNew() {
+            return new AvgFunctionInst();
+        }
+    }
+
+    private static class PercentileFunctionInst extends PercentileFunction {
+        @Override
+        public AcceptableValue<PercentileArgument> createNew() {
+            return new PercentileFunctionInst();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(EntityXContentBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+    /*
+        Environment:
+
+        # JMH version: 1.21
+        # VM version: JDK 1.8.0_392, OpenJDK 64-Bit Server VM, 25.392-b08, 1 CPU core
+        # Warmup: 3 iterations, 2 s each
+        # Measurement: 5 iterations, 2 s each
+        # Benchmark mode: Average time, time/op
+
+        Benchmark                                                       Mode  Cnt     Score      Error   Units
+        EntityXContentBenchmark.avgColumns                              avgt    5   773.324 ±  287.773   ns/op
+        EntityXContentBenchmark.avgColumns:·gc.alloc.rate.norm          avgt    5   792.000 ±    0.001    B/op
+        EntityXContentBenchmark.avgMap                                  avgt    5  1150.417 ±  576.438   ns/op
+        EntityXContentBenchmark.avgMap:·gc.alloc.rate.norm              avgt    5  1216.000 ±    0.001    B/op
+        EntityXContentBenchmark.percentileColumns                       avgt    5  2059.329 ± 1021.795   ns/op
+        EntityXContentBenchmark.percentileColumns:·gc.alloc.rate.norm   avgt    5  2448.000 ±    0.001    B/op
+        EntityXContentBenchmark.percentileMap                           avgt    5  1747.727 ±  615.885   ns/op
+        EntityXContentBenchmark.percentileMap:·gc.alloc.rate.norm       avgt    5  2776.000 ±    0.001    B/op
+        EntityXContentBenchmark.segmentColumns                          avgt    5  6613.380 ± 1780.116   ns/op
+        EntityXContentBenchmark.segmentColumns:·gc.alloc.rate.norm      avgt    5  6144.001 ±    0.001    B/op
+        EntityXContentBenchmark.segmentMap                              avgt    5  7894.200 ± 1940.233   ns/op
+        EntityXContentBenchmark.segmentMap:·gc.alloc.rate.norm          avgt    5  6984.002 ±    0.001    B/op
+     */
+}
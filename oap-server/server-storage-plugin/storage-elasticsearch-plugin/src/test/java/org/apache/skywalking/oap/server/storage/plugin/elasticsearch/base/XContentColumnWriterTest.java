@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.elasticsearch.base;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.skywalking.oap.server.core.analysis.DownSampling;
+import org.apache.skywalking.oap.server.core.analysis.manual.segment.SegmentRecord;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.AcceptableValue;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.PercentileFunction;
+import org.apache.skywalking.oap.server.core.analysis.meter.function.avg.AvgFunction;
+import org.apache.skywalking.oap.server.core.analysis.metrics.DataTable;
+import org.apache.skywalking.oap.server.core.analysis.metrics.IntList;
+import org.apache.skywalking.oap.server.core.storage.StorageData;
+import org.apache.skywalking.oap.server.core.storage.StorageHashMapBuilder;
+import org.apache.skywalking.oap.server.core.storage.model.Model;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.testcontainers.shaded.com.google.common.collect.Lists;
+
+public class XContentColumnWriterTest {
+    private final EsDAO dao = new EsDAO(null) {
+    };
+
+    @Test
+    public void testMetricsDocument() throws IOException {
+        Model model = new Model("meter_avg", Lists.newArrayList(), Lists.newArrayList(),
+                                0, DownSampling.Minute, false, false, "avg"
+        );
+        AvgFunction avg = new AvgFunctionInst();
+        avg.setEntityId("service-1");
+        avg.setServiceId("service-1");
+        avg.setSummation(100);
+        avg.setCount(3);
+        avg.setValue(33);
+        avg.setTimeBucket(202105011230L);
+
+        Map<String, Object> document = assertSameDocument(model, new AvgFunction.AvgStorageBuilder(), avg);
+        Assert.assertEquals("meter_avg", document.get(IndexController.LogicIndicesRegister.METRIC_TABLE_NAME));
+    }
+
+    @Test
+    public void testComplexObjectDocument() throws IOException {
+        Model model = new Model("meter_percentile", Lists.newArrayList(), Lists.newArrayList(),
+                                0, DownSampling.Minute, false, false, "percentile"
+        );
+        PercentileFunction percentile = new PercentileFunctionInst();
+        percentile.setEntityId("service-1");
+        percentile.setDataset(new DataTable("0,10|100,3|200,1"));
+        percentile.setRanks(new IntList("50|99"));
+        percentile.setPercentileValues(new DataTable("50,0|99,200"));
+        percentile.setTimeBucket(202105011230L);
+
+        assertSameDocument(model, new PercentileFunction.PercentileFunctionBuilder(), percentile);
+    }
+
+    @Test
+    public void testRecordDocument() throws IOException {
+        Model model = new Model("segment", Lists.newArrayList(), Lists.newArrayList(),
+                                0, DownSampling.Second, true, true, ""
+        );
+        SegmentRecord segment = new SegmentRecord();
+        segment.setSegmentId("segment-1");
+        segment.setTraceId("trace-1");
+        segment.setServiceId("service-1");
+        segment.setEndpointName("/users");
+        segment.setStartTime(1000);
+        segment.setEndTime(1100);
+        segment.setLatency(100);
+        segment.setIsError(1);
+        segment.setDataBinary(new byte[] {1, 2, 3});
+        segment.setTags(Arrays.asList("http.method=GET", "status_code=200"));
+        segment.setTimeBucket(20210501123000L);
+
+        Map<String, Object> document = assertSameDocument(model, new SegmentRecord.Builder(), segment);
+        Assert.assertFalse(document.containsKey(IndexController.LogicIndicesRegister.METRIC_TABLE_NAME));
+    }
+
+    private <T extends StorageData> Map<String, Object> assertSameDocument(Model model,
+                                                                         StorageHashMapBuilder<T> storageBuilder,
+                                                                         T entity) throws IOException {
+        Map<String, Object> expected = toMap(dao.map2builder(
+            IndexController.INSTANCE.appendMetricTableColumn(model, storageBuilder.entity2Storage(entity))));
+        Map<String, Object> actual = toMap(dao.entity2builder(model, storageBuilder, entity));
+        Assert.assertEquals(expected, actual);
+        return actual;
+    }
+
+    private static class AvgFunctionInst extends AvgFunction {
+        @Override
+        public AcceptableValue<Long> createNew() {
+            return new AvgFunctionInst();
+        }
+    }
+
+    private static class PercentileFunctionInst extends PercentileFunction {
+        @Override
+        public AcceptableValue<PercentileArgument> createNew() {
+            return new PercentileFunctionInst();
+        }
+    }
+
+    private Map<String, Object> toMap(XContentBuilder builder) {
+        return XContentHelper.convertToMap(BytesReference.bytes(builder), false, XContentType.JSON).v2();
+    }
+}
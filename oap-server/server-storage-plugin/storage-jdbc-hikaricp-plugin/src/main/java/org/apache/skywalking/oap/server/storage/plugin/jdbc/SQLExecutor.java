@@ -43,15 +43,30 @@ public class SQLExecutor implements InsertRequest, UpdateRequest {
     }
 
     public void invoke(Connection connection) throws SQLException {
-        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            setParameters(preparedStatement);
 
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("execute sql in batch: {}, parameters: {}", sql, param);
+            }
+            preparedStatement.execute();
+        }
+    }
+
+    /**
+     * Set the parameters of this executor into the statement, which is prepared by the {@link #getSql()}.
+     */
+    public void setParameters(PreparedStatement preparedStatement) throws SQLException {
         for (int i = 0; i < param.size(); i++) {
             preparedStatement.setObject(i + 1, param.get(i));
         }
+    }
 
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("execute sql in batch: {}, parameters: {}", sql, param);
-        }
-        preparedStatement.execute();
+    /**
+     * @return the SQL template. The executors with the same template, which are on the same table and columns, could be
+     * executed in one JDBC batch.
+     */
+    public String getSql() {
+        return sql;
     }
 }
@@ -19,8 +19,12 @@
 package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.BulkConsumePool;
@@ -35,6 +39,10 @@ import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
 import org.apache.skywalking.oap.server.library.util.CollectionUtils;
 import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
 
+/**
+ * The batch DAO shared by H2, MySQL, TiDB and PostgreSQL. The requests of the same SQL template are executed in one JDBC
+ * batch and one transaction, rather than one round-trip per request.
+ */
 @Slf4j
 public class H2BatchDAO implements IBatchDAO {
     private JDBCHikariCPClient h2Client;
@@ -65,21 +73,52 @@ public class H2BatchDAO implements IBatchDAO {
             log.debug("batch sql statements execute, data size: {}", prepareRequests.size());
         }
 
-        try (Connection connection = h2Client.getConnection()) {
-            for (PrepareRequest prepareRequest : prepareRequests) {
-                try {
-                    SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
-                    sqlExecutor.invoke(connection);
-                } catch (SQLException e) {
-                    // Just avoid one execution failure makes the rest of batch failure.
-                    log.error(e.getMessage(), e);
-                }
+        final Map<String, List<SQLExecutor>> batches = new LinkedHashMap<>();
+        for (PrepareRequest prepareRequest : prepareRequests) {
+            SQLExecutor sqlExecutor = (SQLExecutor) prepareRequest;
+            batches.computeIfAbsent(sqlExecutor.getSql(), sql -> new ArrayList<>()).add(sqlExecutor);
+        }
+
+        try (Connection connection = h2Client.getTransactionConnection()) {
+            for (Map.Entry<String, List<SQLExecutor>> batch : batches.entrySet()) {
+                executeBatch(connection, batch.getKey(), batch.getValue());
             }
         } catch (SQLException | JDBCClientException e) {
             log.error(e.getMessage(), e);
         }
     }
 
+    /**
+     * Execute the executors of the same SQL template in one JDBC batch, and commit them together. If the batch fails,
+     * fall back to execute them one by one, so one failure doesn't make the rest of batch failure.
+     */
+    private void executeBatch(Connection connection, String sql, List<SQLExecutor> sqlExecutors) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            for (SQLExecutor sqlExecutor : sqlExecutors) {
+                sqlExecutor.setParameters(preparedStatement);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+            return;
+        } catch (SQLException e) {
+            log.warn("batch of {} sql statements failed, execute them one by one. sql: {}, reason: {}",
+                     sqlExecutors.size(), sql, e.getMessage()
+            );
+            connection.rollback();
+        }
+
+        for (SQLExecutor sqlExecutor : sqlExecutors) {
+            try {
+                sqlExecutor.invoke(connection);
+                connection.commit();
+            } catch (SQLException e) {
+                log.error(e.getMessage(), e);
+                connection.rollback();
+            }
+        }
+    }
+
     @Override
     public void asynchronous(InsertRequest insertRequest) {
         this.dataCarrier.produce(insertRequest);
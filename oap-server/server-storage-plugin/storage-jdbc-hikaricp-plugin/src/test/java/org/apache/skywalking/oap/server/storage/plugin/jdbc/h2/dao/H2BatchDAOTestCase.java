@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.skywalking.oap.server.storage.plugin.jdbc.h2.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import org.apache.skywalking.oap.server.library.client.jdbc.hikaricp.JDBCHikariCPClient;
+import org.apache.skywalking.oap.server.library.client.request.PrepareRequest;
+import org.apache.skywalking.oap.server.storage.plugin.jdbc.SQLExecutor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class H2BatchDAOTestCase {
+    private static final String INSERT_SQL = "insert into batch_test(id, value) values (?, ?)";
+
+    private JDBCHikariCPClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("jdbcUrl", "jdbc:h2:mem:batch-test;DB_CLOSE_DELAY=-1");
+        properties.setProperty("dataSource.user", "sa");
+        client = new JDBCHikariCPClient(properties);
+        client.connect();
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "create table batch_test(id varchar(32) primary key, value bigint)");
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Connection connection = client.getConnection()) {
+            client.execute(connection, "drop table batch_test");
+        }
+    }
+
+    @Test
+    public void testBatchInSameTemplate() throws Exception {
+        List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(new SQLExecutor(INSERT_SQL, Arrays.asList("id-" + i, (long) i)));
+        }
+        requests.add(new SQLExecutor("update batch_test set value = ? where id = ?", Arrays.asList(1000L, "id-0")));
+
+        new H2BatchDAO(client).synchronous(requests);
+
+        Assert.assertEquals(100, count());
+        Assert.assertEquals(1000L, valueOf("id-0"));
+    }
+
+    @Test
+    public void testFallbackWhenBatchFailed() throws Exception {
+        List<PrepareRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(new SQLExecutor(INSERT_SQL, Arrays.asList("id-" + i, (long) i)));
+        }
+        // Duplicated primary key fails the batch, the other rows should still be saved.
+        requests.add(new SQLExecutor(INSERT_SQL, Arrays.asList("id-5", 55L)));
+
+        new H2BatchDAO(client).synchronous(requests);
+
+        Assert.assertEquals(10, count());
+        Assert.assertEquals(5L, valueOf("id-5"));
+    }
+
+    private long count() throws Exception {
+        try (Connection connection = client.getConnection()) {
+            ResultSet resultSet = client.executeQuery(connection, "select count(1) from batch_test");
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private long valueOf(String id) throws Exception {
+        try (Connection connection = client.getConnection()) {
+            ResultSet resultSet = client.executeQuery(connection, "select value from batch_test where id = ?", id);
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}